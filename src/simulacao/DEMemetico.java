@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao;
+
+import ic.ce.populacional.algoritmo.AlgoritmoPopulacional;
+import java.util.List;
+import simulacao.algoritmos.BuscaLocal;
+import usina.DistribuicaoVazao;
+import usina.PopulacaoDeDistribuicoes;
+import usina.operadores.Geracao;
+
+/**
+ * DE memético.
+ *
+ * <p>
+ * Intercala blocos de gerações do DE, configurado por uma {@link Simulacao},
+ * com o refinamento local dos melhores indivíduos por {@link BuscaLocal}: o DE
+ * localiza a bacia de atração e a busca por gradiente resolve os últimos
+ * dígitos sobre a superfície suave de eficiência, atendendo a demanda de forma
+ * exata.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see Simulacao#configuraAlgoritmo(usina.PopulacaoDeDistribuicoes, java.lang.Integer)
+ */
+public final class DEMemetico {
+
+    private final Simulacao simulacao;
+    private final Integer intervalo;
+    private final Integer nElites;
+    private final Integer maxPassos;
+
+    /**
+     * Construtor.
+     *
+     * @param simulacao Simulação de referência: usina, demanda e parâmetros do
+     * DE.
+     * @param intervalo Número de gerações entre refinamentos.
+     * @param nElites Número de melhores indivíduos refinados a cada
+     * intervalo.
+     * @param maxPassos Número máximo de passos de gradiente por refinamento.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o intervalo ou o número de passos forem menores que um;</li>
+     * <li>Se o número de elites estiver fora de [1, tamanho da
+     * população].</li>
+     * </ul>
+     * @throws NullPointerException
+     * <ul>
+     * <li>Se a simulação for uma referência nula.</li>
+     * </ul>
+     */
+    public DEMemetico(Simulacao simulacao, Integer intervalo, Integer nElites, Integer maxPassos) {
+        if (simulacao == null) {
+            throw new NullPointerException("Simulação não pode ser uma referência nula.");
+        }
+        if (intervalo < 1) {
+            throw new IllegalArgumentException("Intervalo < 1.");
+        }
+        if (nElites < 1 || nElites > simulacao.getMaxIndividuos()) {
+            throw new IllegalArgumentException("Número de elites fora de [1, tamanho da população].");
+        }
+        if (maxPassos < 1) {
+            throw new IllegalArgumentException("Número de passos < 1.");
+        }
+        this.simulacao = simulacao;
+        this.intervalo = intervalo;
+        this.nElites = nElites;
+        this.maxPassos = maxPassos;
+    }
+
+    /**
+     * Executa um experimento com o número de gerações da simulação de
+     * referência.
+     *
+     * @return Resultado do experimento.
+     */
+    public Resultado experimento() {
+        return experimento(simulacao.getMaxIteInteracoes());
+    }
+
+    /**
+     * Executa um experimento com um número de gerações arbitrário.
+     *
+     * @param maxGeracoes Número total de gerações do DE.
+     * @return Resultado com o tempo de parede [s] e o melhor indivíduo.
+     */
+    public Resultado experimento(int maxGeracoes) {
+
+        long inicio = System.nanoTime();
+        PopulacaoDeDistribuicoes populacao = simulacao.novaPopulacao();
+        Geracao gerador = new Geracao(simulacao.getUsina().getTurbinas());
+        BuscaLocal busca = new BuscaLocal(simulacao.getUsina(), maxPassos);
+
+        int restantes = maxGeracoes;
+        while (restantes > 0) {
+            int geracoes = Math.min(intervalo, restantes);
+            AlgoritmoPopulacional algoritmo = simulacao.configuraAlgoritmo(populacao, geracoes);
+            algoritmo.run();
+            restantes -= geracoes;
+
+            refinaElites(populacao, busca, gerador);
+        }
+
+        double tempo = (System.nanoTime() - inicio) / 1e9;
+        return new Resultado(tempo, populacao.getNMelhores(1).get(0));
+    }
+
+    private void refinaElites(PopulacaoDeDistribuicoes populacao, BuscaLocal busca, Geracao gerador) {
+        List<DistribuicaoVazao> individuos = populacao.getNMelhores(populacao.size());
+        double[] vazoes = new double[simulacao.getUsina().getTurbinas().size()];
+        boolean alterada = false;
+
+        for (int k = 0; k < Math.min(nElites, individuos.size()); k++) {
+            DistribuicaoVazao elite = individuos.get(k);
+            double aptidao = busca.refina(elite.getVazoes(vazoes));
+            if (aptidao > elite.getGrauDeAdaptacao()) {
+                individuos.set(k, gerador.get(vazoes));
+                alterada = true;
+            }
+        }
+
+        if (alterada) {
+            populacao.setIndividuos(individuos);
+        }
+    }
+}
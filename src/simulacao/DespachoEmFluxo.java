@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import simulacao.algoritmos.DespachoIncremental;
+import usina.ContextoDeAvaliacao;
+import usina.DAO.demanda.FonteAntecipada;
+import usina.DAO.demanda.FonteDeDemanda;
+import usina.Usina;
+
+/**
+ * Despacho de séries longas de demanda, período a período, sem carregar a
+ * série.
+ *
+ * <p>
+ * A série é lida em blocos por {@link FonteAntecipada}: o bloco seguinte é
+ * lido em segundo plano enquanto os períodos do bloco atual são
+ * despachados. Cada período é resolvido por {@link DespachoIncremental}, e o
+ * resultado entregue a um consumidor, sem acumular resultados em memória.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see FonteDeDemanda
+ */
+public class DespachoEmFluxo {
+
+    /**
+     * Destino dos resultados de cada período.
+     */
+    @FunctionalInterface
+    public interface Consumidor {
+
+        /**
+         * Recebe o despacho de um período.
+         *
+         * @param periodo Índice do período, a partir de 0.
+         * @param demanda Demanda do período [MW].
+         * @param vazoes Vazões despachadas; o vetor é reutilizado entre
+         * chamadas e deve ser copiado para ser guardado.
+         * @param aptidao Grau de adaptação do despacho, ou 0 em períodos de
+         * demanda nula, em que todas as turbinas ficam paradas.
+         * @throws IOException Se o resultado não puder ser registrado; encerra
+         * o despacho.
+         */
+        void aceita(long periodo, double demanda, double[] vazoes, double aptidao) throws IOException;
+    }
+
+    private final Usina usina;
+    private final DespachoIncremental despacho;
+    private final int tamanhoBloco;
+
+    /**
+     * Construtor com blocos de {@link FonteAntecipada#BLOCO_PADRAO} períodos.
+     *
+     * @param usina Usina a despachar.
+     */
+    public DespachoEmFluxo(Usina usina) {
+        this(usina, FonteAntecipada.BLOCO_PADRAO);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param usina Usina a despachar.
+     * @param tamanhoBloco Número de períodos lidos antecipadamente por vez.
+     */
+    public DespachoEmFluxo(Usina usina, int tamanhoBloco) {
+        this.usina = usina;
+        this.despacho = new DespachoIncremental(usina);
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Despacha todos os períodos de uma série.
+     *
+     * <p>
+     * Períodos de demanda nula não são otimizados: todas as vazões são nulas
+     * e a aptidão, sem potência nem vazão, é 0.
+     * </p>
+     *
+     * @param fonte Série de demanda; é fechada ao final.
+     * @param consumidor Destino dos resultados.
+     * @return Número de períodos despachados.
+     * @throws IOException Se a série não puder ser lida ou o consumidor
+     * falhar.
+     * @throws IllegalArgumentException Se alguma demanda for negativa ou não
+     * numérica.
+     */
+    public long executa(FonteDeDemanda fonte, Consumidor consumidor) throws IOException {
+        double[] bloco = new double[tamanhoBloco];
+        double[] vazoes = new double[usina.getTurbinas().size()];
+        long periodo = 0;
+
+        try (FonteAntecipada antecipada = new FonteAntecipada(fonte, tamanhoBloco)) {
+            int n;
+            while ((n = le(antecipada, bloco)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    double aptidao = despacha(periodo, bloco[i], vazoes);
+                    consumidor.aceita(periodo++, bloco[i], vazoes, aptidao);
+                }
+            }
+        }
+        return periodo;
+    }
+
+    private double despacha(long periodo, double demanda, double[] vazoes) {
+        if (demanda == 0) {
+            Arrays.fill(vazoes, 0);
+            return 0;
+        }
+        if (!(demanda > 0)) {
+            throw new IllegalArgumentException("Demanda inválida no período " + periodo + ": " + demanda + ".");
+        }
+        return despacho.despacha(new ContextoDeAvaliacao(demanda), vazoes);
+    }
+
+    private static int le(FonteDeDemanda fonte, double[] bloco) throws IOException {
+        try {
+            return fonte.le(bloco, 0, bloco.length);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import simulacao.ModeloDeIlhas.Topologia;
+import simulacao.algoritmos.AlocacaoDeUnidades;
+import simulacao.algoritmos.AlocacaoMultiperiodo;
+import simulacao.algoritmos.DespachoComRampa;
+import simulacao.algoritmos.DespachoIncremental;
+import simulacao.criterios.CriterioDeParada;
+import simulacao.criterios.Dispersao;
+import simulacao.criterios.Estagnacao;
+import usina.ContextoDeAvaliacao;
+import usina.DAO.demanda.DemandaCSVFileDAO;
+import usina.DAO.demanda.FonteDeDemanda;
+import usina.DAO.demanda.FonteDeDemandaBinaria;
+import usina.DAO.demanda.FonteDeDemandaCSV;
+import usina.Usina;
+import usina.factory.UsinaFactory;
+
+/**
+ * Experimentos de desempenho dos despachos, programações e variantes do DE,
+ * reunidos em um único ponto de entrada.
+ *
+ * <p>
+ * O primeiro argumento escolhe o experimento, e os demais são repassados a
+ * ele:
+ * </p>
+ * <ul>
+ * <li><code>alocacao</code>: {@link AlocacaoDeUnidades};</li>
+ * <li><code>multiperiodo</code>: {@link AlocacaoMultiperiodo};</li>
+ * <li><code>rampa</code>: {@link DespachoComRampa};</li>
+ * <li><code>diaria</code>: {@link ProgramacaoDiaria};</li>
+ * <li><code>paralela</code>: {@link ProgramacaoParalela};</li>
+ * <li><code>fluxo</code>: {@link DespachoEmFluxo};</li>
+ * <li><code>ilhas</code>: {@link ModeloDeIlhas};</li>
+ * <li><code>memetico</code>: {@link DEMemetico};</li>
+ * <li><code>derivadas</code>: {@link VerificacaoDerivadas}, que encerra com
+ * código de saída 1 se alguma verificação falhar.</li>
+ * </ul>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class Experimentos {
+
+    private static final String[] NOMES = {"alocacao", "multiperiodo", "rampa", "diaria", "paralela", "fluxo", "ilhas", "memetico", "derivadas"};
+
+    private Experimentos() {
+    }
+
+    /**
+     * Executa um experimento.
+     *
+     * @param args Nome do experimento, seguido dos seus argumentos. Sem
+     * argumentos, lista os experimentos disponíveis.
+     * @throws Exception Em caso de falha no experimento.
+     * @throws IllegalArgumentException Se o experimento for desconhecido.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Experimentos:\t" + String.join(", ", NOMES));
+            return;
+        }
+        String[] argumentos = Arrays.copyOfRange(args, 1, args.length);
+        switch (args[0]) {
+            case "alocacao":
+                alocacao(argumentos);
+                break;
+            case "multiperiodo":
+                multiperiodo(argumentos);
+                break;
+            case "rampa":
+                rampa(argumentos);
+                break;
+            case "diaria":
+                diaria(argumentos);
+                break;
+            case "paralela":
+                paralela(argumentos);
+                break;
+            case "fluxo":
+                fluxo(argumentos);
+                break;
+            case "ilhas":
+                ilhas(argumentos);
+                break;
+            case "memetico":
+                memetico(argumentos);
+                break;
+            case "derivadas":
+                if (VerificacaoDerivadas.executa() > 0) {
+                    System.exit(1);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Experimento desconhecido: " + args[0] + ".");
+        }
+    }
+
+    /**
+     * Compara, para uma faixa de demandas, a melhor alocação com o despacho
+     * de todas as turbinas.
+     *
+     * @param args Não utilizados.
+     */
+    private static void alocacao(String[] args) {
+        Usina usina = UsinaFactory.getUsina(UsinaFactory.Usinas.TRESMARIAS);
+        AlocacaoDeUnidades alocacao = new AlocacaoDeUnidades(usina);
+        DespachoIncremental despacho = new DespachoIncremental(usina);
+        double[] vazoes = new double[usina.getTurbinas().size()];
+
+        System.out.println("Demanda [MW]\tTodas ligadas\tLigadas\tConjuntos\tAlocação");
+        for (double meta = 60; meta <= 390; meta += 30) {
+            ContextoDeAvaliacao contexto = new ContextoDeAvaliacao(meta);
+            double todas = despacho.despacha(contexto, vazoes);
+            AlocacaoDeUnidades.Solucao solucao = alocacao.resolve(contexto);
+            System.out.println(meta + "\t" + String.format("%.6f", todas) + "\t"
+                    + (solucao == null ? "-\t" + alocacao.getNAvaliados() + "\tinviável"
+                            : solucao.getNLigadas() + "\t" + alocacao.getNAvaliados() + "\t" + solucao));
+        }
+    }
+
+    /**
+     * Planeja a série de <code>data/input/demanda.csv</code>, opcionalmente
+     * escalada, e informa o plano e o tempo de solução.
+     *
+     * @param args Fator de escala da demanda (opcional, padrão 1).
+     * @throws Exception Em caso de falha na leitura da demanda.
+     */
+    private static void multiperiodo(String[] args) throws Exception {
+        double escala = args.length > 0 ? Double.parseDouble(args[0]) : 1;
+        double[] demandas = new DemandaCSVFileDAO().carregaDemanda();
+        for (int t = 0; t < demandas.length; t++) {
+            demandas[t] *= escala;
+        }
+
+        Usina usina = UsinaFactory.getUsina(UsinaFactory.Usinas.TRESMARIAS);
+        AlocacaoMultiperiodo alocacao = new AlocacaoMultiperiodo(usina, 3, 2, 20);
+
+        long inicio = System.nanoTime();
+        AlocacaoMultiperiodo.Plano plano = alocacao.resolve(demandas);
+        double tempo = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.println(plano);
+        System.out.println("Tempo [s]:\t" + tempo);
+        System.out.println("Despachos calculados:\t" + alocacao.getNDespachos()
+                + "\tconsultas:\t" + alocacao.getNConsultas());
+    }
+
+    /**
+     * Despacha a série de <code>data/input/demanda.csv</code> em períodos de
+     * 15 minutos, interpolada linearmente, com e sem limites de rampa.
+     *
+     * @param args Rampa máxima por período [m^3/s] (opcional, padrão 1,5).
+     * @throws Exception Em caso de falha na leitura da demanda.
+     */
+    private static void rampa(String[] args) throws Exception {
+        double rampa = args.length > 0 ? Double.parseDouble(args[0]) : 1.5;
+        double[] horarias = new DemandaCSVFileDAO().carregaDemanda();
+        double[] demandas = new double[4 * horarias.length];
+        for (int t = 0; t < demandas.length; t++) {
+            int h = t / 4;
+            double proxima = horarias[Math.min(h + 1, horarias.length - 1)];
+            demandas[t] = horarias[h] + (proxima - horarias[h]) * (t % 4) / 4;
+        }
+
+        Usina usina = UsinaFactory.getUsina(UsinaFactory.Usinas.TRESMARIAS);
+        int n = usina.getTurbinas().size();
+
+        DespachoIncremental incremental = new DespachoIncremental(usina);
+        double[][] livres = new double[demandas.length][n];
+        double mediaLivre = 0;
+        double maiorRampaLivre = 0;
+        for (int t = 0; t < demandas.length; t++) {
+            mediaLivre += incremental.despacha(new ContextoDeAvaliacao(demandas[t]), livres[t]) / demandas.length;
+            for (int i = 0; t > 0 && i < n; i++) {
+                maiorRampaLivre = Math.max(maiorRampaLivre, Math.abs(livres[t][i] - livres[t - 1][i]));
+            }
+        }
+
+        double[] rampas = new double[n];
+        Arrays.fill(rampas, rampa);
+
+        long inicio = System.nanoTime();
+        DespachoComRampa.Plano plano = new DespachoComRampa(usina, rampas).resolve(demandas, livres[0]);
+        double tempo = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.println("Períodos:\t" + demandas.length);
+        System.out.println("Sem rampa:\taptidão média " + mediaLivre + "\tmaior rampa " + maiorRampaLivre);
+        System.out.println("Com rampa " + rampa + ":\taptidão média " + plano.getAptidaoMedia()
+                + "\tmaior rampa " + plano.getMaiorRampa());
+        System.out.println("Tempo [s]:\t" + tempo);
+    }
+
+    /**
+     * Resolve a série de <code>data/input/demanda.csv</code> com partida
+     * aquecida e com partidas independentes, e compara o total de gerações.
+     *
+     * @param args Não utilizados.
+     * @throws Exception Em caso de falha na leitura da demanda.
+     */
+    private static void diaria(String[] args) throws Exception {
+        double[] demandas = new DemandaCSVFileDAO().carregaDemanda();
+
+        Simulacao simulacao = new Simulacao();
+        Supplier<CriterioDeParada> criterios = () -> new Estagnacao(10, 1e-6).ou(new Dispersao(1e-6));
+
+        ProgramacaoDiaria aquecida = new ProgramacaoDiaria(simulacao, criterios, demandas, true);
+        ProgramacaoDiaria fria = new ProgramacaoDiaria(simulacao, criterios, demandas, false);
+
+        List<ResultadoOrcado> resultados = aquecida.executa();
+        aquecida.escreveTabela(resultados, System.out);
+
+        int nRepeticoes = 20;
+        double geracoesAquecida = 0;
+        double geracoesFria = 0;
+        double aptidaoAquecida = 0;
+        double aptidaoFria = 0;
+        for (int r = 0; r < nRepeticoes; r++) {
+            for (Resultado resultado : aquecida.executa()) {
+                geracoesAquecida += resultado.getGeracoes();
+                aptidaoAquecida += resultado.getMelhorSolucao();
+            }
+            for (Resultado resultado : fria.executa()) {
+                geracoesFria += resultado.getGeracoes();
+                aptidaoFria += resultado.getMelhorSolucao();
+            }
+        }
+        int total = nRepeticoes * demandas.length;
+        System.out.println("Partida aquecida:\tgerações/período " + geracoesAquecida / total
+                + "\taptidão média " + aptidaoAquecida / total);
+        System.out.println("Partidas independentes:\tgerações/período " + geracoesFria / total
+                + "\taptidão média " + aptidaoFria / total);
+    }
+
+    /**
+     * Compara o tempo de parede da programação sequencial com o da paralela
+     * para a série de <code>data/input/demanda.csv</code>.
+     *
+     * @param args Número de linhas de execução (opcional).
+     * @throws Exception Em caso de falha na leitura da demanda ou na solução.
+     */
+    private static void paralela(String[] args) throws Exception {
+        double[] demandas = new DemandaCSVFileDAO().carregaDemanda();
+        int nThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+
+        Usina usina = UsinaFactory.getUsina(UsinaFactory.Usinas.TRESMARIAS);
+        Supplier<CriterioDeParada> criterios = () -> new Estagnacao(10, 1e-6).ou(new Dispersao(1e-6));
+
+        ProgramacaoParalela sequencial = new ProgramacaoParalela(usina, criterios, 1);
+        ProgramacaoParalela paralela = new ProgramacaoParalela(usina, criterios, nThreads);
+
+        for (int aquecimento = 0; aquecimento < 5; aquecimento++) {
+            sequencial.executa(demandas, 1, TimeUnit.MINUTES);
+            paralela.executa(demandas, 1, TimeUnit.MINUTES);
+        }
+
+        long inicio = System.nanoTime();
+        sequencial.executa(demandas, 1, TimeUnit.MINUTES);
+        double tempoSequencial = (System.nanoTime() - inicio) / 1e9;
+
+        inicio = System.nanoTime();
+        List<ResultadoOrcado> resultados = paralela.executa(demandas, 1, TimeUnit.MINUTES);
+        double tempoParalelo = (System.nanoTime() - inicio) / 1e9;
+
+        double maisLento = 0;
+        for (ResultadoOrcado resultado : resultados) {
+            maisLento = Math.max(maisLento, resultado.getTempoExecucao());
+        }
+
+        System.out.println("Linhas de execução:\t" + nThreads);
+        System.out.println("Sequencial [s]:\t" + tempoSequencial);
+        System.out.println("Paralelo [s]:\t" + tempoParalelo);
+        System.out.println("Período mais lento [s]:\t" + maisLento);
+    }
+
+    /**
+     * Despacha uma série em arquivo: binário se terminado em
+     * <code>.bin</code>, CSV caso contrário, e
+     * {@link DemandaCSVFileDAO#ARQUIVO_PADRAO} se nenhum for informado.
+     *
+     * @param args Arquivo da série, opcional.
+     * @throws Exception Em erros de leitura.
+     */
+    private static void fluxo(String[] args) throws Exception {
+        Path arquivo = Paths.get(args.length > 0 ? args[0] : DemandaCSVFileDAO.ARQUIVO_PADRAO);
+        FonteDeDemanda fonte = arquivo.toString().endsWith(".bin")
+                ? new FonteDeDemandaBinaria(arquivo)
+                : new FonteDeDemandaCSV(arquivo);
+
+        DespachoEmFluxo fluxo = new DespachoEmFluxo(UsinaFactory.getUsina(UsinaFactory.Usinas.TRESMARIAS));
+        double[] soma = new double[1];
+
+        long inicio = System.nanoTime();
+        long periodos = fluxo.executa(fonte, (periodo, demanda, vazoes, aptidao) -> soma[0] += aptidao);
+        double tempo = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.println("Períodos:\t" + periodos);
+        System.out.println("Aptidão média:\t" + soma[0] / periodos);
+        System.out.println("Tempo [s]:\t" + tempo + "\t(" + periodos / tempo + " períodos/s)");
+    }
+
+    /**
+     * Avalia a escalabilidade do modelo de ilhas: qualidade da solução e
+     * tempo de parede em função do número de ilhas e de linhas de execução.
+     *
+     * @param args Não utilizados.
+     */
+    private static void ilhas(String[] args) {
+        Simulacao simulacao = new Simulacao();
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        int nExperimentos = 20;
+
+        System.out.println("Topologia\tIlhas\tThreads\tTempo médio [s]\tMédia dos melhores\tMelhor");
+        for (Topologia topologia : Topologia.values()) {
+            for (int nIlhas = 1; nIlhas <= 2 * nucleos; nIlhas *= 2) {
+                for (int nThreads = 1; nThreads <= Math.min(nIlhas, nucleos); nThreads *= 2) {
+
+                    ModeloDeIlhas modelo = new ModeloDeIlhas(simulacao, nIlhas, topologia, 10, 2, nThreads);
+
+                    double tempo = 0;
+                    double media = 0;
+                    double melhor = Double.NEGATIVE_INFINITY;
+                    for (int i = 0; i < nExperimentos; i++) {
+                        Resultado resultado = modelo.experimento();
+                        tempo += resultado.getTempoExecucao();
+                        media += resultado.getMelhorSolucao();
+                        melhor = Math.max(melhor, resultado.getMelhorSolucao());
+                    }
+
+                    System.out.println(topologia + "\t" + nIlhas + "\t" + nThreads + "\t"
+                            + tempo / nExperimentos + "\t" + media / nExperimentos + "\t" + melhor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compara a qualidade média do DE memético com a do DE puro para
+     * diferentes números de gerações.
+     *
+     * @param args Não utilizados.
+     */
+    private static void memetico(String[] args) {
+        Simulacao simulacao = new Simulacao();
+        DEMemetico memetico = new DEMemetico(simulacao, 5, 3, 20);
+        int nExperimentos = 50;
+
+        System.out.println("Gerações\tMédia memético\tTempo memético [s]");
+        for (int geracoes = 5; geracoes <= simulacao.getMaxIteInteracoes(); geracoes *= 2) {
+            double media = 0;
+            double tempo = 0;
+            for (int i = 0; i < nExperimentos; i++) {
+                Resultado resultado = memetico.experimento(geracoes);
+                media += resultado.getMelhorSolucao();
+                tempo += resultado.getTempoExecucao();
+            }
+            System.out.println(geracoes + "\t" + media / nExperimentos + "\t" + tempo / nExperimentos);
+        }
+
+        double media = 0;
+        for (int i = 0; i < nExperimentos; i++) {
+            media += simulacao.experimento().getMelhorSolucao();
+        }
+        System.out.println("DE puro (" + simulacao.getMaxIteInteracoes() + " gerações):\t" + media / nExperimentos);
+    }
+}
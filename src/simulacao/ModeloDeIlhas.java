@@ -0,0 +1,318 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao;
+
+import ic.ce.populacional.algoritmo.AlgoritmoPopulacional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import usina.DistribuicaoVazao;
+import usina.PopulacaoDeDistribuicoes;
+import usina.operadores.Geracao;
+
+/**
+ * Modelo de ilhas para o DE.
+ *
+ * <p>
+ * Executa várias populações independentes (ilhas), cada uma evoluída em sua
+ * própria linha de execução com a configuração de DE de uma
+ * {@link Simulacao}. A cada intervalo de migração, cada ilha publica seus
+ * melhores indivíduos e recebe os publicados por suas vizinhas, segundo a
+ * {@link Topologia} escolhida; os migrantes substituem os piores indivíduos da
+ * população receptora.
+ * </p>
+ *
+ * <p>
+ * A troca é assíncrona e sem bloqueios: cada ilha possui uma caixa de saída
+ * ({@link AtomicReferenceArray}) onde publica um instantâneo imutável de suas
+ * elites, e lê a última publicação disponível das vizinhas sem esperar por
+ * elas. Ilhas mais lentas, portanto, não atrasam as demais.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see Simulacao#configuraAlgoritmo(usina.PopulacaoDeDistribuicoes, java.lang.Integer)
+ */
+public final class ModeloDeIlhas {
+
+    /**
+     * Topologias de migração.
+     *
+     * @since 1.0
+     */
+    public enum Topologia {
+
+        /**
+         * Cada ilha recebe da anterior: i-1 → i.
+         */
+        ANEL,
+        /**
+         * A ilha 0 recebe de todas; as demais recebem apenas da ilha 0.
+         */
+        ESTRELA,
+        /**
+         * Cada ilha recebe de todas as outras.
+         */
+        COMPLETA;
+
+        /**
+         * Retorna as ilhas de origem dos migrantes recebidos por uma ilha.
+         *
+         * @param ilha Índice da ilha receptora.
+         * @param nIlhas Número total de ilhas.
+         * @return Índices das ilhas de origem.
+         */
+        public int[] getOrigens(int ilha, int nIlhas) {
+            if (nIlhas < 2) {
+                return new int[0];
+            }
+            switch (this) {
+                case ANEL:
+                    return new int[]{(ilha - 1 + nIlhas) % nIlhas};
+                case ESTRELA:
+                    return (ilha != 0) ? new int[]{0} : todasExceto(ilha, nIlhas);
+                default:
+                    return todasExceto(ilha, nIlhas);
+            }
+        }
+
+        private static int[] todasExceto(int ilha, int nIlhas) {
+            int[] origens = new int[nIlhas - 1];
+            for (int i = 0, k = 0; i < nIlhas; i++) {
+                if (i != ilha) {
+                    origens[k++] = i;
+                }
+            }
+            return origens;
+        }
+    }
+
+    /**
+     * Instantâneo imutável das elites de uma ilha.
+     */
+    private static final class Migrantes {
+
+        private final double[][] vazoes;
+        private final double[] aptidoes;
+
+        private Migrantes(List<DistribuicaoVazao> elites) {
+            vazoes = new double[elites.size()][];
+            aptidoes = new double[elites.size()];
+            for (int i = 0; i < elites.size(); i++) {
+                vazoes[i] = elites.get(i).getVazoes();
+                aptidoes[i] = elites.get(i).getGrauDeAdaptacao().doubleValue();
+            }
+        }
+    }
+
+    private final Simulacao simulacao;
+    private final Integer nIlhas;
+    private final Topologia topologia;
+    private final Integer intervaloDeMigracao;
+    private final Integer nMigrantes;
+    private final Integer nThreads;
+
+    /**
+     * Construtor.
+     *
+     * @param simulacao Simulação de referência: usina, demanda e parâmetros do
+     * DE.
+     * @param nIlhas Número de ilhas.
+     * @param topologia Topologia de migração.
+     * @param intervaloDeMigracao Número de gerações entre migrações.
+     * @param nMigrantes Número de indivíduos enviados por ilha em cada
+     * migração.
+     * @param nThreads Número de linhas de execução disponíveis às ilhas.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o número de ilhas, o intervalo de migração ou o número de
+     * linhas de execução for menor que um;</li>
+     * <li>Se o número de migrantes for negativo ou não menor que o tamanho da
+     * população.</li>
+     * </ul>
+     * @throws NullPointerException
+     * <ul>
+     * <li>Se a simulação ou a topologia forem referências nulas.</li>
+     * </ul>
+     */
+    public ModeloDeIlhas(Simulacao simulacao, Integer nIlhas, Topologia topologia,
+            Integer intervaloDeMigracao, Integer nMigrantes, Integer nThreads) {
+
+        if (simulacao == null) {
+            throw new NullPointerException("Simulação não pode ser uma referência nula.");
+        }
+        if (topologia == null) {
+            throw new NullPointerException("Topologia não pode ser uma referência nula.");
+        }
+        if (nIlhas < 1) {
+            throw new IllegalArgumentException("Número de ilhas < 1.");
+        }
+        if (intervaloDeMigracao < 1) {
+            throw new IllegalArgumentException("Intervalo de migração < 1.");
+        }
+        if (nThreads < 1) {
+            throw new IllegalArgumentException("Número de linhas de execução < 1.");
+        }
+        if (nMigrantes < 0 || nMigrantes >= simulacao.getMaxIndividuos()) {
+            throw new IllegalArgumentException("Número de migrantes fora de [0, tamanho da população).");
+        }
+
+        this.simulacao = simulacao;
+        this.nIlhas = nIlhas;
+        this.topologia = topologia;
+        this.intervaloDeMigracao = intervaloDeMigracao;
+        this.nMigrantes = nMigrantes;
+        this.nThreads = nThreads;
+    }
+
+    /**
+     * Executa um experimento: todas as ilhas evoluem pelo número de gerações
+     * da simulação de referência.
+     *
+     * @return Resultado contendo o tempo de parede [s] e o melhor indivíduo
+     * entre todas as ilhas.
+     */
+    public Resultado experimento() {
+
+        AtomicReferenceArray<Migrantes> caixas = new AtomicReferenceArray<>(nIlhas);
+        List<PopulacaoDeDistribuicoes> ilhas = new ArrayList<>(nIlhas);
+        for (int i = 0; i < nIlhas; i++) {
+            ilhas.add(simulacao.novaPopulacao());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(nThreads, nIlhas));
+        long inicio = System.nanoTime();
+        try {
+            List<Future<?>> tarefas = new ArrayList<>(nIlhas);
+            for (int i = 0; i < nIlhas; i++) {
+                final int ilha = i;
+                tarefas.add(executor.submit(() -> evolui(ilha, ilhas.get(ilha), caixas)));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Execução das ilhas interrompida.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Falha na evolução de uma ilha.", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        double tempo = (System.nanoTime() - inicio) / 1e9;
+
+        DistribuicaoVazao melhor = null;
+        for (PopulacaoDeDistribuicoes ilha : ilhas) {
+            DistribuicaoVazao candidato = ilha.getNMelhores(1).get(0);
+            if (melhor == null || candidato.getGrauDeAdaptacao() > melhor.getGrauDeAdaptacao()) {
+                melhor = candidato;
+            }
+        }
+
+        return new Resultado(tempo, melhor);
+    }
+
+    /**
+     * Ciclo de vida de uma ilha: épocas de evolução intercaladas com
+     * migrações.
+     */
+    private void evolui(int ilha, PopulacaoDeDistribuicoes populacao, AtomicReferenceArray<Migrantes> caixas) {
+        Geracao gerador = new Geracao(simulacao.getUsina().getTurbinas());
+        int[] origens = topologia.getOrigens(ilha, nIlhas);
+
+        int restantes = simulacao.getMaxIteInteracoes();
+        while (restantes > 0) {
+            int geracoes = Math.min(intervaloDeMigracao, restantes);
+            AlgoritmoPopulacional algoritmo = simulacao.configuraAlgoritmo(populacao, geracoes);
+            algoritmo.run();
+            restantes -= geracoes;
+
+            if (restantes > 0 && nMigrantes > 0 && origens.length > 0) {
+                caixas.set(ilha, new Migrantes(populacao.getNMelhores(nMigrantes)));
+                recebe(populacao, origens, caixas, gerador);
+            }
+        }
+    }
+
+    /**
+     * Substitui os piores indivíduos da população pelos melhores migrantes
+     * disponíveis nas caixas de origem.
+     */
+    private void recebe(PopulacaoDeDistribuicoes populacao, int[] origens,
+            AtomicReferenceArray<Migrantes> caixas, Geracao gerador) {
+
+        int total = 0;
+        Migrantes[] fontes = new Migrantes[origens.length];
+        for (int i = 0; i < origens.length; i++) {
+            fontes[i] = caixas.get(origens[i]);
+            if (fontes[i] != null) {
+                total += fontes[i].aptidoes.length;
+            }
+        }
+        if (total == 0) {
+            return;
+        }
+
+        double[][] candidatos = new double[total][];
+        double[] aptidoes = new double[total];
+        int k = 0;
+        for (Migrantes fonte : fontes) {
+            if (fonte != null) {
+                System.arraycopy(fonte.vazoes, 0, candidatos, k, fonte.vazoes.length);
+                System.arraycopy(fonte.aptidoes, 0, aptidoes, k, fonte.aptidoes.length);
+                k += fonte.aptidoes.length;
+            }
+        }
+
+        List<DistribuicaoVazao> individuos = populacao.getNMelhores(populacao.size());
+        int fim = individuos.size();
+
+        for (int m = 0; m < Math.min(nMigrantes, total); m++) {
+            int melhor = m;
+            for (int j = m + 1; j < total; j++) {
+                if (aptidoes[j] > aptidoes[melhor]) {
+                    melhor = j;
+                }
+            }
+            double[] vazoes = candidatos[melhor];
+            double aptidao = aptidoes[melhor];
+            candidatos[melhor] = candidatos[m];
+            aptidoes[melhor] = aptidoes[m];
+
+            fim--;
+            if (individuos.get(fim).getGrauDeAdaptacao() >= aptidao) {
+                break;
+            }
+            individuos.set(fim, gerador.get(vazoes));
+        }
+
+        populacao.setIndividuos(individuos);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao;
+
+/**
+ * Orçamento de uma execução: prazo de relógio, número de avaliações e número
+ * de gerações.
+ *
+ * <p>
+ * Limites não definidos são ilimitados, mas ao menos um deve ser finito. A
+ * verificação é feita entre gerações, e uma geração só é iniciada se o
+ * orçamento comportá-la: o número de avaliações nunca é excedido, e o prazo é
+ * comparado com a duração da geração anterior, o que limita o excesso à
+ * variação entre gerações consecutivas.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see Simulacao#experimento(simulacao.Orcamento)
+ */
+public final class Orcamento {
+
+    private final double prazo;
+    private final long maxAvaliacoes;
+    private final int maxGeracoes;
+
+    /**
+     * Construtor.
+     *
+     * @param prazo Prazo de relógio [s], ou
+     * <code>Double.POSITIVE_INFINITY</code>.
+     * @param maxAvaliacoes Número máximo de avaliações, ou
+     * <code>Long.MAX_VALUE</code>.
+     * @param maxGeracoes Número máximo de gerações, ou
+     * <code>Integer.MAX_VALUE</code>.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se algum limite não for positivo;</li>
+     * <li>Se todos os limites forem ilimitados.</li>
+     * </ul>
+     */
+    public Orcamento(double prazo, long maxAvaliacoes, int maxGeracoes) {
+        if (!(prazo > 0) || maxAvaliacoes < 1 || maxGeracoes < 1) {
+            throw new IllegalArgumentException("Limites do orçamento devem ser positivos.");
+        }
+        if (prazo == Double.POSITIVE_INFINITY && maxAvaliacoes == Long.MAX_VALUE
+                && maxGeracoes == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Orçamento ilimitado.");
+        }
+        this.prazo = prazo;
+        this.maxAvaliacoes = maxAvaliacoes;
+        this.maxGeracoes = maxGeracoes;
+    }
+
+    /**
+     * Orçamento limitado apenas pelo relógio.
+     *
+     * @param prazo Prazo [s].
+     * @return Orçamento.
+     */
+    public static Orcamento porPrazo(double prazo) {
+        return new Orcamento(prazo, Long.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Orçamento limitado apenas pelo número de avaliações.
+     *
+     * @param maxAvaliacoes Número máximo de avaliações.
+     * @return Orçamento.
+     */
+    public static Orcamento porAvaliacoes(long maxAvaliacoes) {
+        return new Orcamento(Double.POSITIVE_INFINITY, maxAvaliacoes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Orçamento limitado apenas pelo número de gerações.
+     *
+     * @param maxGeracoes Número máximo de gerações.
+     * @return Orçamento.
+     */
+    public static Orcamento porGeracoes(int maxGeracoes) {
+        return new Orcamento(Double.POSITIVE_INFINITY, Long.MAX_VALUE, maxGeracoes);
+    }
+
+    /**
+     * Calcula o instante limite de uma execução iniciada em
+     * <code>inicio</code>.
+     *
+     * @param inicio Instante inicial, em <code>System.nanoTime()</code>.
+     * @return Instante limite [ns], ou <code>Long.MAX_VALUE</code> se não houver
+     * prazo.
+     */
+    long getLimite(long inicio) {
+        if (prazo == Double.POSITIVE_INFINITY) {
+            return Long.MAX_VALUE;
+        }
+        return inicio + (long) (prazo * 1e9);
+    }
+
+    public double getPrazo() {
+        return prazo;
+    }
+
+    public long getMaxAvaliacoes() {
+        return maxAvaliacoes;
+    }
+
+    public int getMaxGeracoes() {
+        return maxGeracoes;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import simulacao.algoritmos.DespachoIncremental;
+import simulacao.criterios.CriterioDeParada;
+import usina.DistribuicaoVazao;
+import usina.PopulacaoDeDistribuicoes;
+import usina.Turbina;
+import usina.Usina;
+import usina.operadores.Geracao;
+
+/**
+ * Programação diária: despacho de todos os períodos de uma série de demanda.
+ *
+ * <p>
+ * Cada período é resolvido pelo DE da simulação, com a meta do período. Com
+ * partida aquecida, a população inicial de cada período é a população final do
+ * período anterior, com cada indivíduo reescalado para a nova meta: todas as
+ * vazões são multiplicadas por um mesmo fator, obtido pelo método de Newton
+ * sobre a potência total. Como as soluções de períodos vizinhos são próximas,
+ * a população já parte concentrada na região ótima, e o critério de parada
+ * encerra cada período em poucas gerações.
+ * </p>
+ *
+ * <p>
+ * Cada período recebe um critério de parada próprio, da fonte informada. Sem
+ * fonte de critérios, todos os períodos executam o número máximo de gerações
+ * e a partida aquecida afeta apenas a qualidade.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see Simulacao#experimento(usina.PopulacaoDeDistribuicoes, simulacao.Orcamento)
+ */
+public class ProgramacaoDiaria {
+
+    private final Simulacao simulacao;
+    private final Supplier<CriterioDeParada> criterios;
+    private final double[] demandas;
+    private final boolean aquecida;
+
+    /**
+     * Construtor.
+     *
+     * @param simulacao Simulação que fornece a usina e o DE.
+     * @param criterios Fonte de critérios de parada, um por período, ou
+     * <code>null</code> para executar sempre o número máximo de gerações.
+     * @param demandas Demanda de cada período [MW].
+     * @param aquecida Se cada período parte da população do anterior.
+     */
+    public ProgramacaoDiaria(Simulacao simulacao, Supplier<CriterioDeParada> criterios,
+            double[] demandas, boolean aquecida) {
+        this.simulacao = simulacao;
+        this.criterios = criterios;
+        this.demandas = demandas.clone();
+        this.aquecida = aquecida;
+    }
+
+    /**
+     * Resolve todos os períodos, em ordem.
+     *
+     * @return Resultado de cada período, na ordem das demandas; vazio se a
+     * série for vazia, como em {@link ProgramacaoParalela}.
+     */
+    public List<ResultadoOrcado> executa() {
+        Orcamento orcamento = Orcamento.porGeracoes(simulacao.getMaxIteInteracoes());
+        List<ResultadoOrcado> resultados = new ArrayList<>(demandas.length);
+
+        PopulacaoDeDistribuicoes populacao = null;
+        for (double demanda : demandas) {
+            Simulacao periodo = simulacao.comDemanda(demanda, criterios);
+            if (aquecida && populacao != null) {
+                populacao = reescala(periodo, populacao);
+            } else {
+                populacao = periodo.novaPopulacao();
+            }
+            resultados.add(periodo.experimento(populacao, orcamento));
+        }
+
+        return resultados;
+    }
+
+    /**
+     * Cria uma nova população para um período com os indivíduos de outra
+     * reescalados para a demanda do período.
+     */
+    private static PopulacaoDeDistribuicoes reescala(Simulacao periodo, PopulacaoDeDistribuicoes populacao) {
+        Usina usina = periodo.getUsina();
+        double meta = periodo.getDemandaHoraria();
+        List<Turbina> turbinas = usina.getTurbinas();
+        Geracao gerador = new Geracao(turbinas);
+
+        List<DistribuicaoVazao> individuos = populacao.getNMelhores(populacao.size());
+        List<DistribuicaoVazao> reescalados = new ArrayList<>(individuos.size());
+        double[] vazoes = new double[turbinas.size()];
+        double[] min = usina.getLimitesMinDeVazao();
+        double[] max = usina.getLimitesMaxDeVazao();
+
+        for (DistribuicaoVazao individuo : individuos) {
+            DespachoIncremental.escala(turbinas, individuo.getVazoes(vazoes), min, max, meta);
+            reescalados.add(gerador.get(vazoes));
+        }
+
+        PopulacaoDeDistribuicoes nova = new PopulacaoDeDistribuicoes(usina, periodo.getMaxIndividuos());
+        nova.setIndividuos(reescalados);
+        return nova;
+    }
+
+    /**
+     * Escreve a tabela de despacho, um período por linha: período, demanda,
+     * vazão de cada turbina, vazão total, potência total, aptidão e gerações.
+     *
+     * @param resultados Resultados de {@link #executa()}.
+     * @param saida Destino da tabela.
+     */
+    public void escreveTabela(List<? extends Resultado> resultados, PrintStream saida) {
+        List<Turbina> turbinas = simulacao.getUsina().getTurbinas();
+        double[] vazoes = new double[turbinas.size()];
+
+        StringBuilder cabecalho = new StringBuilder("Período\tDemanda [MW]");
+        for (int i = 1; i <= turbinas.size(); i++) {
+            cabecalho.append("\tQ").append(i).append(" [m³/s]");
+        }
+        cabecalho.append("\tQ total [m³/s]\tP total [MW]\tAptidão\tGerações");
+        saida.println(cabecalho);
+
+        for (int periodo = 0; periodo < resultados.size(); periodo++) {
+            Resultado resultado = resultados.get(periodo);
+            resultado.getMelhorDistribuicao().getVazoes(vazoes);
+
+            StringBuilder linha = new StringBuilder();
+            linha.append(periodo + 1).append('\t').append(demandas[periodo]);
+            double vazaoTotal = 0;
+            double potenciaTotal = 0;
+            for (int i = 0; i < vazoes.length; i++) {
+                linha.append('\t').append(String.format("%.4f", vazoes[i]));
+                vazaoTotal += vazoes[i];
+                potenciaTotal += turbinas.get(i).getPotencia(vazoes[i]);
+            }
+            linha.append('\t').append(String.format("%.4f", vazaoTotal))
+                    .append('\t').append(String.format("%.4f", potenciaTotal))
+                    .append('\t').append(String.format("%.6f", resultado.getMelhorSolucao()))
+                    .append('\t').append(resultado.getGeracoes());
+            saida.println(linha);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import simulacao.criterios.CriterioDeParada;
+import usina.Usina;
+
+/**
+ * Programação de vários períodos independentes, resolvidos em paralelo.
+ *
+ * <p>
+ * Cada período é resolvido por uma tarefa própria, com uma simulação
+ * própria. Todas compartilham o modelo da usina, e cada uma avalia em uma
+ * visão com o contexto de avaliação do seu período. As tarefas
+ * são distribuídas a um conjunto limitado de linhas de execução, e os
+ * resultados são devolvidos na ordem dos períodos.
+ * </p>
+ *
+ * <p>
+ * As tarefas formam um escopo: a falha de um período, o esgotamento do tempo
+ * limite ou a interrupção de quem aguarda cancelam todos os demais. O
+ * cancelamento é atendido entre gerações do DE.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see ProgramacaoDiaria
+ * @see Simulacao#experimento(simulacao.Orcamento)
+ */
+public class ProgramacaoParalela {
+
+    private final Usina usina;
+    private final Supplier<CriterioDeParada> criterios;
+    private final int nThreads;
+
+    /**
+     * Construtor.
+     *
+     * @param usina Usina compartilhada por todos os períodos.
+     * @param criterios Fonte de critérios de parada, um por período, ou
+     * <code>null</code> para executar sempre o número máximo de gerações.
+     * @param nThreads Número máximo de linhas de execução.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o número de linhas de execução for menor que um.</li>
+     * </ul>
+     */
+    public ProgramacaoParalela(Usina usina, Supplier<CriterioDeParada> criterios, int nThreads) {
+        if (nThreads < 1) {
+            throw new IllegalArgumentException("Número de linhas de execução < 1.");
+        }
+        this.usina = usina;
+        this.criterios = criterios;
+        this.nThreads = nThreads;
+    }
+
+    /**
+     * Resolve todos os períodos.
+     *
+     * @param demandas Demanda de cada período [MW].
+     * @param tempoLimite Tempo limite para o conjunto.
+     * @param unidade Unidade do tempo limite.
+     * @return Resultado de cada período, na ordem das demandas; vazio se a
+     * série for vazia.
+     *
+     * @throws InterruptedException Se a espera for interrompida.
+     * @throws TimeoutException Se o tempo limite se esgotar.
+     * @throws IllegalStateException Se algum período falhar.
+     */
+    public List<ResultadoOrcado> executa(double[] demandas, long tempoLimite, TimeUnit unidade)
+            throws InterruptedException, TimeoutException {
+
+        if (demandas.length == 0) {
+            return new ArrayList<>(0);
+        }
+
+        long limite = System.nanoTime() + unidade.toNanos(tempoLimite);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(nThreads, demandas.length));
+        CompletionService<ResultadoOrcado> conclusoes = new ExecutorCompletionService<>(executor);
+        List<Future<ResultadoOrcado>> tarefas = new ArrayList<>(demandas.length);
+        try {
+            for (double demanda : demandas) {
+                tarefas.add(conclusoes.submit(() -> resolve(demanda)));
+            }
+
+            for (int concluidas = 0; concluidas < tarefas.size(); concluidas++) {
+                Future<ResultadoOrcado> tarefa = conclusoes.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (tarefa == null) {
+                    throw new TimeoutException("Tempo limite esgotado com "
+                            + (tarefas.size() - concluidas) + " períodos pendentes.");
+                }
+                tarefa.get();
+            }
+
+            List<ResultadoOrcado> resultados = new ArrayList<>(tarefas.size());
+            for (Future<ResultadoOrcado> tarefa : tarefas) {
+                resultados.add(tarefa.get());
+            }
+            return resultados;
+
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Falha na solução de um período.", ex.getCause());
+        } finally {
+            for (Future<ResultadoOrcado> tarefa : tarefas) {
+                tarefa.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private ResultadoOrcado resolve(double demanda) {
+        Simulacao simulacao = new Simulacao(usina, demanda);
+        if (criterios != null) {
+            simulacao.setCriterioDeParada(criterios.get());
+        }
+        return simulacao.experimento(Orcamento.porGeracoes(simulacao.getMaxIteInteracoes()));
+    }
+}
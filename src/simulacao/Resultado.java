@@ -28,10 +28,42 @@ public class Resultado {
 
     private final Double tempoExecucao;
     private final DistribuicaoVazao melhorSolucao;
+    private final Double melhorAptidao;
+    private final Integer geracoes;
+    private final Long avaliacoes;
 
     public Resultado(Double tempoExecucao, DistribuicaoVazao melhorSolucao) {
+        this(tempoExecucao, melhorSolucao, melhorSolucao.getGrauDeAdaptacao().doubleValue());
+    }
+
+    /**
+     * Construtor para otimizadores que avaliam vetores primitivos, e cujas
+     * distribuições, portanto, não carregam grau de adaptação.
+     *
+     * @param tempoExecucao Tempo de execução [s].
+     * @param melhorSolucao Melhor distribuição encontrada.
+     * @param melhorAptidao Grau de adaptação da melhor distribuição.
+     */
+    public Resultado(Double tempoExecucao, DistribuicaoVazao melhorSolucao, Double melhorAptidao) {
+        this(tempoExecucao, melhorSolucao, melhorAptidao, null, null);
+    }
+
+    /**
+     * Construtor com o ponto de encerramento da execução.
+     *
+     * @param tempoExecucao Tempo de execução [s].
+     * @param melhorSolucao Melhor distribuição encontrada.
+     * @param melhorAptidao Grau de adaptação da melhor distribuição.
+     * @param geracoes Gerações concluídas no encerramento.
+     * @param avaliacoes Avaliações realizadas no encerramento.
+     */
+    public Resultado(Double tempoExecucao, DistribuicaoVazao melhorSolucao, Double melhorAptidao,
+            Integer geracoes, Long avaliacoes) {
         this.tempoExecucao = tempoExecucao;
         this.melhorSolucao = melhorSolucao;
+        this.melhorAptidao = melhorAptidao;
+        this.geracoes = geracoes;
+        this.avaliacoes = avaliacoes;
     }
 
     public Double getTempoExecucao() {
@@ -39,7 +71,31 @@ public class Resultado {
     }
 
     public Double getMelhorSolucao() {
-        return melhorSolucao.getGrauDeAdaptacao().doubleValue();
+        return melhorAptidao;
     }
-}
 
+    public DistribuicaoVazao getMelhorDistribuicao() {
+        return melhorSolucao;
+    }
+
+    /**
+     * Retorna o número de gerações concluídas quando a execução foi
+     * encerrada.
+     *
+     * @return Gerações, ou <code>null</code> se o otimizador não as registra.
+     */
+    public Integer getGeracoes() {
+        return geracoes;
+    }
+
+    /**
+     * Retorna o número de avaliações da função objetivo realizadas até o
+     * encerramento.
+     *
+     * @return Avaliações, ou <code>null</code> se o otimizador não as
+     * registra.
+     */
+    public Long getAvaliacoes() {
+        return avaliacoes;
+    }
+}
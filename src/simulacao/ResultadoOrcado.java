@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao;
+
+import usina.DistribuicaoVazao;
+
+/**
+ * Resultado de uma execução com orçamento: a melhor distribuição encontrada
+ * até o encerramento, se a execução convergiu e quanto o prazo foi excedido.
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see Orcamento
+ */
+public class ResultadoOrcado extends Resultado {
+
+    private final boolean convergiu;
+    private final double excesso;
+
+    /**
+     * Construtor.
+     *
+     * @param tempoExecucao Tempo de execução [s].
+     * @param melhorSolucao Melhor distribuição encontrada.
+     * @param melhorAptidao Grau de adaptação da melhor distribuição.
+     * @param geracoes Gerações concluídas no encerramento.
+     * @param avaliacoes Avaliações realizadas no encerramento.
+     * @param convergiu Se o critério de parada foi atingido antes do fim do
+     * orçamento.
+     * @param excesso Tempo decorrido além do prazo [s].
+     */
+    public ResultadoOrcado(Double tempoExecucao, DistribuicaoVazao melhorSolucao, Double melhorAptidao,
+            Integer geracoes, Long avaliacoes, boolean convergiu, double excesso) {
+        super(tempoExecucao, melhorSolucao, melhorAptidao, geracoes, avaliacoes);
+        this.convergiu = convergiu;
+        this.excesso = excesso;
+    }
+
+    /**
+     * Informa se a execução foi encerrada pelo critério de parada, e não pelo
+     * esgotamento do orçamento.
+     *
+     * @return <code>true</code> se convergiu.
+     */
+    public boolean isConvergiu() {
+        return convergiu;
+    }
+
+    /**
+     * Retorna o tempo decorrido além do prazo.
+     *
+     * @return Excesso [s]; zero se o prazo foi respeitado ou não havia prazo.
+     */
+    public double getExcesso() {
+        return excesso;
+    }
+}
@@ -33,8 +33,23 @@ import ic.ce.populacional.algoritmos.DE.mutadores.MutadorDE;
 import ic.ce.populacional.algoritmos.DE.mutadores.Rand;
 import ic.ce.populacional.algoritmos.DE.recombinadores.Binomial;
 import ic.ce.populacional.algoritmos.DE.recombinadores.RecombinadorDE;
-import java.util.LinkedList;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+import simulacao.algoritmos.CMAES;
+import simulacao.algoritmos.DEAssincrono;
+import simulacao.algoritmos.SHADE;
+import simulacao.criterios.Alvo;
+import simulacao.criterios.CriterioDeParada;
+import simulacao.criterios.Dispersao;
+import simulacao.criterios.Estagnacao;
+import simulacao.resultados.DestinoDeResultados;
+import simulacao.resultados.GravadorAssincrono;
+import simulacao.resultados.GravadorDeResultados;
+import simulacao.resultados.ResumoDeResultados;
+import usina.ContextoDeAvaliacao;
 import usina.DistribuicaoVazao;
 import usina.PopulacaoDeDistribuicoes;
 import usina.Usina;
@@ -48,6 +63,12 @@ import usina.operadores.Geracao;
  */
 public class Simulacao {
 
+    /**
+     * Grau de adaptação alvo padrão do critério de parada de {@link #main},
+     * próximo do ótimo da usina de Três Marias para a demanda padrão.
+     */
+    public static final double ALVO_PADRAO = 0.4903;
+
     private final Usina usina;
     private final Integer maxIndividuos;
     private final Integer maxIteInteracoes;
@@ -61,7 +82,27 @@ public class Simulacao {
 
     private final Double demandaHoraria;
 
+    private CriterioDeParada criterioDeParada;
+
     public Simulacao() {
+        this(UsinaFactory.getUsina(UsinaFactory.Usinas.TRESMARIAS), 320d);
+    }
+
+    /**
+     * Construtor com usina e demanda definidas, e demais parâmetros padrão.
+     *
+     * <p>
+     * A simulação avalia sobre uma visão própria da usina, com a demanda como
+     * meta, de modo que uma mesma usina pode ser compartilhada por simulações
+     * executadas em paralelo.
+     * </p>
+     *
+     * @param usina Usina a ser despachada.
+     * @param demandaHoraria Demanda [MW].
+     *
+     * @see Usina#comContexto(usina.ContextoDeAvaliacao)
+     */
+    public Simulacao(Usina usina, Double demandaHoraria) {
 
         nExperimentos = 1000;
         
@@ -72,45 +113,405 @@ public class Simulacao {
         fatorDePertubacao = 0.3;
         nDiferencas = 1;
 
-        usina = UsinaFactory.getUsina(UsinaFactory.Usinas.TRESMARIAS);
-        demandaHoraria = 320d;
+        this.usina = usina.comContexto(new ContextoDeAvaliacao(demandaHoraria));
+        this.demandaHoraria = demandaHoraria;
+    }
+
+    /**
+     * Cria uma simulação com os mesmos parâmetros e usina, para outra
+     * demanda.
+     *
+     * <p>
+     * O critério de parada não é compartilhado: critérios guardam estado
+     * entre gerações, e a nova simulação recebe um critério próprio da fonte
+     * informada.
+     * </p>
+     *
+     * @param demandaHoraria Demanda [MW].
+     * @param criterios Fonte do critério de parada da nova simulação, ou
+     * <code>null</code> para executar sempre o número máximo de gerações.
+     * @return Nova simulação.
+     */
+    public Simulacao comDemanda(Double demandaHoraria, Supplier<CriterioDeParada> criterios) {
+        Simulacao simulacao = new Simulacao(usina, demandaHoraria);
+        if (criterios != null) {
+            simulacao.setCriterioDeParada(criterios.get());
+        }
+        return simulacao;
     }
 
 
-    public static void main(String[] args) {
+    /**
+     * Executa {@link #getNExperimentos()} experimentos sem critério de parada
+     * e outros tantos com critério, e imprime médias, melhores e quantis.
+     *
+     * <p>
+     * Os resultados são resumidos à medida que são produzidos, com memória
+     * constante. O tempo de cada lote, de parede, é impresso ao seu fim e é
+     * comparável entre os dois lotes; o tempo médio de execução de cada
+     * experimento segue {@link #experimento()}. Os resultados completos de cada lote podem ainda ser
+     * gravados em arquivo, binário se terminado em <code>.bin</code> e CSV
+     * caso contrário.
+     * </p>
+     *
+     * @param args Opcionais: arquivos de resultados sem critério de parada e
+     * com critério, e o grau de adaptação alvo do critério (padrão
+     * {@link #ALVO_PADRAO}).
+     * @throws IOException Se os resultados não puderem ser gravados.
+     *
+     * @see GravadorDeResultados#para(java.nio.file.Path, int)
+     */
+    public static void main(String[] args) throws IOException {
         Simulacao teste = new Simulacao();
-        List<Resultado> resultados = new LinkedList<>();
-        for(int i=0;i<teste.nExperimentos;i++)
-            resultados.add(teste.experimento());
-        
-        System.out.println("Média do tempo de execução:\t"+resultados.stream().mapToDouble(Resultado::getTempoExecucao).average().getAsDouble());
-        System.out.println("Média dos melhores:\t"+resultados.stream().mapToDouble(Resultado::getMelhorSolucao).average().getAsDouble());
-        System.out.println("Melhor:\t"+resultados.stream().mapToDouble(Resultado::getMelhorSolucao).max().getAsDouble());
+        int nVazoes = teste.usina.getTurbinas().size();
+
+        ResumoDeResultados resultados = new ResumoDeResultados();
+        long inicio = System.nanoTime();
+        try (DestinoDeResultados destino = destino(args, 0, nVazoes)) {
+            teste.executa(resultados, destino);
+        }
+        double tempoDoLote = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.println("Média do tempo de execução:\t"+resultados.getTempo().getMedia());
+        System.out.println("Média dos melhores:\t"+resultados.getAptidao().getMedia());
+        System.out.println("Melhor:\t"+resultados.getAptidao().getMaximo());
+        System.out.println("Tempo de execução [s]:\t"+resultados.getTempo());
+        System.out.println("Melhores:\t"+resultados.getAptidao());
+        System.out.println("Tempo do lote [s]:\t"+tempoDoLote);
+
+        double alvo = args.length > 2 ? Double.parseDouble(args[2]) : ALVO_PADRAO;
+        teste.setCriterioDeParada(new Estagnacao(10, 1e-6).ou(new Dispersao(1e-6)).ou(new Alvo(alvo)));
+        ResumoDeResultados comParada = new ResumoDeResultados();
+        inicio = System.nanoTime();
+        try (DestinoDeResultados destino = destino(args, 1, nVazoes)) {
+            teste.executa(comParada, destino);
+        }
+        tempoDoLote = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.println("Com critério de parada:");
+        System.out.println("Média do tempo de execução:\t"+comParada.getTempo().getMedia());
+        System.out.println("Média de gerações:\t"+comParada.getGeracoes().getMedia());
+        System.out.println("Média dos melhores:\t"+comParada.getAptidao().getMedia());
+        System.out.println("Melhor:\t"+comParada.getAptidao().getMaximo());
+        System.out.println("Tempo de execução [s]:\t"+comParada.getTempo());
+        System.out.println("Gerações:\t"+comParada.getGeracoes());
+        System.out.println("Melhores:\t"+comParada.getAptidao());
+        System.out.println("Tempo do lote [s]:\t"+tempoDoLote);
+    }
+
+    /**
+     * Executa {@link #getNExperimentos()} experimentos, registrando cada
+     * resultado no resumo e, se houver, no destino.
+     */
+    private void executa(ResumoDeResultados resumo, DestinoDeResultados destino) throws IOException {
+        for (int i = 0; i < nExperimentos; i++) {
+            Resultado resultado = experimento();
+            resumo.registra(resultado);
+            if (destino != null) {
+                destino.registra(resultado);
+            }
+        }
+    }
+
+    /**
+     * Abre a gravação em segundo plano no arquivo <code>args[indice]</code>.
+     *
+     * @return Destino dos resultados, ou <code>null</code> se o arquivo não
+     * foi informado.
+     */
+    private static DestinoDeResultados destino(String[] args, int indice, int nVazoes) throws IOException {
+        if (args.length <= indice) {
+            return null;
+        }
+        return new GravadorAssincrono(GravadorDeResultados.para(Paths.get(args[indice]), nVazoes));
     }
 
+    /**
+     * Executa um experimento com o DE.
+     *
+     * <p>
+     * Sem critério de parada, executa exatamente {@link #getMaxIteInteracoes()}
+     * gerações. Com critério, a evolução é feita geração a geração e encerrada
+     * quando o critério for atingido ou o número máximo de gerações se
+     * esgotar.
+     * </p>
+     *
+     * <p>
+     * Sem critério, o tempo é o medido pela própria biblioteca
+     * (<code>getTempoDeExecucaoSeg</code>), como nas medições anteriores a
+     * critérios de parada. Com critério, é o tempo de parede controlado pelo
+     * orçamento, da criação da população inicial ao fim da última geração.
+     * Para comparar os dois modos, use o tempo total de lotes de
+     * experimentos, como em {@link #main(java.lang.String[])}.
+     * </p>
+     *
+     * @return Resultado do experimento, com as gerações e avaliações
+     * realizadas.
+     *
+     * @see #setCriterioDeParada(simulacao.criterios.CriterioDeParada)
+     */
     public Resultado experimento() {
 
+        if (criterioDeParada == null) {
+            PopulacaoDeDistribuicoes populacao = novaPopulacao();
+            AlgoritmoPopulacional algoritmo = configuraAlgoritmo(populacao, maxIteInteracoes);
+
+            algoritmo.run();
+
+            DistribuicaoVazao melhor = (DistribuicaoVazao) algoritmo.getMelhorSer();
+            return new Resultado(algoritmo.getTempoDeExecucaoSeg(), melhor, melhor.getGrauDeAdaptacao().doubleValue(),
+                    maxIteInteracoes, (long) maxIndividuos * (maxIteInteracoes + 1));
+        }
+
+        return experimento(Orcamento.porGeracoes(maxIteInteracoes));
+    }
+
+    /**
+     * Executa um experimento com o DE limitado por um orçamento de tempo,
+     * avaliações ou gerações.
+     *
+     * <p>
+     * O relógio parte antes da criação da população inicial, cuja avaliação
+     * é cobrada do prazo e do número de avaliações. A evolução é feita
+     * geração a geração, e o orçamento é verificado antes de cada uma,
+     * inclusive da primeira: uma geração só é iniciada se couber no número de
+     * avaliações restantes e se a duração da geração anterior (ou, antes da
+     * primeira, a da avaliação inicial) couber no prazo restante. Se houver
+     * critério de parada, ele é consultado ao fim de cada geração.
+     * </p>
+     *
+     * <p>
+     * A interrupção da linha de execução também é verificada entre gerações,
+     * e encerra a execução com {@link CancellationException}.
+     * </p>
+     *
+     * <p>
+     * Cada geração é uma chamada a <code>run()</code> de um DE montado com
+     * {@link #configuraAlgoritmo(usina.PopulacaoDeDistribuicoes, java.lang.Integer)}
+     * para uma única geração. Supõe-se que <code>run()</code> parta da
+     * população recebida, sem reavaliá-la nem reiniciá-la, e avalie um vetor
+     * de teste por indivíduo: a contagem de avaliações e o limite do excesso
+     * sobre o prazo, de uma geração, dependem disso. A biblioteca não
+     * acompanha o projeto, e a suposição não foi verificada contra ela.
+     * </p>
+     *
+     * @param orcamento Orçamento da execução.
+     * @return Melhor distribuição encontrada até o encerramento, com a
+     * indicação de convergência e o excesso sobre o prazo.
+     * @throws IllegalArgumentException Se o orçamento de avaliações não
+     * comportar a avaliação da população inicial.
+     *
+     * @see #setCriterioDeParada(simulacao.criterios.CriterioDeParada)
+     */
+    public ResultadoOrcado experimento(Orcamento orcamento) {
+        long inicio = System.nanoTime();
+        verificaAvaliacoes(orcamento, maxIndividuos);
+        return experimento(novaPopulacao(), orcamento, inicio);
+    }
+
+    /**
+     * Evolui uma população existente, limitada por um orçamento, para a
+     * demanda desta simulação.
+     *
+     * <p>
+     * Permite partir de populações previamente evoluídas, como na
+     * programação de vários períodos. A população é alterada no lugar.
+     * </p>
+     *
+     * @param populacao População inicial, já avaliada; a sua avaliação é
+     * contada no número de avaliações, mas não no prazo.
+     * @param orcamento Orçamento da execução.
+     * @return Melhor distribuição encontrada até o encerramento.
+     * @throws IllegalArgumentException Se o orçamento de avaliações não
+     * comportar a população inicial.
+     *
+     * @see #experimento(simulacao.Orcamento)
+     */
+    public ResultadoOrcado experimento(PopulacaoDeDistribuicoes populacao, Orcamento orcamento) {
+        verificaAvaliacoes(orcamento, populacao.size());
+        return experimento(populacao, orcamento, System.nanoTime());
+    }
+
+    private static void verificaAvaliacoes(Orcamento orcamento, int tamanhoPopulacao) {
+        if (orcamento.getMaxAvaliacoes() < tamanhoPopulacao) {
+            throw new IllegalArgumentException("Orçamento de avaliações menor que a população inicial.");
+        }
+    }
+
+    /**
+     * Evolui a população a partir do instante <code>inicio</code>, quando o
+     * relógio do orçamento foi iniciado.
+     */
+    private ResultadoOrcado experimento(PopulacaoDeDistribuicoes populacao, Orcamento orcamento, long inicio) {
+
+        long limite = orcamento.getLimite(inicio);
+
+        if (criterioDeParada != null) {
+            criterioDeParada.inicia();
+        }
+
+        int geracao = 0;
+        long avaliacoes = populacao.size();
+        boolean convergiu = false;
+        long agora = System.nanoTime();
+        long duracao = agora - inicio;
+        while (geracao < orcamento.getMaxGeracoes()
+                && avaliacoes <= orcamento.getMaxAvaliacoes() - populacao.size()
+                && limite - agora > duracao) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Execução interrompida.");
+            }
+            // Uma geração, sem reavaliar nem reiniciar a população: ver experimento(Orcamento).
+            configuraAlgoritmo(populacao, 1).run();
+            geracao++;
+            avaliacoes += populacao.size();
+
+            long fim = System.nanoTime();
+            duracao = fim - agora;
+            agora = fim;
+
+            if (criterioDeParada != null) {
+                List<DistribuicaoVazao> individuos = populacao.getNMelhores(populacao.size());
+                double melhor = individuos.get(0).getGrauDeAdaptacao();
+                double pior = individuos.get(individuos.size() - 1).getGrauDeAdaptacao();
+                if (criterioDeParada.atingido(geracao, avaliacoes, melhor, pior)) {
+                    convergiu = true;
+                    break;
+                }
+            }
+        }
+
+        double tempo = (agora - inicio) / 1e9;
+        double excesso = limite == Long.MAX_VALUE ? 0 : Math.max(0, agora - limite) / 1e9;
+        DistribuicaoVazao melhor = populacao.getNMelhores(1).get(0);
+        return new ResultadoOrcado(tempo, melhor, melhor.getGrauDeAdaptacao().doubleValue(),
+                geracao, avaliacoes, convergiu, excesso);
+    }
+
+    /**
+     * Executa um experimento com o DE assíncrono em regime estacionário, com o
+     * mesmo orçamento de avaliações do DE geracional.
+     *
+     * @param nProdutores Linhas de execução geradoras de vetores de teste.
+     * @param nAvaliadores Linhas de execução avaliadoras.
+     * @param capacidadeFila Capacidade da fila entre produtores e avaliadores.
+     * @return Resultado do experimento.
+     *
+     * @see DEAssincrono
+     */
+    public Resultado experimentoAssincrono(int nProdutores, int nAvaliadores, int capacidadeFila) {
+
+        DEAssincrono algoritmo = new DEAssincrono(usina, maxIndividuos, nDiferencas,
+                fatorDePertubacao, probabilidaDeCrossover, nProdutores, nAvaliadores, capacidadeFila);
+
+        return algoritmo.executa((long) maxIndividuos * (maxIteInteracoes + 1));
+    }
+
+    /**
+     * Executa um experimento com o DE adaptativo (SHADE), com a mesma
+     * população e o mesmo número de gerações do DE de parâmetros fixos.
+     *
+     * @return Resultado do experimento.
+     *
+     * @see SHADE
+     */
+    public Resultado experimentoAdaptativo() {
+        return new SHADE(usina, maxIndividuos).executa(maxIteInteracoes);
+    }
+
+    /**
+     * Executa um experimento com a CMA-ES, com o mesmo orçamento de avaliações
+     * do DE.
+     *
+     * @return Resultado do experimento.
+     *
+     * @see CMAES
+     */
+    public Resultado experimentoCMAES() {
+        return new CMAES(usina).executa((long) maxIndividuos * (maxIteInteracoes + 1));
+    }
+
+    /**
+     * Cria uma população inicial aleatória com {@link #getMaxIndividuos()}
+     * indivíduos.
+     *
+     * @return Nova população.
+     */
+    public PopulacaoDeDistribuicoes novaPopulacao() {
         PopulacaoDeDistribuicoes populacao = new PopulacaoDeDistribuicoes(usina, maxIndividuos);
-        usina.setMeta(demandaHoraria);
+        populacao.setIndividuos(new Geracao(usina).getNAleatorios(maxIndividuos));
+        return populacao;
+    }
+
+    /**
+     * Monta uma instância do DE, com os parâmetros desta simulação, sobre uma
+     * população existente.
+     *
+     * <p>
+     * Operadores são criados a cada chamada, de modo que algoritmos montados
+     * por este método não compartilham estado e podem ser executados em
+     * paralelo.
+     * </p>
+     *
+     * @param populacao População a ser evoluída.
+     * @param maxIteracoes Número de gerações.
+     * @return Algoritmo pronto para execução.
+     */
+    public AlgoritmoPopulacional configuraAlgoritmo(PopulacaoDeDistribuicoes populacao, Integer maxIteracoes) {
 
-        Gerador gerador = new Geracao(usina.getTurbinas());
+        Gerador gerador = new Geracao(usina);
         MutadorDE mutador = new Rand(nDiferencas, fatorDePertubacao);
         RecombinadorDE recombinador = new Binomial(probabilidaDeCrossover);
 
-        populacao.setIndividuos(gerador.getNAleatorios(maxIndividuos));
-
         AlgoritmoPopulacional algoritmo = new DE();
 
         algoritmo.setAmbiente(usina);
         algoritmo.setPopulacao(populacao);
-        algoritmo.setMaxIteracoes(maxIteInteracoes);
+        algoritmo.setMaxIteracoes(maxIteracoes);
 
         algoritmo.setGerador(gerador);
         algoritmo.setMutador(mutador);
         algoritmo.setRecombinador(recombinador);
 
-        algoritmo.run();
+        return algoritmo;
+    }
+
+    /**
+     * Define o critério de parada de {@link #experimento()}.
+     *
+     * <p>
+     * Critérios com estado são reiniciados a cada experimento, mas não devem
+     * ser compartilhados entre experimentos executados em paralelo.
+     * </p>
+     *
+     * @param criterioDeParada Critério de parada, ou <code>null</code> para
+     * executar sempre o número máximo de gerações.
+     */
+    public void setCriterioDeParada(CriterioDeParada criterioDeParada) {
+        this.criterioDeParada = criterioDeParada;
+    }
+
+    public CriterioDeParada getCriterioDeParada() {
+        return criterioDeParada;
+    }
+
+    public Usina getUsina() {
+        return usina;
+    }
+
+    public Integer getMaxIndividuos() {
+        return maxIndividuos;
+    }
+
+    public Integer getMaxIteInteracoes() {
+        return maxIteInteracoes;
+    }
+
+    public Integer getNExperimentos() {
+        return nExperimentos;
+    }
 
-        return new Resultado(algoritmo.getTempoDeExecucaoSeg(),(DistribuicaoVazao)algoritmo.getMelhorSer());
+    public Double getDemandaHoraria() {
+        return demandaHoraria;
     }
 }
@@ -0,0 +1,208 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.function.DoubleUnaryOperator;
+import simulacao.algoritmos.DespachoIncremental;
+import usina.ContextoDeAvaliacao;
+import usina.ModeloDeQueda;
+import usina.Turbina;
+import usina.Usina;
+import usina.factory.UsinaFactory;
+import usina.tubulacao.ConectorCilindricoCurvoPoligonal;
+import usina.tubulacao.ConectorCilindricoCurvoSuave;
+import usina.tubulacao.Conduto;
+import usina.tubulacao.TuboCilindricoReto;
+
+/**
+ * Verificação das derivadas analíticas.
+ *
+ * <p>
+ * Compara, em uma malha de vazões, as derivadas analíticas de perda e
+ * potência de cada componente da cadeia hidráulica com diferenças finitas
+ * centrais. Com queda acoplada à defluência, sobre a usina de exemplo
+ * <code>data/input/usinas/exemplo-queda-acoplada.usina</code>, verifica
+ * também o ponto fixo do despacho: a potência das vazões despachadas, na queda recalculada a
+ * partir da vazão total, deve atender a meta. Executada pelo experimento
+ * <code>derivadas</code> de {@link Experimentos}, que encerra com código de
+ * saída 1 se algum erro relativo exceder a tolerância.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class VerificacaoDerivadas {
+
+    private static final double TOLERANCIA = 1e-6;
+    private static final double[] ANGULOS = {3d, 4d, 12d, 16d, 21d, 22d, 28d, 30d};
+    private static final String ARQUIVO_QUEDA_ACOPLADA = "data/input/usinas/exemplo-queda-acoplada.usina";
+    private static final double NIVEL = 570;
+    private static final double[] METAS = {220d, 260d, 300d, 340d, 380d};
+
+    private int verificacoes;
+    private int falhas;
+
+    /**
+     * Verifica uma derivada em toda a malha de vazões.
+     *
+     * @param nome Identificação do componente.
+     * @param valor Função avaliada.
+     * @param derivada Derivada analítica da função.
+     */
+    public void verifica(String nome, DoubleUnaryOperator valor, DoubleUnaryOperator derivada) {
+        double maiorErro = 0;
+        for (double vazao = 1; vazao <= 200; vazao += 1.5) {
+            double h = 1e-4 * vazao;
+            double diferenca = (valor.applyAsDouble(vazao + h) - valor.applyAsDouble(vazao - h)) / (2 * h);
+            double analitica = derivada.applyAsDouble(vazao);
+            double erro = Math.abs(analitica - diferenca) / Math.max(Math.abs(diferenca), 1e-12);
+            maiorErro = Math.max(maiorErro, erro);
+        }
+        registra(nome, maiorErro);
+    }
+
+    /**
+     * Verifica o ponto fixo do despacho com queda acoplada.
+     *
+     * @param nome Identificação da verificação.
+     * @param usina Usina com modelo de queda.
+     * @param meta Meta de potência [MW].
+     */
+    public void verificaPontoFixo(String nome, Usina usina, double meta) {
+        ModeloDeQueda modelo = usina.getModeloDeQueda();
+        double[] vazoes = new double[usina.getTurbinas().size()];
+        new DespachoIncremental(usina).despacha(new ContextoDeAvaliacao(meta, Double.NaN, null, NIVEL), vazoes);
+
+        double defluencia = 0;
+        for (double vazao : vazoes) {
+            defluencia += vazao;
+        }
+        double queda = modelo.getQuedaBruta(NIVEL, defluencia);
+        double potencia = 0;
+        for (int i = 0; i < vazoes.length; i++) {
+            potencia += usina.getTurbinas().get(i).getPotencia(vazoes[i], queda);
+        }
+        registra(nome, Math.abs(potencia - meta) / meta);
+    }
+
+    private void registra(String nome, double maiorErro) {
+        verificacoes++;
+        boolean falhou = maiorErro > TOLERANCIA;
+        if (falhou) {
+            falhas++;
+        }
+        System.out.println(String.format("%-45s\terro relativo máximo: %.3e\t%s", nome, maiorErro, falhou ? "FALHA" : "ok"));
+    }
+
+    /**
+     * Executa todas as verificações e imprime um resumo.
+     *
+     * @return Número de verificações que excederam a tolerância.
+     * @throws IOException Se a usina de exemplo não puder ser lida.
+     */
+    public static int executa() throws IOException {
+        VerificacaoDerivadas verificacao = new VerificacaoDerivadas();
+
+        for (double diametro : new double[]{6.2, 6.6}) {
+            TuboCilindricoReto tubo = new TuboCilindricoReto(100d, diametro, 0.2);
+            verificacao.verifica("TuboCilindricoReto(d=" + diametro + ")",
+                    tubo::getPerdaHidraulica, tubo::getDerivadaPerdaHidraulica);
+        }
+
+        for (double angulo : ANGULOS) {
+            ConectorCilindricoCurvoPoligonal poligonal = new ConectorCilindricoCurvoPoligonal(6.6, angulo);
+            verificacao.verifica("ConectorCilindricoCurvoPoligonal(" + angulo + ")",
+                    poligonal::getPerdaHidraulica, poligonal::getDerivadaPerdaHidraulica);
+
+            ConectorCilindricoCurvoSuave suave = new ConectorCilindricoCurvoSuave(6.6, angulo);
+            verificacao.verifica("ConectorCilindricoCurvoSuave(" + angulo + ")",
+                    suave::getPerdaHidraulica, suave::getDerivadaPerdaHidraulica);
+        }
+
+        Usina usina = UsinaFactory.getUsina(UsinaFactory.Usinas.TRESMARIAS);
+        double[] saida = new double[1];
+        for (int i = 0; i < usina.getCondutos().size(); i++) {
+            Conduto conduto = usina.getCondutos().get(i);
+            verificacao.verifica("Conduto " + i,
+                    conduto::getPerdaHidraulica, conduto::getDerivadaPerdaHidraulica);
+            verificacao.verifica("Conduto " + i + " (passada única)",
+                    conduto::getPerdaHidraulica, vazao -> {
+                        conduto.getPerdaHidraulica(vazao, saida, 0);
+                        return saida[0];
+                    });
+        }
+
+        for (int i = 0; i < usina.getTurbinas().size(); i++) {
+            Turbina turbina = usina.getTurbinas().get(i);
+            verificacao.verifica("Turbina " + i,
+                    turbina::getPotencia, turbina::getDerivadaPotencia);
+            verificacao.verifica("Turbina " + i + " (passada única)",
+                    turbina::getPotencia, vazao -> {
+                        turbina.getPotencia(vazao, saida, 0);
+                        return saida[0];
+                    });
+        }
+
+        Usina acoplada = UsinaFactory.getUsina(Paths.get(ARQUIVO_QUEDA_ACOPLADA));
+        ModeloDeQueda modelo = acoplada.getModeloDeQueda();
+        if (modelo == null) {
+            throw new IllegalStateException("Usina sem modelo de queda");
+        }
+        verificacao.verifica("Queda bruta acoplada",
+                vazao -> modelo.getQuedaBruta(NIVEL, vazao), vazao -> -modelo.getJusante().derivada(vazao));
+
+        double queda = modelo.getQuedaBruta(NIVEL, 420);
+        for (int i = 0; i < acoplada.getTurbinas().size(); i++) {
+            Turbina turbina = acoplada.getTurbinas().get(i);
+            verificacao.verifica("Turbina " + i + " (queda acoplada)",
+                    vazao -> turbina.getPotencia(vazao, queda), vazao -> turbina.getDerivadaPotencia(vazao, queda));
+            verificacao.verifica("Turbina " + i + " (queda acoplada, passada única)",
+                    vazao -> turbina.getPotencia(vazao, queda), vazao -> {
+                        turbina.getPotencia(vazao, queda, saida, 0);
+                        return saida[0];
+                    });
+        }
+
+        for (double meta : METAS) {
+            verificacao.verificaPontoFixo("Ponto fixo da queda (meta " + meta + ")", acoplada, meta);
+        }
+
+        Usina polinomial = UsinaFactory.getUsina(UsinaFactory.Usinas.TRESMARIAS_POLINOMIAL);
+        for (int i = 0; i < polinomial.getTurbinas().size(); i++) {
+            Turbina turbina = polinomial.getTurbinas().get(i);
+            verificacao.verifica("Turbina polinomial " + i,
+                    turbina::getPotencia, turbina::getDerivadaPotencia);
+            verificacao.verifica("Turbina polinomial " + i + " (passada única)",
+                    turbina::getPotencia, vazao -> {
+                        turbina.getPotencia(vazao, saida, 0);
+                        return saida[0];
+                    });
+        }
+
+        System.out.println(verificacao.verificacoes + " verificações, " + verificacao.falhas + " falhas.");
+        return verificacao.falhas;
+    }
+}
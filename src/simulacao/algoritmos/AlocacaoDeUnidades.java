@@ -0,0 +1,218 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.algoritmos;
+
+import java.util.ArrayList;
+import java.util.List;
+import usina.ContextoDeAvaliacao;
+import usina.Turbina;
+import usina.Usina;
+
+/**
+ * Alocação de unidades: escolha das turbinas ligadas em um período.
+ *
+ * <p>
+ * Enumera os conjuntos de turbinas ligadas entre as disponíveis no contexto,
+ * descartando:
+ * </p>
+ * <ul>
+ * <li>Conjuntos incapazes de atender à meta dentro dos limites de potência
+ * das turbinas (<code>Σ Pmin ≤ meta ≤ Σ Pmax</code>);</li>
+ * <li>Conjuntos que não estão na forma canônica entre as turbinas
+ * disponíveis ({@link Usina#canonica(int, int)}): os que diferem apenas pela
+ * troca de turbinas equivalentes são representados uma única vez.</li>
+ * </ul>
+ *
+ * <p>
+ * Os conjuntos restantes são despachados em paralelo por
+ * {@link DespachoIncremental}, e o melhor despacho é retornado. O estado de
+ * cada turbina é expresso pela disponibilidade no contexto de avaliação, sem
+ * alterar as turbinas da usina.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class AlocacaoDeUnidades {
+
+    /**
+     * Turbinas ligadas e despacho de uma alocação.
+     */
+    public static final class Solucao {
+
+        private final boolean[] ligadas;
+        private final double[] vazoes;
+        private final double aptidao;
+
+        private Solucao(boolean[] ligadas, double[] vazoes, double aptidao) {
+            this.ligadas = ligadas;
+            this.vazoes = vazoes;
+            this.aptidao = aptidao;
+        }
+
+        /**
+         * @return Estado de cada turbina, na ordem da usina (cópia).
+         */
+        public boolean[] getLigadas() {
+            return ligadas.clone();
+        }
+
+        /**
+         * @return Vazão de cada turbina, zero nas desligadas (cópia).
+         */
+        public double[] getVazoes() {
+            return vazoes.clone();
+        }
+
+        public double getAptidao() {
+            return aptidao;
+        }
+
+        /**
+         * @return Número de turbinas ligadas.
+         */
+        public int getNLigadas() {
+            int n = 0;
+            for (boolean ligada : ligadas) {
+                if (ligada) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder texto = new StringBuilder(String.format("Aptidão: %.6f\t", aptidao));
+            for (int i = 0; i < ligadas.length; i++) {
+                texto.append(ligadas[i] ? String.format("%.4f", vazoes[i]) : "-").append('\t');
+            }
+            return texto.toString().trim();
+        }
+    }
+
+    private final Usina usina;
+    private final DespachoIncremental despacho;
+    private final double[] potenciaMin;
+    private final double[] potenciaMax;
+
+    private int nAvaliados;
+
+    /**
+     * Construtor.
+     *
+     * @param usina Usina a despachar.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se a usina tiver mais de 30 turbinas.</li>
+     * </ul>
+     */
+    public AlocacaoDeUnidades(Usina usina) {
+        List<Turbina> turbinas = usina.getTurbinas();
+        if (turbinas.size() > 30) {
+            throw new IllegalArgumentException("Número de turbinas > 30.");
+        }
+        this.usina = usina;
+        this.despacho = new DespachoIncremental(usina);
+
+        int n = turbinas.size();
+        potenciaMin = new double[n];
+        potenciaMax = new double[n];
+        for (int i = 0; i < n; i++) {
+            potenciaMin[i] = turbinas.get(i).getLimiteMinDePotencia();
+            potenciaMax[i] = turbinas.get(i).getLimiteMaxDePotencia();
+        }
+    }
+
+    /**
+     * Encontra a melhor alocação para um contexto.
+     *
+     * @param contexto Meta e turbinas disponíveis.
+     * @return Melhor alocação, ou <code>null</code> se nenhum conjunto de
+     * turbinas disponíveis atender à meta dentro dos limites de potência.
+     */
+    public Solucao resolve(ContextoDeAvaliacao contexto) {
+        List<Integer> candidatos = candidatos(contexto);
+        nAvaliados = candidatos.size();
+
+        return candidatos.parallelStream()
+                .map(conjunto -> despacha(conjunto, contexto))
+                .reduce(null, (a, b) -> a == null || (b != null && b.aptidao > a.aptidao) ? b : a);
+    }
+
+    /**
+     * Retorna o número de conjuntos despachados na última chamada a
+     * {@link #resolve(usina.ContextoDeAvaliacao)}, após as podas.
+     *
+     * @return Conjuntos despachados.
+     */
+    public int getNAvaliados() {
+        return nAvaliados;
+    }
+
+    /**
+     * Enumera os conjuntos viáveis e não equivalentes, como máscaras de bits.
+     */
+    private List<Integer> candidatos(ContextoDeAvaliacao contexto) {
+        int n = potenciaMin.length;
+        int disponiveis = 0;
+        for (int i = 0; i < n; i++) {
+            if (contexto.isDisponivel(i)) {
+                disponiveis |= 1 << i;
+            }
+        }
+
+        double meta = contexto.getMeta();
+        List<Integer> candidatos = new ArrayList<>();
+        for (int conjunto = disponiveis; conjunto != 0; conjunto = (conjunto - 1) & disponiveis) {
+            if (usina.canonica(conjunto, disponiveis) != conjunto) {
+                continue;
+            }
+            double min = 0;
+            double max = 0;
+            for (int i = 0; i < n; i++) {
+                if ((conjunto & (1 << i)) != 0) {
+                    min += potenciaMin[i];
+                    max += potenciaMax[i];
+                }
+            }
+            if (min <= meta && meta <= max) {
+                candidatos.add(conjunto);
+            }
+        }
+        return candidatos;
+    }
+
+    private Solucao despacha(int conjunto, ContextoDeAvaliacao contexto) {
+        boolean[] ligadas = new boolean[potenciaMin.length];
+        for (int i = 0; i < ligadas.length; i++) {
+            ligadas[i] = (conjunto & (1 << i)) != 0;
+        }
+        double[] vazoes = new double[potenciaMin.length];
+        double aptidao = despacho.despacha(
+                new ContextoDeAvaliacao(contexto.getMeta(), contexto.getQuedaBruta(), ligadas, contexto.getNivel()), vazoes);
+        return new Solucao(ligadas, vazoes, aptidao);
+    }
+}
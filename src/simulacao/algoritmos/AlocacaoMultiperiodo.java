@@ -0,0 +1,417 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.algoritmos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import usina.ContextoDeAvaliacao;
+import usina.Turbina;
+import usina.Usina;
+
+/**
+ * Alocação de unidades em vários períodos, por programação dinâmica.
+ *
+ * <p>
+ * O custo de um plano é a vazão total turbinada ao longo dos períodos
+ * [(m^3/s)·período] somada a um custo fixo por partida de turbina, expresso na
+ * mesma unidade. Cada período deve atender à sua demanda dentro dos limites
+ * de potência das turbinas ligadas, e cada turbina deve permanecer ligada e
+ * desligada por tempos mínimos antes de mudar de estado.
+ * </p>
+ *
+ * <p>
+ * O estado da programação dinâmica é codificado em um <code>long</code>: os
+ * bits menos significativos marcam as turbinas ligadas, e cada turbina tem um
+ * contador de 4 bits com o tempo no estado atual, saturado no maior dos tempos
+ * mínimos. Apenas estados alcançáveis são guardados.
+ * </p>
+ *
+ * <p>
+ * O despacho de cada período é feito por {@link DespachoIncremental} e
+ * memorizado por demanda e conjunto de turbinas ligadas, na forma canônica da
+ * usina ({@link Usina#canonica(int)}): conjuntos que diferem pela troca de
+ * turbinas equivalentes têm a mesma vazão total, e períodos com a mesma
+ * demanda compartilham os despachos.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see AlocacaoDeUnidades
+ */
+public final class AlocacaoMultiperiodo {
+
+    private static final int BITS_CONTADOR = 4;
+    private static final int MAX_CONTADOR = (1 << BITS_CONTADOR) - 1;
+
+    /**
+     * Plano de operação: turbinas ligadas e despacho de cada período.
+     */
+    public static final class Plano {
+
+        private final boolean[][] ligadas;
+        private final double[][] vazoes;
+        private final double[] aptidoes;
+        private final double custo;
+        private final int partidas;
+
+        private Plano(boolean[][] ligadas, double[][] vazoes, double[] aptidoes, double custo, int partidas) {
+            this.ligadas = ligadas;
+            this.vazoes = vazoes;
+            this.aptidoes = aptidoes;
+            this.custo = custo;
+            this.partidas = partidas;
+        }
+
+        public int getNPeriodos() {
+            return aptidoes.length;
+        }
+
+        /**
+         * @param periodo Período.
+         * @return Estado de cada turbina no período (cópia).
+         */
+        public boolean[] getLigadas(int periodo) {
+            return ligadas[periodo].clone();
+        }
+
+        /**
+         * @param periodo Período.
+         * @return Vazão de cada turbina no período, zero nas desligadas
+         * (cópia).
+         */
+        public double[] getVazoes(int periodo) {
+            return vazoes[periodo].clone();
+        }
+
+        /**
+         * @param periodo Período.
+         * @return Grau de adaptação do despacho do período.
+         */
+        public double getAptidao(int periodo) {
+            return aptidoes[periodo];
+        }
+
+        /**
+         * @return Vazão total somada aos custos de partida.
+         */
+        public double getCusto() {
+            return custo;
+        }
+
+        /**
+         * @return Número de partidas de turbinas no plano.
+         */
+        public int getPartidas() {
+            return partidas;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder texto = new StringBuilder();
+            for (int t = 0; t < aptidoes.length; t++) {
+                texto.append(t + 1).append('\t').append(String.format("%.6f", aptidoes[t]));
+                for (int i = 0; i < ligadas[t].length; i++) {
+                    texto.append('\t').append(ligadas[t][i] ? String.format("%.4f", vazoes[t][i]) : "-");
+                }
+                texto.append('\n');
+            }
+            return texto.append(String.format("Custo: %.4f\tPartidas: %d", custo, partidas)).toString();
+        }
+    }
+
+    private final Usina usina;
+    private final DespachoIncremental despacho;
+    private final int nTurbinas;
+    private final double[] potenciaMin;
+    private final double[] potenciaMax;
+    private final int tempoMinimoLigada;
+    private final int tempoMinimoDesligada;
+    private final double custoPartida;
+    private final int saturacao;
+
+    private final Map<Double, double[]> memoria = new HashMap<>();
+    private int nDespachos;
+    private int nConsultas;
+
+    /**
+     * Construtor.
+     *
+     * @param usina Usina a despachar.
+     * @param tempoMinimoLigada Períodos mínimos ligada após uma partida.
+     * @param tempoMinimoDesligada Períodos mínimos desligada após uma parada.
+     * @param custoPartida Custo de cada partida [(m^3/s)·período].
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se a usina tiver mais de 12 turbinas;</li>
+     * <li>Se algum tempo mínimo estiver fora de [1, 15];</li>
+     * <li>Se o custo de partida for negativo.</li>
+     * </ul>
+     */
+    public AlocacaoMultiperiodo(Usina usina, int tempoMinimoLigada, int tempoMinimoDesligada, double custoPartida) {
+        List<Turbina> turbinas = usina.getTurbinas();
+        if (turbinas.size() > 12) {
+            throw new IllegalArgumentException("Número de turbinas > 12.");
+        }
+        if (tempoMinimoLigada < 1 || tempoMinimoLigada > MAX_CONTADOR
+                || tempoMinimoDesligada < 1 || tempoMinimoDesligada > MAX_CONTADOR) {
+            throw new IllegalArgumentException("Tempos mínimos devem estar em [1, " + MAX_CONTADOR + "].");
+        }
+        if (custoPartida < 0) {
+            throw new IllegalArgumentException("Custo de partida < 0.");
+        }
+        this.usina = usina;
+        this.despacho = new DespachoIncremental(usina);
+        this.nTurbinas = turbinas.size();
+        this.tempoMinimoLigada = tempoMinimoLigada;
+        this.tempoMinimoDesligada = tempoMinimoDesligada;
+        this.custoPartida = custoPartida;
+        this.saturacao = Math.max(tempoMinimoLigada, tempoMinimoDesligada);
+
+        potenciaMin = new double[nTurbinas];
+        potenciaMax = new double[nTurbinas];
+        for (int i = 0; i < nTurbinas; i++) {
+            potenciaMin[i] = turbinas.get(i).getLimiteMinDePotencia();
+            potenciaMax[i] = turbinas.get(i).getLimiteMaxDePotencia();
+        }
+    }
+
+    /**
+     * Encontra o plano de menor custo para uma série de demandas, partindo de
+     * todas as turbinas ligadas e livres para mudar de estado.
+     *
+     * @param demandas Demanda de cada período [MW].
+     * @return Plano ótimo, ou <code>null</code> se não houver plano viável.
+     */
+    public Plano resolve(double[] demandas) {
+        boolean[] inicial = new boolean[nTurbinas];
+        Arrays.fill(inicial, true);
+        return resolve(demandas, inicial);
+    }
+
+    /**
+     * Encontra o plano de menor custo para uma série de demandas.
+     *
+     * @param demandas Demanda de cada período [MW].
+     * @param ligadasInicialmente Estado das turbinas antes do primeiro
+     * período; todas são consideradas livres para mudar de estado.
+     * @return Plano ótimo, ou <code>null</code> se não houver plano viável.
+     */
+    public Plano resolve(double[] demandas, boolean[] ligadasInicialmente) {
+        int periodos = demandas.length;
+
+        long inicial = 0;
+        for (int i = 0; i < nTurbinas; i++) {
+            if (ligadasInicialmente[i]) {
+                inicial |= 1L << i;
+            }
+            inicial |= (long) saturacao << contador(i);
+        }
+
+        List<Map<Long, Long>> anteriores = new ArrayList<>(periodos);
+        Map<Long, Double> custos = new HashMap<>();
+        custos.put(inicial, 0.0);
+
+        for (int t = 0; t < periodos; t++) {
+            double[] vazoesTotais = getVazoesTotais(demandas[t]);
+            Map<Long, Double> proximos = new HashMap<>();
+            Map<Long, Long> origens = new HashMap<>();
+
+            for (Map.Entry<Long, Double> entrada : custos.entrySet()) {
+                long estado = entrada.getKey();
+                for (int conjunto = 1; conjunto < vazoesTotais.length; conjunto++) {
+                    if (Double.isNaN(vazoesTotais[conjunto])) {
+                        continue;
+                    }
+                    long proximo = transicao(estado, conjunto);
+                    if (proximo < 0) {
+                        continue;
+                    }
+                    int partidas = Integer.bitCount(conjunto & ~(int) (estado & mascara()));
+                    double custo = entrada.getValue() + vazoesTotais[conjunto] + partidas * custoPartida;
+
+                    Double atual = proximos.get(proximo);
+                    if (atual == null || custo < atual) {
+                        proximos.put(proximo, custo);
+                        origens.put(proximo, estado);
+                    }
+                }
+            }
+
+            if (proximos.isEmpty()) {
+                return null;
+            }
+            anteriores.add(origens);
+            custos = proximos;
+        }
+
+        long melhor = 0;
+        double menorCusto = Double.POSITIVE_INFINITY;
+        for (Map.Entry<Long, Double> entrada : custos.entrySet()) {
+            if (entrada.getValue() < menorCusto) {
+                menorCusto = entrada.getValue();
+                melhor = entrada.getKey();
+            }
+        }
+
+        return reconstroi(demandas, anteriores, melhor, menorCusto, inicial);
+    }
+
+    /**
+     * Retorna o número de despachos efetivamente calculados desde a criação
+     * da instância.
+     *
+     * @return Despachos calculados.
+     */
+    public int getNDespachos() {
+        return nDespachos;
+    }
+
+    /**
+     * Retorna o número de períodos que consultaram a memória de despachos
+     * desde a criação da instância.
+     *
+     * @return Consultas.
+     */
+    public int getNConsultas() {
+        return nConsultas;
+    }
+
+    /**
+     * Aplica uma transição para um conjunto de turbinas ligadas.
+     *
+     * @return Próximo estado, ou -1 se algum tempo mínimo for violado.
+     */
+    private long transicao(long estado, int conjunto) {
+        long proximo = conjunto;
+        for (int i = 0; i < nTurbinas; i++) {
+            boolean ligada = (estado & (1L << i)) != 0;
+            boolean ligar = (conjunto & (1 << i)) != 0;
+            int tempo = (int) (estado >>> contador(i)) & MAX_CONTADOR;
+
+            if (ligada == ligar) {
+                tempo = Math.min(tempo + 1, saturacao);
+            } else if (tempo < (ligada ? tempoMinimoLigada : tempoMinimoDesligada)) {
+                return -1;
+            } else {
+                tempo = 1;
+            }
+            proximo |= (long) tempo << contador(i);
+        }
+        return proximo;
+    }
+
+    /**
+     * Vazão total do despacho de cada conjunto de turbinas para uma demanda;
+     * <code>NaN</code> nos conjuntos inviáveis.
+     */
+    private double[] getVazoesTotais(double demanda) {
+        nConsultas++;
+        double[] vazoesTotais = memoria.get(demanda);
+        if (vazoesTotais != null) {
+            return vazoesTotais;
+        }
+
+        vazoesTotais = new double[1 << nTurbinas];
+        Arrays.fill(vazoesTotais, Double.NaN);
+        double[] vazoes = new double[nTurbinas];
+
+        for (int conjunto = 1; conjunto < vazoesTotais.length; conjunto++) {
+            int canonico = usina.canonica(conjunto);
+            if (canonico != conjunto) {
+                vazoesTotais[conjunto] = vazoesTotais[canonico];
+                continue;
+            }
+
+            double min = 0;
+            double max = 0;
+            for (int i = 0; i < nTurbinas; i++) {
+                if ((conjunto & (1 << i)) != 0) {
+                    min += potenciaMin[i];
+                    max += potenciaMax[i];
+                }
+            }
+            if (demanda < min || demanda > max) {
+                continue;
+            }
+
+            despacho.despacha(new ContextoDeAvaliacao(demanda, Double.NaN, ligadas(conjunto)), vazoes);
+            nDespachos++;
+            double total = 0;
+            for (double vazao : vazoes) {
+                total += vazao;
+            }
+            vazoesTotais[conjunto] = total;
+        }
+
+        memoria.put(demanda, vazoesTotais);
+        return vazoesTotais;
+    }
+
+    private Plano reconstroi(double[] demandas, List<Map<Long, Long>> anteriores, long ultimo,
+            double custo, long inicial) {
+        int periodos = demandas.length;
+        long[] estados = new long[periodos];
+        long estado = ultimo;
+        for (int t = periodos - 1; t >= 0; t--) {
+            estados[t] = estado;
+            estado = anteriores.get(t).get(estado);
+        }
+
+        boolean[][] ligadas = new boolean[periodos][];
+        double[][] vazoes = new double[periodos][nTurbinas];
+        double[] aptidoes = new double[periodos];
+        int partidas = 0;
+        long anterior = inicial;
+        for (int t = 0; t < periodos; t++) {
+            int conjunto = (int) (estados[t] & mascara());
+            ligadas[t] = ligadas(conjunto);
+            aptidoes[t] = despacho.despacha(new ContextoDeAvaliacao(demandas[t], Double.NaN, ligadas[t]), vazoes[t]);
+            partidas += Integer.bitCount(conjunto & ~(int) (anterior & mascara()));
+            anterior = estados[t];
+        }
+
+        return new Plano(ligadas, vazoes, aptidoes, custo, partidas);
+    }
+
+    private boolean[] ligadas(int conjunto) {
+        boolean[] ligadas = new boolean[nTurbinas];
+        for (int i = 0; i < nTurbinas; i++) {
+            ligadas[i] = (conjunto & (1 << i)) != 0;
+        }
+        return ligadas;
+    }
+
+    private long mascara() {
+        return (1L << nTurbinas) - 1;
+    }
+
+    private int contador(int turbina) {
+        return nTurbinas + BITS_CONTADOR * turbina;
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.algoritmos;
+
+import java.util.List;
+import usina.ContextoDeAvaliacao;
+import usina.ModeloDeQueda;
+import usina.Turbina;
+import usina.Usina;
+
+/**
+ * Busca local por gradiente projetado sobre a restrição de demanda.
+ *
+ * <p>
+ * Com a potência total fixada na meta, maximizar a eficiência
+ * <code>P/Q</code> equivale a minimizar a vazão total <code>Q = Σq_i</code>
+ * sujeita a <code>Σ P_i(q_i) = meta</code> e aos limites de vazão de cada
+ * turbina. Cada passo:
+ * </p>
+ * <ol>
+ * <li>Projeta <code>-∇Q</code> no plano tangente da restrição:
+ * <code>d_i = -1 + μ·P_i'(q_i)</code>, com μ tal que <code>Σ P_i'·d_i =
+ * 0</code>, removendo as coordenadas presas nos limites;</li>
+ * <li>Avança ao longo de <code>d</code>, projetando nos limites;</li>
+ * <li>Restaura a demanda exatamente, por Newton ao longo de
+ * <code>∇P</code>;</li>
+ * <li>Aceita o passo se a vazão total diminuir, ajustando o tamanho do passo
+ * por retrocesso.</li>
+ * </ol>
+ *
+ * <p>
+ * O refinamento segue o {@link ContextoDeAvaliacao}: turbinas indisponíveis
+ * mantêm as suas vazões e ficam fora da potência, da vazão total e da
+ * direção de busca; a queda bruta do contexto substitui a de instalação; e,
+ * com o nível do reservatório, a queda comum é recalculada pelo
+ * {@link ModeloDeQueda} a cada iteração de Newton, com as derivadas tomadas
+ * à queda corrente.
+ * </p>
+ *
+ * <p>
+ * As derivadas são analíticas ({@link Turbina#getDerivadaPotencia(double)}),
+ * e nenhum objeto é alocado após a construção. Instâncias não são seguras
+ * para uso concorrente.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class BuscaLocal {
+
+    /**
+     * Tolerância relativa para a restauração da demanda, bem inferior à faixa
+     * de ±0,1% da barreira de {@link Usina#avalia(double[])}.
+     */
+    private static final double TOLERANCIA_DEMANDA = 1e-9;
+
+    /**
+     * Norma mínima da direção projetada; abaixo dela as condições de
+     * otimalidade são consideradas satisfeitas.
+     */
+    private static final double TOLERANCIA_GRADIENTE = 1e-9;
+
+    private static final int MAX_NEWTON = 20;
+    private static final int MAX_RETROCESSOS = 30;
+
+    private final Usina usina;
+    private final List<Turbina> turbinas;
+    private final ModeloDeQueda modeloDeQueda;
+    private final double[] minimos;
+
+    /**
+     * Maior vazão admissível de cada turbina: o limite máximo é exclusivo.
+     */
+    private final double[] maximos;
+    private final int maxPassos;
+
+    private final double[] derivadas;
+    private final double[] direcao;
+    private final double[] candidata;
+    private final boolean[] livres;
+
+    /**
+     * Construtor.
+     *
+     * @param usina Usina a ser despachada.
+     * @param maxPassos Número máximo de passos de gradiente por refinamento.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o número de passos for menor que um.</li>
+     * </ul>
+     * @throws NullPointerException
+     * <ul>
+     * <li>Se a usina for uma referência nula.</li>
+     * </ul>
+     */
+    public BuscaLocal(Usina usina, int maxPassos) {
+        if (usina == null) {
+            throw new NullPointerException("Usina não pode ser uma referência nula.");
+        }
+        if (maxPassos < 1) {
+            throw new IllegalArgumentException("Número de passos < 1.");
+        }
+        this.usina = usina;
+        this.turbinas = usina.getTurbinas();
+        this.modeloDeQueda = usina.getModeloDeQueda();
+        this.minimos = usina.getLimitesMinDeVazao();
+        this.maximos = usina.getLimitesMaxDeVazao();
+        for (int i = 0; i < maximos.length; i++) {
+            maximos[i] = Math.nextDown(maximos[i]);
+        }
+        this.maxPassos = maxPassos;
+
+        int n = minimos.length;
+        derivadas = new double[n];
+        direcao = new double[n];
+        candidata = new double[n];
+        livres = new boolean[n];
+    }
+
+    /**
+     * Refina uma distribuição de vazão, no próprio vetor, no contexto
+     * corrente da usina.
+     *
+     * @param vazoes Vazões, na ordem das turbinas; sobrescrito com o
+     * resultado.
+     * @return Grau de adaptação da distribuição refinada.
+     * @throws IllegalStateException
+     * <ul>
+     * <li>Se a meta não tiver sido atribuída.</li>
+     * </ul>
+     * @see #refina(double[], usina.ContextoDeAvaliacao)
+     */
+    public double refina(double[] vazoes) {
+        ContextoDeAvaliacao contexto = usina.getContexto();
+        if (contexto == null) {
+            throw new IllegalStateException("Meta não atribuida");
+        }
+        return refina(vazoes, contexto);
+    }
+
+    /**
+     * Refina uma distribuição de vazão, no próprio vetor, em um contexto de
+     * avaliação.
+     *
+     * <p>
+     * Se a meta não puder ser atendida dentro dos limites de vazão, o vetor é
+     * mantido inalterado.
+     * </p>
+     *
+     * @param vazoes Vazões, na ordem das turbinas; sobrescrito com o
+     * resultado.
+     * @param contexto Condições de operação.
+     * @return Grau de adaptação da distribuição refinada, por
+     * {@link Usina#avalia(double[], usina.ContextoDeAvaliacao)}.
+     * @throws IllegalStateException
+     * <ul>
+     * <li>Se o contexto definir o nível do reservatório e a usina não tiver
+     * modelo de queda.</li>
+     * </ul>
+     */
+    public double refina(double[] vazoes, ContextoDeAvaliacao contexto) {
+        if (!contexto.temQuedaBruta() && contexto.temNivel() && modeloDeQueda == null) {
+            throw new IllegalStateException("Usina sem modelo de queda");
+        }
+        double meta = contexto.getMeta();
+
+        System.arraycopy(vazoes, 0, candidata, 0, vazoes.length);
+        if (!restaura(candidata, meta, contexto)) {
+            return usina.avalia(vazoes, contexto);
+        }
+        System.arraycopy(candidata, 0, vazoes, 0, vazoes.length);
+
+        double vazaoTotal = soma(vazoes, contexto);
+        double alfa = 1;
+
+        for (int passo = 0; passo < maxPassos; passo++) {
+            if (!direcaoProjetada(vazoes, contexto)) {
+                break;
+            }
+
+            boolean aceito = false;
+            for (int r = 0; r < MAX_RETROCESSOS && !aceito; r++) {
+                for (int i = 0; i < vazoes.length; i++) {
+                    candidata[i] = contexto.isDisponivel(i)
+                            ? Math.min(maximos[i], Math.max(minimos[i], vazoes[i] + alfa * direcao[i]))
+                            : vazoes[i];
+                }
+                if (restaura(candidata, meta, contexto)) {
+                    double novaVazaoTotal = soma(candidata, contexto);
+                    if (novaVazaoTotal < vazaoTotal) {
+                        System.arraycopy(candidata, 0, vazoes, 0, vazoes.length);
+                        vazaoTotal = novaVazaoTotal;
+                        aceito = true;
+                        alfa *= 2;
+                        continue;
+                    }
+                }
+                alfa /= 2;
+            }
+            if (!aceito) {
+                break;
+            }
+        }
+
+        return usina.avalia(vazoes, contexto);
+    }
+
+    /**
+     * Calcula a direção de descida de <code>Q</code> projetada no plano
+     * tangente da restrição de demanda, fixando coordenadas que deixariam
+     * seus limites e as turbinas indisponíveis.
+     *
+     * @return <code>false</code> se a direção for nula (ponto estacionário).
+     */
+    private boolean direcaoProjetada(double[] vazoes, ContextoDeAvaliacao contexto) {
+        int n = vazoes.length;
+        double queda = queda(vazoes, contexto);
+        for (int i = 0; i < n; i++) {
+            livres[i] = contexto.isDisponivel(i);
+            derivadas[i] = !livres[i] ? 0
+                    : Double.isNaN(queda)
+                    ? turbinas.get(i).getDerivadaPotencia(vazoes[i])
+                    : turbinas.get(i).getDerivadaPotencia(vazoes[i], queda);
+        }
+
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            double somaG = 0;
+            double somaG2 = 0;
+            for (int i = 0; i < n; i++) {
+                if (livres[i]) {
+                    somaG += derivadas[i];
+                    somaG2 += derivadas[i] * derivadas[i];
+                }
+            }
+            if (somaG2 == 0) {
+                return false;
+            }
+            double mu = somaG / somaG2;
+
+            for (int i = 0; i < n; i++) {
+                direcao[i] = livres[i] ? -1 + mu * derivadas[i] : 0;
+                if (livres[i] && ((direcao[i] < 0 && vazoes[i] <= minimos[i])
+                        || (direcao[i] > 0 && vazoes[i] >= maximos[i]))) {
+                    livres[i] = false;
+                    mudou = true;
+                }
+            }
+        }
+
+        double norma = 0;
+        for (int i = 0; i < n; i++) {
+            norma = Math.max(norma, Math.abs(direcao[i]));
+        }
+        return norma > TOLERANCIA_GRADIENTE;
+    }
+
+    /**
+     * Ajusta as vazões para que a potência total atinja a meta: iterações de
+     * Newton ao longo do gradiente da potência, restritas às turbinas
+     * disponíveis que podem se mover no sentido necessário.
+     *
+     * @return <code>false</code> se a meta não puder ser atingida.
+     */
+    private boolean restaura(double[] vazoes, double meta, ContextoDeAvaliacao contexto) {
+        for (int iteracao = 0; iteracao < MAX_NEWTON; iteracao++) {
+            double queda = queda(vazoes, contexto);
+            double potencia = 0;
+            for (int i = 0; i < vazoes.length; i++) {
+                if (!contexto.isDisponivel(i)) {
+                    derivadas[i] = 0;
+                } else if (Double.isNaN(queda)) {
+                    potencia += turbinas.get(i).getPotencia(vazoes[i], derivadas, i);
+                } else {
+                    potencia += turbinas.get(i).getPotencia(vazoes[i], queda, derivadas, i);
+                }
+            }
+            double residuo = potencia - meta;
+            if (Math.abs(residuo) <= TOLERANCIA_DEMANDA * meta) {
+                return true;
+            }
+
+            double somaG2 = 0;
+            for (int i = 0; i < vazoes.length; i++) {
+                boolean movel = residuo < 0 ? vazoes[i] < maximos[i] : vazoes[i] > minimos[i];
+                if (!movel) {
+                    derivadas[i] = 0;
+                }
+                somaG2 += derivadas[i] * derivadas[i];
+            }
+            if (somaG2 == 0) {
+                return false;
+            }
+
+            double t = -residuo / somaG2;
+            for (int i = 0; i < vazoes.length; i++) {
+                if (contexto.isDisponivel(i)) {
+                    vazoes[i] = Math.min(maximos[i], Math.max(minimos[i], vazoes[i] + t * derivadas[i]));
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queda bruta comum às turbinas: a do contexto, a do modelo de queda para
+     * a defluência corrente, ou <code>Double.NaN</code> para a de instalação
+     * de cada turbina.
+     */
+    private double queda(double[] vazoes, ContextoDeAvaliacao contexto) {
+        if (contexto.temQuedaBruta() || !contexto.temNivel()) {
+            return contexto.getQuedaBruta();
+        }
+        return modeloDeQueda.getQuedaBruta(contexto.getNivel(), soma(vazoes, contexto));
+    }
+
+    /**
+     * Vazão total das turbinas disponíveis.
+     */
+    private static double soma(double[] vetor, ContextoDeAvaliacao contexto) {
+        double soma = 0;
+        for (int i = 0; i < vetor.length; i++) {
+            if (contexto.isDisponivel(i)) {
+                soma += vetor[i];
+            }
+        }
+        return soma;
+    }
+}
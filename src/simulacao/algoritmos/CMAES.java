@@ -0,0 +1,481 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.algoritmos;
+
+import java.util.Arrays;
+import java.util.Random;
+import simulacao.Resultado;
+import usina.Usina;
+import usina.operadores.Geracao;
+
+/**
+ * Estratégia evolutiva com adaptação da matriz de covariância (CMA-ES).
+ *
+ * <p>
+ * Alternativa ao DE para problemas suaves e de baixa dimensão, como a
+ * distribuição de vazão entre poucas turbinas. A busca é feita em coordenadas
+ * normalizadas <code>y ∈ [0, 1]^n</code>, obtidas dos limites de vazão de cada
+ * turbina; amostras fora da caixa são avaliadas em sua projeção e penalizadas
+ * pela distância quadrática à caixa, mantendo-se a amostra original na
+ * atualização da distribuição. Como o limite superior de vazão é exclusivo,
+ * <code>y = 1</code> corresponde ao maior valor abaixo dele.
+ * </p>
+ *
+ * <p>
+ * Implementação da variante (μ/μ_w, λ) padrão: pesos logarítmicos, caminhos
+ * de evolução para o passo (CSA) e para a covariância, atualização de posto um
+ * e de posto μ. A decomposição espectral da covariância é feita pelo método de
+ * Jacobi, recalculada de forma preguiçosa a cada O(n) gerações.
+ * </p>
+ *
+ * <p>
+ * O objetivo é {@link Usina#avalia(double[])}; a meta da usina deve estar
+ * atribuída. Instâncias não são seguras para uso concorrente.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class CMAES {
+
+    /**
+     * Peso da penalidade por violação dos limites, em coordenadas
+     * normalizadas.
+     */
+    private static final double PENALIDADE = 1.0;
+
+    private final Usina usina;
+    private final Random aleatorio;
+    private final double sigmaInicial;
+    private final int lambdaInicial;
+
+    private final double[] minimos;
+    private final double[] maximos;
+    private final int n;
+
+    private long avaliacoes;
+    private int iteracoes;
+    private int reinicios;
+
+    private double[] melhorX;
+    private double melhorAptidao;
+
+    /**
+     * Construtor com parâmetros padrão: população inicial λ = 4 + ⌊3 ln n⌋ e
+     * passo inicial de 0,3 (em coordenadas normalizadas).
+     *
+     * @param usina Usina a ser despachada.
+     */
+    public CMAES(Usina usina) {
+        this(usina, 0, 0.3, new Random());
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param usina Usina a ser despachada.
+     * @param lambda Número de amostras por geração na primeira corrida; zero
+     * usa o valor padrão <code>4 + ⌊3 ln n⌋</code>.
+     * @param sigmaInicial Passo inicial, em coordenadas normalizadas.
+     * @param aleatorio Fonte de números aleatórios.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se λ for menor que 2 (exceto zero);</li>
+     * <li>Se o passo inicial não for positivo.</li>
+     * </ul>
+     * @throws NullPointerException
+     * <ul>
+     * <li>Se a usina ou a fonte de números aleatórios forem referências
+     * nulas.</li>
+     * </ul>
+     */
+    public CMAES(Usina usina, int lambda, double sigmaInicial, Random aleatorio) {
+
+        if (usina == null) {
+            throw new NullPointerException("Usina não pode ser uma referência nula.");
+        }
+        if (aleatorio == null) {
+            throw new NullPointerException("Fonte de números aleatórios não pode ser uma referência nula.");
+        }
+        if (lambda == 1 || lambda < 0) {
+            throw new IllegalArgumentException("λ < 2.");
+        }
+        if (sigmaInicial <= 0) {
+            throw new IllegalArgumentException("Passo inicial <= 0.");
+        }
+
+        this.usina = usina;
+        this.aleatorio = aleatorio;
+        this.sigmaInicial = sigmaInicial;
+        this.minimos = usina.getLimitesMinDeVazao();
+        this.maximos = usina.getLimitesMaxDeVazao();
+        this.n = minimos.length;
+        this.lambdaInicial = (lambda == 0) ? 4 + (int) Math.floor(3 * Math.log(n)) : lambda;
+    }
+
+    /**
+     * Executa a estratégia até esgotar o orçamento de avaliações.
+     *
+     * @param maxAvaliacoes Número máximo de avaliações.
+     * @return Resultado com o tempo de execução e a melhor distribuição.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o orçamento for menor que o número de amostras da primeira
+     * geração.</li>
+     * </ul>
+     */
+    public Resultado executa(long maxAvaliacoes) {
+        return executa(maxAvaliacoes, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Executa a estratégia até esgotar o orçamento de avaliações ou atingir a
+     * aptidão alvo.
+     *
+     * <p>
+     * A barreira de demanda de {@link Usina#avalia(double[])} torna o
+     * objetivo descontínuo, e uma corrida isolada pode convergir fora da faixa
+     * factível. Por isso, sempre que uma corrida converge ou estagna, uma nova
+     * é iniciada com o dobro de amostras por geração (IPOP), preservando-se a
+     * melhor solução encontrada.
+     * </p>
+     *
+     * @param maxAvaliacoes Número máximo de avaliações.
+     * @param aptidaoAlvo Aptidão cujo alcance encerra a execução.
+     * @return Resultado com o tempo de execução e a melhor distribuição.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o orçamento for menor que o número de amostras da primeira
+     * geração.</li>
+     * </ul>
+     *
+     * @see #getAvaliacoes()
+     */
+    public Resultado executa(long maxAvaliacoes, double aptidaoAlvo) {
+        if (maxAvaliacoes < lambdaInicial) {
+            throw new IllegalArgumentException("Orçamento menor que o número de amostras por geração.");
+        }
+
+        long inicio = System.nanoTime();
+
+        avaliacoes = 0;
+        iteracoes = 0;
+        reinicios = 0;
+        melhorX = new double[n];
+        melhorAptidao = Double.NEGATIVE_INFINITY;
+
+        int lambda = lambdaInicial;
+        while (avaliacoes + lambda <= maxAvaliacoes && melhorAptidao < aptidaoAlvo) {
+            corrida(lambda, maxAvaliacoes, aptidaoAlvo);
+            lambda *= 2;
+            reinicios++;
+        }
+        reinicios = Math.max(0, reinicios - 1);
+
+        double tempo = (System.nanoTime() - inicio) / 1e9;
+        return new Resultado(tempo, new Geracao(usina.getTurbinas()).get(melhorX), melhorAptidao,
+                iteracoes, avaliacoes);
+    }
+
+    /**
+     * Retorna o número de avaliações consumidas pela última execução.
+     *
+     * @return Avaliações da última execução.
+     */
+    public long getAvaliacoes() {
+        return avaliacoes;
+    }
+
+    /**
+     * Retorna o número total de gerações da última execução, somadas todas as
+     * corridas.
+     *
+     * @return Gerações da última execução.
+     */
+    public int getIteracoes() {
+        return iteracoes;
+    }
+
+    /**
+     * Retorna o número de reinícios da última execução.
+     *
+     * @return Reinícios da última execução.
+     */
+    public int getReinicios() {
+        return reinicios;
+    }
+
+    /**
+     * Uma corrida da CMA-ES com λ amostras por geração, a partir de uma média
+     * aleatória. Termina por orçamento, alvo, convergência do passo,
+     * mal-condicionamento da covariância ou estagnação.
+     */
+    private void corrida(int lambda, long maxAvaliacoes, double aptidaoAlvo) {
+
+        int mu = lambda / 2;
+        double[] pesos = new double[mu];
+        double soma = 0;
+        for (int i = 0; i < mu; i++) {
+            pesos[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+            soma += pesos[i];
+        }
+        double somaQuadrados = 0;
+        for (int i = 0; i < mu; i++) {
+            pesos[i] /= soma;
+            somaQuadrados += pesos[i] * pesos[i];
+        }
+        double muEff = 1 / somaQuadrados;
+
+        double cc = (4 + muEff / n) / (n + 4 + 2 * muEff / n);
+        double cs = (muEff + 2) / (n + muEff + 5);
+        double c1 = 2 / ((n + 1.3) * (n + 1.3) + muEff);
+        double cMu = Math.min(1 - c1, 2 * (muEff - 2 + 1 / muEff) / ((n + 2) * (n + 2) + muEff));
+        double damps = 1 + 2 * Math.max(0, Math.sqrt((muEff - 1) / (n + 1)) - 1) + cs;
+        double chiN = Math.sqrt(n) * (1 - 1.0 / (4 * n) + 1.0 / (21.0 * n * n));
+        int limiteEstagnacao = 10 + (int) Math.ceil(30.0 * n / lambda);
+
+        double[] media = new double[n];
+        for (int i = 0; i < n; i++) {
+            media[i] = aleatorio.nextDouble();
+        }
+        double sigma = sigmaInicial;
+
+        double[][] c = new double[n][n];
+        double[][] b = new double[n][n];
+        double[] d = new double[n];
+        for (int i = 0; i < n; i++) {
+            c[i][i] = 1;
+            b[i][i] = 1;
+            d[i] = 1;
+        }
+        double[] pc = new double[n];
+        double[] ps = new double[n];
+
+        double[][] y = new double[lambda][n];
+        double[] z = new double[n];
+        double[] custos = new double[lambda];
+        int[] ordem = new int[lambda];
+        double[] x = new double[n];
+        double[] mediaAnterior = new double[n];
+        double[] passo = new double[n];
+        double[] auxiliar = new double[n];
+
+        long ultimaDecomposicao = avaliacoes;
+        double melhorDaCorrida = Double.NEGATIVE_INFINITY;
+        int semMelhora = 0;
+        int geracao = 0;
+
+        while (avaliacoes + lambda <= maxAvaliacoes && melhorAptidao < aptidaoAlvo) {
+
+            double melhorDaGeracao = Double.NEGATIVE_INFINITY;
+            for (int k = 0; k < lambda; k++) {
+                for (int i = 0; i < n; i++) {
+                    z[i] = d[i] * aleatorio.nextGaussian();
+                }
+                double violacao = 0;
+                for (int i = 0; i < n; i++) {
+                    double s = 0;
+                    for (int j = 0; j < n; j++) {
+                        s += b[i][j] * z[j];
+                    }
+                    y[k][i] = media[i] + sigma * s;
+
+                    double yi = Math.min(1, Math.max(0, y[k][i]));
+                    violacao += (y[k][i] - yi) * (y[k][i] - yi);
+                    x[i] = Math.min(minimos[i] + yi * (maximos[i] - minimos[i]), Math.nextDown(maximos[i]));
+                }
+
+                double aptidao = usina.avalia(x);
+                avaliacoes++;
+                if (aptidao > melhorAptidao) {
+                    melhorAptidao = aptidao;
+                    System.arraycopy(x, 0, melhorX, 0, n);
+                }
+                melhorDaGeracao = Math.max(melhorDaGeracao, aptidao);
+                custos[k] = -aptidao + PENALIDADE * violacao;
+                ordem[k] = k;
+            }
+            geracao++;
+            iteracoes++;
+
+            ordena(ordem, custos);
+
+            System.arraycopy(media, 0, mediaAnterior, 0, n);
+            for (int i = 0; i < n; i++) {
+                double s = 0;
+                for (int k = 0; k < mu; k++) {
+                    s += pesos[k] * y[ordem[k]][i];
+                }
+                media[i] = s;
+                passo[i] = (media[i] - mediaAnterior[i]) / sigma;
+            }
+
+            // C^(-1/2) * passo = B * D^-1 * B' * passo
+            for (int j = 0; j < n; j++) {
+                double s = 0;
+                for (int i = 0; i < n; i++) {
+                    s += b[i][j] * passo[i];
+                }
+                auxiliar[j] = s / d[j];
+            }
+            double normaPs = 0;
+            for (int i = 0; i < n; i++) {
+                double s = 0;
+                for (int j = 0; j < n; j++) {
+                    s += b[i][j] * auxiliar[j];
+                }
+                ps[i] = (1 - cs) * ps[i] + Math.sqrt(cs * (2 - cs) * muEff) * s;
+                normaPs += ps[i] * ps[i];
+            }
+            normaPs = Math.sqrt(normaPs);
+
+            boolean hSig = normaPs / Math.sqrt(1 - Math.pow(1 - cs, 2.0 * geracao)) / chiN
+                    < 1.4 + 2.0 / (n + 1);
+            for (int i = 0; i < n; i++) {
+                pc[i] = (1 - cc) * pc[i] + (hSig ? Math.sqrt(cc * (2 - cc) * muEff) * passo[i] : 0);
+            }
+
+            double ajuste = hSig ? 0 : c1 * cc * (2 - cc);
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j <= i; j++) {
+                    double postoMu = 0;
+                    for (int k = 0; k < mu; k++) {
+                        double[] yk = y[ordem[k]];
+                        postoMu += pesos[k] * (yk[i] - mediaAnterior[i]) * (yk[j] - mediaAnterior[j]);
+                    }
+                    c[i][j] = (1 - c1 - cMu + ajuste) * c[i][j]
+                            + c1 * pc[i] * pc[j]
+                            + cMu * postoMu / (sigma * sigma);
+                    c[j][i] = c[i][j];
+                }
+            }
+
+            sigma *= Math.exp((cs / damps) * (normaPs / chiN - 1));
+
+            if (avaliacoes - ultimaDecomposicao > lambda / (c1 + cMu) / n / 10) {
+                ultimaDecomposicao = avaliacoes;
+                decompoe(c, b, d);
+            }
+
+            if (melhorDaGeracao > melhorDaCorrida + 1e-12) {
+                melhorDaCorrida = melhorDaGeracao;
+                semMelhora = 0;
+            } else if (++semMelhora > limiteEstagnacao) {
+                return;
+            }
+
+            double maiorEixo = 0;
+            double menorEixo = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                maiorEixo = Math.max(maiorEixo, d[i]);
+                menorEixo = Math.min(menorEixo, d[i]);
+            }
+            if (sigma * maiorEixo < 1e-12 || maiorEixo > 1e7 * menorEixo) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Decomposição espectral <code>C = B·diag(D²)·B'</code> pelo método de
+     * Jacobi cíclico. Sobrescreve <code>b</code> e <code>d</code>.
+     */
+    private static void decompoe(double[][] c, double[][] b, double[] d) {
+        int n = d.length;
+        double[][] a = new double[n][];
+        for (int i = 0; i < n; i++) {
+            a[i] = c[i].clone();
+            Arrays.fill(b[i], 0);
+            b[i][i] = 1;
+        }
+
+        for (int varredura = 0; varredura < 50; varredura++) {
+            double foraDiagonal = 0;
+            for (int p = 0; p < n; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    foraDiagonal += a[p][q] * a[p][q];
+                }
+            }
+            if (foraDiagonal < 1e-30) {
+                break;
+            }
+
+            for (int p = 0; p < n; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    if (a[p][q] == 0) {
+                        continue;
+                    }
+                    double theta = (a[q][q] - a[p][p]) / (2 * a[p][q]);
+                    double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+                    if (theta == 0) {
+                        t = 1;
+                    }
+                    double cos = 1 / Math.sqrt(t * t + 1);
+                    double sen = t * cos;
+
+                    for (int k = 0; k < n; k++) {
+                        double akp = a[k][p];
+                        double akq = a[k][q];
+                        a[k][p] = cos * akp - sen * akq;
+                        a[k][q] = sen * akp + cos * akq;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double apk = a[p][k];
+                        double aqk = a[q][k];
+                        a[p][k] = cos * apk - sen * aqk;
+                        a[q][k] = sen * apk + cos * aqk;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double bkp = b[k][p];
+                        double bkq = b[k][q];
+                        b[k][p] = cos * bkp - sen * bkq;
+                        b[k][q] = sen * bkp + cos * bkq;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            d[i] = Math.sqrt(Math.max(a[i][i], 1e-300));
+        }
+    }
+
+    /**
+     * Ordena os índices por custo crescente.
+     */
+    private static void ordena(int[] ordem, double[] custos) {
+        for (int i = 1; i < ordem.length; i++) {
+            int indice = ordem[i];
+            int j = i - 1;
+            while (j >= 0 && custos[ordem[j]] > custos[indice]) {
+                ordem[j + 1] = ordem[j];
+                j--;
+            }
+            ordem[j + 1] = indice;
+        }
+    }
+}
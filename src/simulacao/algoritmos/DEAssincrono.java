@@ -0,0 +1,439 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.algoritmos;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import simulacao.Resultado;
+import usina.Usina;
+import usina.operadores.Geracao;
+
+/**
+ * DE assíncrono em regime estacionário.
+ *
+ * <p>
+ * Desacopla a geração de vetores de teste de sua avaliação: linhas de execução
+ * produtoras geram continuamente vetores de teste a partir da população atual
+ * e os depositam em uma fila limitada; linhas avaliadoras consomem a fila,
+ * avaliam cada vetor e o comparam imediatamente com o ocupante atual de sua
+ * posição alvo. Não há gerações: uma avaliação lenta não bloqueia as demais.
+ * </p>
+ *
+ * <p>
+ * Os operadores reproduzem a semântica de <code>Rand</code> e
+ * <code>Binomial</code>: o vetor mutante é <code>x_r0 + F * Σ(x_r1 -
+ * x_r2)</code>, com <code>nDiferencas</code> pares de índices distintos entre
+ * si e do alvo, e cada coordenada do vetor de teste vem do mutante com
+ * probabilidade <code>CR</code> (ao menos uma, sorteada, sempre vem).
+ * Coordenadas fora dos limites de vazão são projetadas nos limites.
+ * </p>
+ *
+ * <p>
+ * A população é um {@link AtomicReferenceArray} de indivíduos imutáveis; a
+ * substituição é feita por comparação e troca, sem bloqueios.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class DEAssincrono {
+
+    /**
+     * Indivíduo imutável: vazões e grau de adaptação.
+     */
+    private static final class Individuo {
+
+        private final double[] vazoes;
+        private final double aptidao;
+
+        private Individuo(double[] vazoes, double aptidao) {
+            this.vazoes = vazoes;
+            this.aptidao = aptidao;
+        }
+    }
+
+    /**
+     * Vetor de teste aguardando avaliação.
+     */
+    private static final class Tarefa {
+
+        private final int alvo;
+        private final double[] vazoes;
+
+        private Tarefa(int alvo, double[] vazoes) {
+            this.alvo = alvo;
+            this.vazoes = vazoes;
+        }
+    }
+
+    /**
+     * Número de inserções na fila entre amostras de sua profundidade.
+     * Consultar o tamanho da fila toma seus bloqueios, por isso não é feito a
+     * cada inserção.
+     */
+    public static final int INTERVALO_AMOSTRAGEM = 64;
+
+    /**
+     * Sinal de término para as linhas avaliadoras.
+     */
+    private static final Tarefa FIM = new Tarefa(-1, null);
+
+    /**
+     * Métricas de uma execução.
+     *
+     * @since 1.0
+     */
+    public static final class Metricas {
+
+        private final long avaliacoes;
+        private final long substituicoes;
+        private final double tempo;
+        private final double profundidadeMedia;
+        private final int profundidadeMaxima;
+
+        private Metricas(long avaliacoes, long substituicoes, double tempo,
+                double profundidadeMedia, int profundidadeMaxima) {
+            this.avaliacoes = avaliacoes;
+            this.substituicoes = substituicoes;
+            this.tempo = tempo;
+            this.profundidadeMedia = profundidadeMedia;
+            this.profundidadeMaxima = profundidadeMaxima;
+        }
+
+        /**
+         * @return Número de avaliações, incluindo a população inicial.
+         */
+        public long getAvaliacoes() {
+            return avaliacoes;
+        }
+
+        /**
+         * @return Número de vetores de teste que substituíram seu alvo.
+         */
+        public long getSubstituicoes() {
+            return substituicoes;
+        }
+
+        /**
+         * @return Tempo de parede [s].
+         */
+        public double getTempo() {
+            return tempo;
+        }
+
+        /**
+         * @return Vazão de avaliações [avaliações/s].
+         */
+        public double getVazao() {
+            return avaliacoes / tempo;
+        }
+
+        /**
+         * @return Profundidade média da fila, amostrada a cada
+         * {@link DEAssincrono#INTERVALO_AMOSTRAGEM} inserções.
+         */
+        public double getProfundidadeMedia() {
+            return profundidadeMedia;
+        }
+
+        /**
+         * @return Maior profundidade amostrada da fila.
+         */
+        public int getProfundidadeMaxima() {
+            return profundidadeMaxima;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Avaliações: %d\tSubstituições: %d\tTempo: %.4f s\tVazão: %.1f aval/s\tFila média: %.2f\tFila máxima: %d",
+                    avaliacoes, substituicoes, tempo, getVazao(), profundidadeMedia, profundidadeMaxima);
+        }
+    }
+
+    private final Usina usina;
+    private final int nIndividuos;
+    private final int nDiferencas;
+    private final double fatorDePertubacao;
+    private final double probabilidadeDeCrossover;
+    private final int nProdutores;
+    private final int nAvaliadores;
+    private final int capacidadeFila;
+
+    private final double[] minimos;
+    private final double[] maximos;
+
+    private volatile Metricas metricas;
+
+    /**
+     * Construtor.
+     *
+     * @param usina Usina a ser despachada; a meta deve estar atribuída.
+     * @param nIndividuos Tamanho da população.
+     * @param nDiferencas Número de diferenças somadas ao vetor base.
+     * @param fatorDePertubacao Fator de perturbação (F).
+     * @param probabilidadeDeCrossover Probabilidade de cruzamento (CR).
+     * @param nProdutores Linhas de execução geradoras de vetores de teste.
+     * @param nAvaliadores Linhas de execução avaliadoras.
+     * @param capacidadeFila Capacidade da fila entre produtores e avaliadores.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se a população tiver menos de <code>2 * nDiferencas + 2</code>
+     * indivíduos;</li>
+     * <li>Se o número de produtores, avaliadores ou a capacidade da fila for
+     * menor que um.</li>
+     * </ul>
+     * @throws NullPointerException
+     * <ul>
+     * <li>Se a usina for uma referência nula.</li>
+     * </ul>
+     */
+    public DEAssincrono(Usina usina, int nIndividuos, int nDiferencas,
+            double fatorDePertubacao, double probabilidadeDeCrossover,
+            int nProdutores, int nAvaliadores, int capacidadeFila) {
+
+        if (usina == null) {
+            throw new NullPointerException("Usina não pode ser uma referência nula.");
+        }
+        if (nDiferencas < 1 || nIndividuos < 2 * nDiferencas + 2) {
+            throw new IllegalArgumentException("População insuficiente para o número de diferenças.");
+        }
+        if (nProdutores < 1 || nAvaliadores < 1 || capacidadeFila < 1) {
+            throw new IllegalArgumentException("Produtores, avaliadores e capacidade da fila devem ser >= 1.");
+        }
+
+        this.usina = usina;
+        this.nIndividuos = nIndividuos;
+        this.nDiferencas = nDiferencas;
+        this.fatorDePertubacao = fatorDePertubacao;
+        this.probabilidadeDeCrossover = probabilidadeDeCrossover;
+        this.nProdutores = nProdutores;
+        this.nAvaliadores = nAvaliadores;
+        this.capacidadeFila = capacidadeFila;
+
+        minimos = usina.getLimitesMinDeVazao();
+        maximos = usina.getLimitesMaxDeVazao();
+    }
+
+    /**
+     * Executa o DE até esgotar um orçamento de avaliações.
+     *
+     * @param maxAvaliacoes Número total de avaliações, incluindo a população
+     * inicial.
+     * @return Resultado com o tempo de parede e o melhor indivíduo.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o orçamento for menor que o tamanho da população.</li>
+     * </ul>
+     * @throws IllegalStateException
+     * <ul>
+     * <li>Se a execução for interrompida ou uma das linhas de execução
+     * falhar.</li>
+     * </ul>
+     */
+    public Resultado executa(long maxAvaliacoes) {
+        if (maxAvaliacoes < nIndividuos) {
+            throw new IllegalArgumentException("Orçamento menor que a população.");
+        }
+
+        long inicio = System.nanoTime();
+
+        AtomicReferenceArray<Individuo> populacao = inicializa();
+        BlockingQueue<Tarefa> fila = new ArrayBlockingQueue<>(capacidadeFila);
+
+        long orcamento = maxAvaliacoes - nIndividuos;
+        AtomicLong produzidas = new AtomicLong();
+        LongAdder avaliacoes = new LongAdder();
+        LongAdder substituicoes = new LongAdder();
+        LongAdder somaProfundidade = new LongAdder();
+        LongAdder amostras = new LongAdder();
+        AtomicInteger profundidadeMaxima = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(nProdutores + nAvaliadores);
+        CompletionService<Boolean> servico = new ExecutorCompletionService<>(executor);
+        try {
+            for (int p = 0; p < nProdutores; p++) {
+                servico.submit(() -> {
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    int[] indices = new int[2 * nDiferencas + 1];
+                    double[][] doadores = new double[indices.length][];
+                    long n;
+                    while ((n = produzidas.getAndIncrement()) < orcamento) {
+                        int alvo = (int) (n % nIndividuos);
+                        fila.put(new Tarefa(alvo, tentativa(populacao, alvo, indices, doadores, aleatorio)));
+
+                        if (n % INTERVALO_AMOSTRAGEM == 0) {
+                            int profundidade = fila.size();
+                            somaProfundidade.add(profundidade);
+                            amostras.increment();
+                            profundidadeMaxima.accumulateAndGet(profundidade, Math::max);
+                        }
+                    }
+                    return true;
+                });
+            }
+            for (int a = 0; a < nAvaliadores; a++) {
+                servico.submit(() -> {
+                    Tarefa tarefa;
+                    while ((tarefa = fila.take()) != FIM) {
+                        Individuo novo = new Individuo(tarefa.vazoes, usina.avalia(tarefa.vazoes));
+                        avaliacoes.increment();
+                        if (substitui(populacao, tarefa.alvo, novo)) {
+                            substituicoes.increment();
+                        }
+                    }
+                    return false;
+                });
+            }
+
+            int produtoresAtivos = nProdutores;
+            for (int t = 0; t < nProdutores + nAvaliadores; t++) {
+                if (servico.take().get() && --produtoresAtivos == 0) {
+                    for (int a = 0; a < nAvaliadores; a++) {
+                        fila.put(FIM);
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Execução interrompida.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Falha em uma linha de execução do DE.", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double tempo = (System.nanoTime() - inicio) / 1e9;
+        long nAmostras = amostras.sum();
+        metricas = new Metricas(avaliacoes.sum() + nIndividuos, substituicoes.sum(), tempo,
+                nAmostras == 0 ? 0 : (double) somaProfundidade.sum() / nAmostras,
+                profundidadeMaxima.get());
+
+        Individuo melhor = populacao.get(0);
+        for (int i = 1; i < nIndividuos; i++) {
+            if (populacao.get(i).aptidao > melhor.aptidao) {
+                melhor = populacao.get(i);
+            }
+        }
+
+        // Em regime estacionário, gerações equivalentes: avaliações além da
+        // população inicial divididas pelo tamanho da população.
+        long total = metricas.getAvaliacoes();
+        return new Resultado(tempo, new Geracao(usina.getTurbinas()).get(melhor.vazoes), melhor.aptidao,
+                (int) (total / nIndividuos - 1), total);
+    }
+
+    /**
+     * Retorna as métricas da última execução.
+     *
+     * @return Métricas, ou <code>null</code> se não houve execução.
+     */
+    public Metricas getMetricas() {
+        return metricas;
+    }
+
+    private AtomicReferenceArray<Individuo> inicializa() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        AtomicReferenceArray<Individuo> populacao = new AtomicReferenceArray<>(nIndividuos);
+        for (int i = 0; i < nIndividuos; i++) {
+            double[] vazoes = new double[minimos.length];
+            for (int j = 0; j < vazoes.length; j++) {
+                vazoes[j] = minimos[j] + (maximos[j] - minimos[j]) * aleatorio.nextDouble();
+            }
+            populacao.set(i, new Individuo(vazoes, usina.avalia(vazoes)));
+        }
+        return populacao;
+    }
+
+    /**
+     * Gera um vetor de teste para a posição alvo: mutação DE/rand/n seguida
+     * de cruzamento binomial.
+     *
+     * <p>
+     * Os doadores são lidos da população uma única vez, antes da mutação, de
+     * modo que uma substituição concorrente não mistura dois ocupantes da
+     * mesma posição no vetor diferença.
+     * </p>
+     */
+    private double[] tentativa(AtomicReferenceArray<Individuo> populacao, int alvo,
+            int[] indices, double[][] doadores, ThreadLocalRandom aleatorio) {
+
+        for (int k = 0; k < indices.length; k++) {
+            int candidato;
+            boolean repetido;
+            do {
+                candidato = aleatorio.nextInt(nIndividuos);
+                repetido = candidato == alvo;
+                for (int m = 0; m < k && !repetido; m++) {
+                    repetido = indices[m] == candidato;
+                }
+            } while (repetido);
+            indices[k] = candidato;
+            doadores[k] = populacao.get(candidato).vazoes;
+        }
+
+        double[] x = populacao.get(alvo).vazoes;
+        double[] base = doadores[0];
+        double[] u = new double[x.length];
+        int jAleatorio = aleatorio.nextInt(x.length);
+
+        for (int j = 0; j < x.length; j++) {
+            if (j == jAleatorio || aleatorio.nextDouble() < probabilidadeDeCrossover) {
+                double v = base[j];
+                for (int d = 0; d < nDiferencas; d++) {
+                    v += fatorDePertubacao * (doadores[2 * d + 1][j] - doadores[2 * d + 2][j]);
+                }
+                u[j] = Math.min(Math.nextDown(maximos[j]), Math.max(minimos[j], v));
+            } else {
+                u[j] = x[j];
+            }
+        }
+        return u;
+    }
+
+    /**
+     * Substitui o ocupante da posição alvo se o novo indivíduo não for pior.
+     */
+    private static boolean substitui(AtomicReferenceArray<Individuo> populacao, int alvo, Individuo novo) {
+        Individuo atual;
+        do {
+            atual = populacao.get(alvo);
+            if (novo.aptidao < atual.aptidao) {
+                return false;
+            }
+        } while (!populacao.compareAndSet(alvo, atual, novo));
+        return true;
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.algoritmos;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import usina.ContextoDeAvaliacao;
+import usina.Turbina;
+import usina.Usina;
+
+/**
+ * Despacho de vários períodos com limites de rampa por turbina.
+ *
+ * <p>
+ * A variação da vazão de cada turbina entre períodos consecutivos é limitada
+ * por uma rampa máxima. O horizonte é resolvido por janelas deslizantes: em
+ * cada período, um DE/rand/1/bin otimiza conjuntamente as vazões dos próximos
+ * períodos da janela, e apenas o primeiro período é fixado. A população da
+ * janela seguinte parte da população final, deslocada de um período.
+ * </p>
+ *
+ * <p>
+ * Cada genoma é reparado período a período, em ordem: as vazões são
+ * projetadas na faixa permitida pela rampa a partir do período anterior e
+ * escaladas para a demanda do período dentro dessa faixa
+ * ({@link DespachoIncremental#escala(java.util.List, double[], double[], double[], double)}).
+ * A aptidão de um genoma é a média das aptidões de seus períodos.
+ * </p>
+ *
+ * <p>
+ * Os genomas de teste de cada geração são avaliados em lote, em paralelo,
+ * sobre contextos de avaliação imutáveis de cada período, de modo que uma
+ * única usina é compartilhada por todas as linhas de execução.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class DespachoComRampa {
+
+    /**
+     * Vazões e aptidões de cada período do horizonte.
+     */
+    public static final class Plano {
+
+        private final double[][] vazoes;
+        private final double[] aptidoes;
+
+        private Plano(double[][] vazoes, double[] aptidoes) {
+            this.vazoes = vazoes;
+            this.aptidoes = aptidoes;
+        }
+
+        public int getNPeriodos() {
+            return aptidoes.length;
+        }
+
+        /**
+         * @param periodo Período.
+         * @return Vazão de cada turbina no período (cópia).
+         */
+        public double[] getVazoes(int periodo) {
+            return vazoes[periodo].clone();
+        }
+
+        /**
+         * @param periodo Período.
+         * @return Grau de adaptação do período.
+         */
+        public double getAptidao(int periodo) {
+            return aptidoes[periodo];
+        }
+
+        /**
+         * @return Média das aptidões dos períodos.
+         */
+        public double getAptidaoMedia() {
+            double soma = 0;
+            for (double aptidao : aptidoes) {
+                soma += aptidao;
+            }
+            return soma / aptidoes.length;
+        }
+
+        /**
+         * @return Maior variação de vazão de uma turbina entre períodos
+         * consecutivos [m^3/s].
+         */
+        public double getMaiorRampa() {
+            double maior = 0;
+            for (int t = 1; t < vazoes.length; t++) {
+                for (int i = 0; i < vazoes[t].length; i++) {
+                    maior = Math.max(maior, Math.abs(vazoes[t][i] - vazoes[t - 1][i]));
+                }
+            }
+            return maior;
+        }
+    }
+
+    private static final double F = 0.5;
+    private static final double CR = 0.9;
+
+    private final Usina usina;
+    private final List<Turbina> turbinas;
+    private final double[] minimos;
+    private final double[] maximos;
+    private final double[] rampas;
+    private final int janela;
+    private final int nIndividuos;
+    private final int maxGeracoes;
+    private final Random aleatorio;
+
+    /**
+     * Construtor com janela de 4 períodos, 40 indivíduos e 60 gerações por
+     * janela.
+     *
+     * @param usina Usina a despachar.
+     * @param rampas Variação máxima de vazão de cada turbina entre períodos
+     * consecutivos [m^3/s].
+     */
+    public DespachoComRampa(Usina usina, double[] rampas) {
+        this(usina, rampas, 4, 40, 60, new Random());
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param usina Usina a despachar.
+     * @param rampas Variação máxima de vazão de cada turbina entre períodos
+     * consecutivos [m^3/s].
+     * @param janela Número de períodos otimizados conjuntamente.
+     * @param nIndividuos Tamanho da população.
+     * @param maxGeracoes Gerações por janela.
+     * @param aleatorio Gerador de números aleatórios.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o número de rampas diferir do número de turbinas;</li>
+     * <li>Se alguma rampa não for positiva;</li>
+     * <li>Se a janela for menor que um;</li>
+     * <li>Se a população tiver menos de 4 indivíduos.</li>
+     * </ul>
+     */
+    public DespachoComRampa(Usina usina, double[] rampas, int janela, int nIndividuos, int maxGeracoes,
+            Random aleatorio) {
+        this.turbinas = usina.getTurbinas();
+        if (rampas.length != turbinas.size()) {
+            throw new IllegalArgumentException("Número de rampas diferente do número de turbinas.");
+        }
+        for (double rampa : rampas) {
+            if (!(rampa > 0)) {
+                throw new IllegalArgumentException("Rampa deve ser positiva.");
+            }
+        }
+        if (janela < 1) {
+            throw new IllegalArgumentException("Janela < 1.");
+        }
+        if (nIndividuos < 4) {
+            throw new IllegalArgumentException("População < 4.");
+        }
+        this.usina = usina;
+        this.minimos = usina.getLimitesMinDeVazao();
+        this.maximos = usina.getLimitesMaxDeVazao();
+        this.rampas = rampas.clone();
+        this.janela = janela;
+        this.nIndividuos = nIndividuos;
+        this.maxGeracoes = maxGeracoes;
+        this.aleatorio = aleatorio;
+    }
+
+    /**
+     * Despacha todos os períodos.
+     *
+     * @param demandas Demanda de cada período [MW].
+     * @param vazoesIniciais Vazões antes do primeiro período, que limitam a
+     * sua rampa, ou <code>null</code> se o primeiro período for livre.
+     * @return Plano de vazões.
+     */
+    public Plano resolve(double[] demandas, double[] vazoesIniciais) {
+        int periodos = demandas.length;
+        int n = turbinas.size();
+
+        ContextoDeAvaliacao[] contextos = new ContextoDeAvaliacao[periodos];
+        for (int t = 0; t < periodos; t++) {
+            contextos[t] = new ContextoDeAvaliacao(demandas[t]);
+        }
+
+        double[][] vazoes = new double[periodos][];
+        double[] aptidoesPlano = new double[periodos];
+        double[] anterior = vazoesIniciais == null ? null : vazoesIniciais.clone();
+
+        double[][][] populacao = null;
+        double[][][] tentativas = null;
+        double[] aptidoes = new double[nIndividuos];
+        double[] aptidoesTentativas = new double[nIndividuos];
+
+        for (int t = 0; t < periodos; t++) {
+            int w = Math.min(janela, periodos - t);
+
+            if (populacao == null) {
+                populacao = new double[nIndividuos][w][n];
+                for (double[][] genoma : populacao) {
+                    for (double[] periodo : genoma) {
+                        for (int i = 0; i < n; i++) {
+                            periodo[i] = minimos[i] + aleatorio.nextDouble() * (maximos[i] - minimos[i]);
+                        }
+                    }
+                }
+            } else {
+                for (int k = 0; k < nIndividuos; k++) {
+                    double[][] genoma = new double[w][];
+                    for (int p = 0; p < w; p++) {
+                        genoma[p] = populacao[k][Math.min(p + 1, populacao[k].length - 1)].clone();
+                    }
+                    populacao[k] = genoma;
+                }
+            }
+            tentativas = new double[nIndividuos][w][n];
+
+            final int inicio = t;
+            final double[] base = anterior;
+            final double[][][] atual = populacao;
+            IntStream.range(0, nIndividuos).parallel().forEach(k -> {
+                repara(atual[k], base, demandas, inicio);
+                aptidoes[k] = avalia(atual[k], contextos, inicio);
+            });
+
+            for (int g = 0; g < maxGeracoes; g++) {
+                for (int k = 0; k < nIndividuos; k++) {
+                    int r1, r2, r3;
+                    do {
+                        r1 = aleatorio.nextInt(nIndividuos);
+                    } while (r1 == k);
+                    do {
+                        r2 = aleatorio.nextInt(nIndividuos);
+                    } while (r2 == k || r2 == r1);
+                    do {
+                        r3 = aleatorio.nextInt(nIndividuos);
+                    } while (r3 == k || r3 == r1 || r3 == r2);
+
+                    int jAleatorio = aleatorio.nextInt(w * n);
+                    for (int p = 0; p < w; p++) {
+                        for (int i = 0; i < n; i++) {
+                            tentativas[k][p][i] = aleatorio.nextDouble() < CR || p * n + i == jAleatorio
+                                    ? populacao[r1][p][i] + F * (populacao[r2][p][i] - populacao[r3][p][i])
+                                    : populacao[k][p][i];
+                        }
+                    }
+                }
+
+                final double[][][] lote = tentativas;
+                IntStream.range(0, nIndividuos).parallel().forEach(k -> {
+                    repara(lote[k], base, demandas, inicio);
+                    aptidoesTentativas[k] = avalia(lote[k], contextos, inicio);
+                });
+
+                for (int k = 0; k < nIndividuos; k++) {
+                    if (aptidoesTentativas[k] >= aptidoes[k]) {
+                        double[][] trocado = populacao[k];
+                        populacao[k] = tentativas[k];
+                        tentativas[k] = trocado;
+                        aptidoes[k] = aptidoesTentativas[k];
+                    }
+                }
+            }
+
+            int melhor = 0;
+            for (int k = 1; k < nIndividuos; k++) {
+                if (aptidoes[k] > aptidoes[melhor]) {
+                    melhor = k;
+                }
+            }
+            vazoes[t] = populacao[melhor][0].clone();
+            aptidoesPlano[t] = usina.avalia(vazoes[t], contextos[t]);
+            anterior = vazoes[t];
+        }
+
+        return new Plano(vazoes, aptidoesPlano);
+    }
+
+    /**
+     * Projeta cada período do genoma na faixa de rampa do período anterior e
+     * o escala para a demanda do período.
+     */
+    private void repara(double[][] genoma, double[] anterior, double[] demandas, int inicio) {
+        int n = minimos.length;
+        double[] inferior = new double[n];
+        double[] superior = new double[n];
+
+        for (int p = 0; p < genoma.length; p++) {
+            double[] periodo = genoma[p];
+            double[] referencia = p == 0 ? anterior : genoma[p - 1];
+            for (int i = 0; i < n; i++) {
+                inferior[i] = referencia == null ? minimos[i] : Math.max(minimos[i], referencia[i] - rampas[i]);
+                superior[i] = referencia == null ? maximos[i] : Math.min(maximos[i], referencia[i] + rampas[i]);
+                periodo[i] = Math.min(superior[i], Math.max(inferior[i], periodo[i]));
+            }
+            DespachoIncremental.escala(turbinas, periodo, inferior, superior, demandas[inicio + p]);
+        }
+    }
+
+    private double avalia(double[][] genoma, ContextoDeAvaliacao[] contextos, int inicio) {
+        double soma = 0;
+        for (int p = 0; p < genoma.length; p++) {
+            soma += usina.avalia(genoma[p], contextos[inicio + p]);
+        }
+        return soma / genoma.length;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.algoritmos;
+
+import java.util.List;
+import usina.ContextoDeAvaliacao;
+import usina.ModeloDeQueda;
+import usina.Turbina;
+import usina.Usina;
+
+/**
+ * Despacho de período único por custos incrementais iguais.
+ *
+ * <p>
+ * Com a potência total fixada na meta, maximizar a eficiência
+ * <code>P/Q</code> equivale a minimizar <code>Σq_i</code> sujeita a
+ * <code>Σ P_i(q_i) = meta</code>. Como cada <code>P_i</code> é côncava na
+ * faixa de operação, o problema é convexo e sua solução iguala as potências
+ * incrementais das turbinas fora dos limites: <code>P_i'(q_i) = μ</code>. O
+ * multiplicador μ é encontrado por bisseção sobre a potência total, que
+ * decresce com μ, e cada <code>q_i(μ)</code> por bisseção sobre
+ * <code>P_i'</code>.
+ * </p>
+ *
+ * <p>
+ * Resolve o despacho em alguns microssegundos, sem população, e serve de
+ * base às buscas sobre estados liga/desliga. Apenas as turbinas disponíveis
+ * no contexto são despachadas. Instâncias não guardam estado entre chamadas
+ * e podem ser usadas em paralelo.
+ * </p>
+ *
+ * <p>
+ * Com queda acoplada à defluência ({@link ModeloDeQueda}), a queda é comum a
+ * todas as turbinas e fixa para uma vazão total; o despacho é repetido com a
+ * queda recalculada até o ponto fixo. Como a potência cresce com a queda e a
+ * queda decresce com a defluência, o ponto fixo é a menor vazão total que
+ * atende a meta, e portanto o ótimo acoplado.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see BuscaLocal
+ */
+public final class DespachoIncremental {
+
+    private static final double TOLERANCIA_DEMANDA = 1e-9;
+    private static final int MAX_BISSECOES = 100;
+    private static final int MAX_BISSECOES_VAZAO = 60;
+    private static final int MAX_NEWTON = 20;
+    private static final int MAX_PONTO_FIXO = 50;
+
+    private final Usina usina;
+    private final List<Turbina> turbinas;
+    private final double[] minimos;
+
+    /**
+     * Maiores vazões admitidas: o limite máximo de vazão é exclusivo.
+     */
+    private final double[] maximos;
+
+    /**
+     * Construtor.
+     *
+     * @param usina Usina a despachar.
+     */
+    public DespachoIncremental(Usina usina) {
+        this.usina = usina;
+        this.turbinas = usina.getTurbinas();
+        this.minimos = usina.getLimitesMinDeVazao();
+        this.maximos = usina.getLimitesMaxDeVazao();
+        for (int i = 0; i < maximos.length; i++) {
+            maximos[i] = Math.nextDown(maximos[i]);
+        }
+    }
+
+    /**
+     * Despacha as turbinas disponíveis de um contexto.
+     *
+     * <p>
+     * Se a meta estiver fora da faixa de potência das turbinas disponíveis,
+     * todas operam no limite mais próximo, e a aptidão retornada inclui a
+     * penalidade da barreira de demanda.
+     * </p>
+     *
+     * @param contexto Meta e turbinas disponíveis.
+     * @param vazoes Vetor de saída, na ordem das turbinas; recebe zero nas
+     * turbinas indisponíveis.
+     * @return Grau de adaptação do despacho, ou
+     * <code>Double.NEGATIVE_INFINITY</code> se nenhuma turbina estiver
+     * disponível.
+     */
+    public double despacha(ContextoDeAvaliacao contexto, double[] vazoes) {
+        ModeloDeQueda modelo = usina.getModeloDeQueda();
+        if (contexto.temQuedaBruta() || !contexto.temNivel() || modelo == null) {
+            if (!despacha(contexto, contexto.getQuedaBruta(), vazoes)) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return usina.avalia(vazoes, contexto);
+        }
+
+        double defluencia = 0;
+        for (int i = 0; i < vazoes.length; i++) {
+            if (contexto.isDisponivel(i)) {
+                defluencia += (minimos[i] + maximos[i]) / 2;
+            }
+        }
+        for (int iteracao = 0; iteracao < MAX_PONTO_FIXO; iteracao++) {
+            double queda = modelo.getQuedaBruta(contexto.getNivel(), defluencia);
+            if (!despacha(contexto, queda, vazoes)) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            double anterior = defluencia;
+            defluencia = 0;
+            for (int i = 0; i < vazoes.length; i++) {
+                defluencia += vazoes[i];
+            }
+            if (Math.abs(defluencia - anterior) <= TOLERANCIA_DEMANDA * defluencia) {
+                break;
+            }
+        }
+        return usina.avalia(vazoes, contexto);
+    }
+
+    /**
+     * Despacho com queda bruta fixa.
+     *
+     * @param queda Queda comum [m], ou <code>Double.NaN</code> para a de
+     * instalação de cada turbina.
+     * @return <code>false</code> se nenhuma turbina estiver disponível.
+     */
+    private boolean despacha(ContextoDeAvaliacao contexto, double queda, double[] vazoes) {
+        double meta = contexto.getMeta();
+
+        double maior = Double.NEGATIVE_INFINITY;
+        double menor = Double.POSITIVE_INFINITY;
+        boolean algumaDisponivel = false;
+        for (int i = 0; i < vazoes.length; i++) {
+            if (contexto.isDisponivel(i)) {
+                algumaDisponivel = true;
+                maior = Math.max(maior, getDerivadaPotencia(i, minimos[i], queda));
+                menor = Math.min(menor, getDerivadaPotencia(i, maximos[i], queda));
+            }
+        }
+        if (!algumaDisponivel) {
+            return false;
+        }
+
+        if (potencia(maior, contexto, queda, vazoes) >= meta) {
+            return true;
+        }
+        if (potencia(menor, contexto, queda, vazoes) <= meta) {
+            return true;
+        }
+
+        for (int iteracao = 0; iteracao < MAX_BISSECOES; iteracao++) {
+            double mu = (menor + maior) / 2;
+            double erro = potencia(mu, contexto, queda, vazoes) - meta;
+            if (Math.abs(erro) <= TOLERANCIA_DEMANDA * meta) {
+                break;
+            }
+            if (erro > 0) {
+                menor = mu;
+            } else {
+                maior = mu;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Multiplica as vazões por um fator comum que leva a potência total à
+     * meta, respeitando limites de vazão por turbina.
+     *
+     * <p>
+     * O fator é obtido pelo método de Newton sobre a potência total, com
+     * derivadas analíticas. Preserva as proporções entre as vazões, e serve
+     * para reparar distribuições vindas de outra meta ou de outros limites.
+     * </p>
+     *
+     * @param turbinas Turbinas, na ordem das vazões.
+     * @param vazoes Vazões, alteradas no lugar.
+     * @param min Limite inferior de cada vazão, inclusive.
+     * @param max Limite superior de cada vazão, exclusive: vazões que o
+     * alcançam são levadas ao maior valor abaixo dele.
+     * @param meta Potência total desejada [MW].
+     */
+    public static void escala(List<Turbina> turbinas, double[] vazoes, double[] min, double[] max, double meta) {
+        double[] base = vazoes.clone();
+        double fator = 1;
+
+        for (int iteracao = 0; iteracao < MAX_NEWTON; iteracao++) {
+            double potencia = 0;
+            double derivada = 0;
+            for (int i = 0; i < base.length; i++) {
+                double q = fator * base[i];
+                if (q <= min[i]) {
+                    q = min[i];
+                } else if (q >= max[i]) {
+                    q = Math.nextDown(max[i]);
+                } else {
+                    derivada += turbinas.get(i).getDerivadaPotencia(q) * base[i];
+                }
+                vazoes[i] = q;
+                potencia += turbinas.get(i).getPotencia(q);
+            }
+
+            double erro = potencia - meta;
+            if (Math.abs(erro) <= TOLERANCIA_DEMANDA * meta || !(derivada > 0)) {
+                return;
+            }
+            fator -= erro / derivada;
+        }
+    }
+
+    /**
+     * Atribui a cada turbina disponível a vazão de potência incremental μ e
+     * retorna a potência total.
+     */
+    private double potencia(double mu, ContextoDeAvaliacao contexto, double queda, double[] vazoes) {
+        double total = 0;
+        for (int i = 0; i < vazoes.length; i++) {
+            if (!contexto.isDisponivel(i)) {
+                vazoes[i] = 0;
+                continue;
+            }
+            vazoes[i] = getVazao(i, mu, queda);
+            total += !Double.isNaN(queda)
+                    ? turbinas.get(i).getPotencia(vazoes[i], queda)
+                    : turbinas.get(i).getPotencia(vazoes[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Vazão da turbina em que a potência incremental vale μ, limitada à faixa
+     * de operação.
+     */
+    private double getVazao(int i, double mu, double queda) {
+        double inferior = minimos[i];
+        double superior = maximos[i];
+        if (getDerivadaPotencia(i, inferior, queda) <= mu) {
+            return inferior;
+        }
+        if (getDerivadaPotencia(i, superior, queda) >= mu) {
+            return superior;
+        }
+        for (int iteracao = 0; iteracao < MAX_BISSECOES_VAZAO; iteracao++) {
+            double q = (inferior + superior) / 2;
+            if (getDerivadaPotencia(i, q, queda) > mu) {
+                inferior = q;
+            } else {
+                superior = q;
+            }
+        }
+        return (inferior + superior) / 2;
+    }
+
+    private double getDerivadaPotencia(int i, double vazao, double queda) {
+        return !Double.isNaN(queda)
+                ? turbinas.get(i).getDerivadaPotencia(vazao, queda)
+                : turbinas.get(i).getDerivadaPotencia(vazao);
+    }
+}
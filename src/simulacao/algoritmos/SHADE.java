@@ -0,0 +1,338 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.algoritmos;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import simulacao.Resultado;
+import usina.DistribuicaoVazao;
+import usina.Usina;
+import usina.operadores.Geracao;
+
+/**
+ * DE com parâmetros adaptativos baseado em histórico de sucesso (SHADE).
+ *
+ * <p>
+ * Em vez de um par fixo (F, CR) para toda a execução, cada indivíduo sorteia
+ * seus parâmetros a partir de uma memória circular de <code>H</code> posições:
+ * CR segue uma normal (σ = 0,1) truncada em [0, 1] e F uma Cauchy (γ = 0,1)
+ * truncada em (0, 1]. Ao fim de cada geração, os parâmetros dos vetores de
+ * teste que melhoraram seus alvos atualizam uma posição da memória: média de
+ * Lehmer para F e média aritmética para CR, ambas ponderadas pelo ganho de
+ * aptidão.
+ * </p>
+ *
+ * <p>
+ * A mutação é <i>current-to-pbest/1</i>: <code>v = x_i + F(x_pbest - x_i) +
+ * F(x_r1 - x_r2)</code>, com <code>x_pbest</code> sorteado entre os
+ * <code>p·NP</code> melhores e, opcionalmente, <code>x_r2</code> sorteado da
+ * união da população com um arquivo externo de alvos substituídos. O
+ * cruzamento é binomial e coordenadas fora dos limites são reparadas pelo
+ * ponto médio entre o limite e o valor do alvo.
+ * </p>
+ *
+ * <p>
+ * A população inicial vem de {@link Geracao} e a avaliação de
+ * {@link Usina#avalia(double[])}; a meta da usina deve estar atribuída.
+ * Instâncias não são seguras para uso concorrente.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class SHADE {
+
+    private final Usina usina;
+    private final Geracao gerador;
+    private final int nIndividuos;
+    private final int tamanhoMemoria;
+    private final double fracaoMelhores;
+    private final boolean usaArquivo;
+    private final Random aleatorio;
+
+    private final double[] minimos;
+    private final double[] maximos;
+
+    private double[] convergencia;
+
+    /**
+     * Construtor com valores usuais da literatura: memória de tamanho igual à
+     * população, p = 0,11 e arquivo externo habilitado.
+     *
+     * @param usina Usina a ser despachada.
+     * @param nIndividuos Tamanho da população.
+     */
+    public SHADE(Usina usina, int nIndividuos) {
+        this(usina, nIndividuos, nIndividuos, 0.11, true, new Random());
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param usina Usina a ser despachada.
+     * @param nIndividuos Tamanho da população.
+     * @param tamanhoMemoria Número de posições da memória de sucesso (H).
+     * @param fracaoMelhores Fração p da população elegível como
+     * <code>pbest</code>.
+     * @param usaArquivo Se o arquivo externo deve ser usado na mutação.
+     * @param aleatorio Fonte de números aleatórios.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se a população tiver menos de 4 indivíduos;</li>
+     * <li>Se a memória tiver menos de uma posição;</li>
+     * <li>Se a fração de melhores estiver fora de (0, 1].</li>
+     * </ul>
+     * @throws NullPointerException
+     * <ul>
+     * <li>Se a usina ou a fonte de números aleatórios forem referências
+     * nulas.</li>
+     * </ul>
+     */
+    public SHADE(Usina usina, int nIndividuos, int tamanhoMemoria,
+            double fracaoMelhores, boolean usaArquivo, Random aleatorio) {
+
+        if (usina == null) {
+            throw new NullPointerException("Usina não pode ser uma referência nula.");
+        }
+        if (aleatorio == null) {
+            throw new NullPointerException("Fonte de números aleatórios não pode ser uma referência nula.");
+        }
+        if (nIndividuos < 4) {
+            throw new IllegalArgumentException("População < 4.");
+        }
+        if (tamanhoMemoria < 1) {
+            throw new IllegalArgumentException("Tamanho da memória < 1.");
+        }
+        if (fracaoMelhores <= 0 || fracaoMelhores > 1) {
+            throw new IllegalArgumentException("Fração de melhores fora de (0, 1].");
+        }
+
+        this.usina = usina;
+        this.gerador = new Geracao(usina);
+        this.nIndividuos = nIndividuos;
+        this.tamanhoMemoria = tamanhoMemoria;
+        this.fracaoMelhores = fracaoMelhores;
+        this.usaArquivo = usaArquivo;
+        this.aleatorio = aleatorio;
+
+        this.minimos = usina.getLimitesMinDeVazao();
+        this.maximos = usina.getLimitesMaxDeVazao();
+    }
+
+    /**
+     * Executa o algoritmo por um número fixo de gerações.
+     *
+     * @param maxGeracoes Número de gerações.
+     * @return Resultado com o tempo de execução e o melhor indivíduo.
+     */
+    public Resultado executa(int maxGeracoes) {
+
+        long inicio = System.nanoTime();
+        int dimensao = minimos.length;
+
+        double[][] populacao = new double[nIndividuos][];
+        double[] aptidoes = new double[nIndividuos];
+        List<DistribuicaoVazao> iniciais = gerador.getNAleatorios(nIndividuos);
+        for (int i = 0; i < nIndividuos; i++) {
+            populacao[i] = iniciais.get(i).getVazoes();
+            aptidoes[i] = usina.avalia(populacao[i]);
+        }
+
+        double[][] tentativas = new double[nIndividuos][dimensao];
+        double[][] arquivo = new double[usaArquivo ? nIndividuos : 0][];
+        int nArquivo = 0;
+
+        double[] memoriaF = new double[tamanhoMemoria];
+        double[] memoriaCR = new double[tamanhoMemoria];
+        Arrays.fill(memoriaF, 0.5);
+        Arrays.fill(memoriaCR, 0.5);
+        int posicaoMemoria = 0;
+
+        double[] fs = new double[nIndividuos];
+        double[] crs = new double[nIndividuos];
+        double[] sucessoF = new double[nIndividuos];
+        double[] sucessoCR = new double[nIndividuos];
+        double[] ganhos = new double[nIndividuos];
+        int[] ordem = new int[nIndividuos];
+        for (int i = 0; i < nIndividuos; i++) {
+            ordem[i] = i;
+        }
+        int nMelhores = Math.max(2, (int) Math.round(fracaoMelhores * nIndividuos));
+
+        convergencia = new double[maxGeracoes + 1];
+        convergencia[0] = melhor(aptidoes);
+
+        for (int g = 1; g <= maxGeracoes; g++) {
+
+            ordena(ordem, aptidoes);
+
+            for (int i = 0; i < nIndividuos; i++) {
+                int r = aleatorio.nextInt(tamanhoMemoria);
+                crs[i] = Math.min(1, Math.max(0, memoriaCR[r] + 0.1 * aleatorio.nextGaussian()));
+                double f;
+                do {
+                    f = memoriaF[r] + 0.1 * Math.tan(Math.PI * (aleatorio.nextDouble() - 0.5));
+                } while (f <= 0);
+                fs[i] = Math.min(1, f);
+
+                int pMelhor = ordem[aleatorio.nextInt(nMelhores)];
+                int r1;
+                do {
+                    r1 = aleatorio.nextInt(nIndividuos);
+                } while (r1 == i);
+                int r2;
+                do {
+                    r2 = aleatorio.nextInt(nIndividuos + nArquivo);
+                } while (r2 == i || r2 == r1);
+
+                double[] x = populacao[i];
+                double[] xMelhor = populacao[pMelhor];
+                double[] x1 = populacao[r1];
+                double[] x2 = r2 < nIndividuos ? populacao[r2] : arquivo[r2 - nIndividuos];
+                double[] u = tentativas[i];
+
+                int jAleatorio = aleatorio.nextInt(dimensao);
+                for (int j = 0; j < dimensao; j++) {
+                    if (j == jAleatorio || aleatorio.nextDouble() < crs[i]) {
+                        double v = x[j] + fs[i] * (xMelhor[j] - x[j]) + fs[i] * (x1[j] - x2[j]);
+                        if (v < minimos[j]) {
+                            v = (minimos[j] + x[j]) / 2;
+                        } else if (v > maximos[j]) {
+                            v = (maximos[j] + x[j]) / 2;
+                        }
+                        u[j] = v;
+                    } else {
+                        u[j] = x[j];
+                    }
+                }
+            }
+
+            int nSucessos = 0;
+            for (int i = 0; i < nIndividuos; i++) {
+                double aptidao = usina.avalia(tentativas[i]);
+                if (aptidao < aptidoes[i]) {
+                    continue;
+                }
+
+                double[] substituido = populacao[i];
+                populacao[i] = tentativas[i];
+
+                if (aptidao > aptidoes[i]) {
+                    sucessoF[nSucessos] = fs[i];
+                    sucessoCR[nSucessos] = crs[i];
+                    ganhos[nSucessos] = aptidao - aptidoes[i];
+                    nSucessos++;
+
+                    if (usaArquivo) {
+                        if (nArquivo < arquivo.length) {
+                            arquivo[nArquivo++] = substituido;
+                            substituido = new double[dimensao];
+                        } else {
+                            int k = aleatorio.nextInt(nArquivo);
+                            double[] descartado = arquivo[k];
+                            arquivo[k] = substituido;
+                            substituido = descartado;
+                        }
+                    }
+                }
+
+                tentativas[i] = substituido;
+                aptidoes[i] = aptidao;
+            }
+
+            if (nSucessos > 0) {
+                double somaGanhos = 0;
+                for (int s = 0; s < nSucessos; s++) {
+                    somaGanhos += ganhos[s];
+                }
+                double somaF = 0;
+                double somaF2 = 0;
+                double somaCR = 0;
+                for (int s = 0; s < nSucessos; s++) {
+                    double w = ganhos[s] / somaGanhos;
+                    somaF += w * sucessoF[s];
+                    somaF2 += w * sucessoF[s] * sucessoF[s];
+                    somaCR += w * sucessoCR[s];
+                }
+                memoriaF[posicaoMemoria] = somaF2 / somaF;
+                memoriaCR[posicaoMemoria] = somaCR;
+                posicaoMemoria = (posicaoMemoria + 1) % tamanhoMemoria;
+            }
+
+            convergencia[g] = melhor(aptidoes);
+        }
+
+        int iMelhor = 0;
+        for (int i = 1; i < nIndividuos; i++) {
+            if (aptidoes[i] > aptidoes[iMelhor]) {
+                iMelhor = i;
+            }
+        }
+
+        double tempo = (System.nanoTime() - inicio) / 1e9;
+        return new Resultado(tempo, gerador.get(populacao[iMelhor]), aptidoes[iMelhor],
+                maxGeracoes, (long) nIndividuos * (maxGeracoes + 1));
+    }
+
+    /**
+     * Retorna a curva de convergência da última execução.
+     *
+     * <p>
+     * A posição <code>g</code> contém o melhor grau de adaptação ao fim da
+     * geração <code>g</code> (a posição 0 corresponde à população inicial).
+     * </p>
+     *
+     * @return Melhor aptidão por geração, ou <code>null</code> se não houve
+     * execução.
+     */
+    public double[] getConvergencia() {
+        return convergencia == null ? null : convergencia.clone();
+    }
+
+    private static double melhor(double[] aptidoes) {
+        double melhor = Double.NEGATIVE_INFINITY;
+        for (double aptidao : aptidoes) {
+            melhor = Math.max(melhor, aptidao);
+        }
+        return melhor;
+    }
+
+    /**
+     * Ordena os índices por aptidão decrescente (inserção: a ordem da geração
+     * anterior é quase ordenada).
+     */
+    private static void ordena(int[] ordem, double[] aptidoes) {
+        for (int i = 1; i < ordem.length; i++) {
+            int indice = ordem[i];
+            int j = i - 1;
+            while (j >= 0 && aptidoes[ordem[j]] < aptidoes[indice]) {
+                ordem[j + 1] = ordem[j];
+                j--;
+            }
+            ordem[j + 1] = indice;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.criterios;
+
+/**
+ * Composição lógica de dois critérios de parada.
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see CriterioDeParada#ou(CriterioDeParada)
+ * @see CriterioDeParada#e(CriterioDeParada)
+ */
+final class Composicao implements CriterioDeParada {
+
+    private final CriterioDeParada primeiro;
+    private final CriterioDeParada segundo;
+    private final boolean conjuncao;
+
+    Composicao(CriterioDeParada primeiro, CriterioDeParada segundo, boolean conjuncao) {
+        if (primeiro == null || segundo == null) {
+            throw new NullPointerException("Critério não pode ser uma referência nula.");
+        }
+        this.primeiro = primeiro;
+        this.segundo = segundo;
+        this.conjuncao = conjuncao;
+    }
+
+    @Override
+    public void inicia() {
+        primeiro.inicia();
+        segundo.inicia();
+    }
+
+    @Override
+    public boolean atingido(int geracao, long avaliacoes, double melhor, double pior) {
+        boolean a = primeiro.atingido(geracao, avaliacoes, melhor, pior);
+        boolean b = segundo.atingido(geracao, avaliacoes, melhor, pior);
+        return conjuncao ? a && b : a || b;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.criterios;
+
+/**
+ * Critério de parada para laços evolutivos.
+ *
+ * <p>
+ * Consultado ao fim de cada geração com um resumo do estado da população.
+ * Critérios podem manter estado entre gerações (como o histórico do melhor
+ * indivíduo), por isso cada execução deve começar com {@link #inicia()}.
+ * </p>
+ *
+ * <p>
+ * Critérios são compostos por {@link #ou(CriterioDeParada)} e
+ * {@link #e(CriterioDeParada)}. As composições consultam sempre todos os
+ * critérios, de modo que critérios com estado observam todas as gerações.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public interface CriterioDeParada {
+
+    /**
+     * Prepara o critério para uma nova execução.
+     */
+    void inicia();
+
+    /**
+     * Verifica se a execução deve ser encerrada.
+     *
+     * @param geracao Número de gerações concluídas.
+     * @param avaliacoes Número de avaliações realizadas.
+     * @param melhor Grau de adaptação do melhor indivíduo da população.
+     * @param pior Grau de adaptação do pior indivíduo da população.
+     * @return <code>true</code> se a execução deve ser encerrada.
+     */
+    boolean atingido(int geracao, long avaliacoes, double melhor, double pior);
+
+    /**
+     * Compõe critérios por disjunção: encerra quando qualquer um for
+     * atingido.
+     *
+     * @param outro Critério a compor.
+     * @return Critério composto.
+     */
+    default CriterioDeParada ou(CriterioDeParada outro) {
+        return new Composicao(this, outro, false);
+    }
+
+    /**
+     * Compõe critérios por conjunção: encerra quando ambos forem atingidos na
+     * mesma geração.
+     *
+     * @param outro Critério a compor.
+     * @return Critério composto.
+     */
+    default CriterioDeParada e(CriterioDeParada outro) {
+        return new Composicao(this, outro, true);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.criterios;
+
+/**
+ * Colapso da população.
+ *
+ * <p>
+ * Atingido quando a diferença entre o melhor e o pior grau de adaptação da
+ * população fica abaixo de um limiar.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class Dispersao implements CriterioDeParada {
+
+    private final double epsilon;
+
+    /**
+     * Construtor.
+     *
+     * @param epsilon Maior dispersão que encerra a execução.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o limiar for negativo.</li>
+     * </ul>
+     */
+    public Dispersao(double epsilon) {
+        if (epsilon < 0) {
+            throw new IllegalArgumentException("Epsilon < 0.");
+        }
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public void inicia() {
+    }
+
+    @Override
+    public boolean atingido(int geracao, long avaliacoes, double melhor, double pior) {
+        return melhor - pior < epsilon;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.criterios;
+
+/**
+ * Estagnação do melhor indivíduo.
+ *
+ * <p>
+ * Atingido quando o melhor grau de adaptação não melhora mais que uma
+ * tolerância por um número de gerações consecutivas.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class Estagnacao implements CriterioDeParada {
+
+    private final int geracoes;
+    private final double tolerancia;
+
+    private double referencia;
+    private int semMelhora;
+
+    /**
+     * Construtor.
+     *
+     * @param geracoes Número de gerações sem melhora para encerrar.
+     * @param tolerancia Menor ganho considerado melhora.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o número de gerações for menor que um;</li>
+     * <li>Se a tolerância for negativa.</li>
+     * </ul>
+     */
+    public Estagnacao(int geracoes, double tolerancia) {
+        if (geracoes < 1) {
+            throw new IllegalArgumentException("Número de gerações < 1.");
+        }
+        if (tolerancia < 0) {
+            throw new IllegalArgumentException("Tolerância < 0.");
+        }
+        this.geracoes = geracoes;
+        this.tolerancia = tolerancia;
+        inicia();
+    }
+
+    @Override
+    public void inicia() {
+        referencia = Double.NEGATIVE_INFINITY;
+        semMelhora = 0;
+    }
+
+    @Override
+    public boolean atingido(int geracao, long avaliacoes, double melhor, double pior) {
+        if (melhor > referencia + tolerancia) {
+            referencia = melhor;
+            semMelhora = 0;
+            return false;
+        }
+        return ++semMelhora >= geracoes;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.resultados;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import simulacao.Resultado;
+
+/**
+ * Destino de resultados de experimentos, gravados à medida que são
+ * produzidos.
+ *
+ * <p>
+ * Permite estudos com grande número de experimentos sem acumular resultados
+ * em memória. Os experimentos são numerados, a partir de 0, na ordem de
+ * registro.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see GravadorDeResultados
+ * @see GravadorAssincrono
+ * @see ResumoDeResultados
+ */
+public interface DestinoDeResultados extends Closeable, Flushable {
+
+    /**
+     * Registra o resultado de um experimento.
+     *
+     * <p>
+     * Os dados são extraídos durante a chamada: o resultado pode ser
+     * descartado ou alterado em seguida.
+     * </p>
+     *
+     * @param resultado Resultado do experimento.
+     * @throws IOException Se o resultado não puder ser gravado.
+     */
+    void registra(Resultado resultado) throws IOException;
+
+    /**
+     * @return Número de resultados registrados.
+     */
+    long getRegistrados();
+}
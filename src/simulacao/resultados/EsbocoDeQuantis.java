@@ -0,0 +1,187 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.resultados;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Esboço de quantis de tamanho limitado, no modelo KLL.
+ *
+ * <p>
+ * Os valores são guardados em níveis: cada elemento do nível
+ * <code>h</code> representa <code>2^h</code> valores observados. Quando os
+ * níveis excedem a capacidade total, o nível mais baixo cheio é ordenado e
+ * metade de seus elementos, alternados a partir de uma posição aleatória,
+ * sobe ao nível seguinte. As capacidades decrescem geometricamente, na razão
+ * 2/3, do nível mais alto para o mais baixo, de modo que a memória é
+ * limitada a cerca de <code>3k</code> valores e o erro de posição dos
+ * quantis é da ordem de <code>1/k</code>. Até <code>k</code> valores, os
+ * quantis são exatos.
+ * </p>
+ *
+ * <p>
+ * Esboços são combinados nível a nível, sem perda adicional de precisão.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+final class EsbocoDeQuantis {
+
+    private static final double RAZAO = 2.0 / 3.0;
+
+    private final int k;
+    private double[][] niveis;
+    private int[] tamanhos;
+    private long n;
+
+    /**
+     * @param k Capacidade do nível mais alto, que determina a precisão.
+     */
+    EsbocoDeQuantis(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("Capacidade do esboço deve ser ao menos 8.");
+        }
+        this.k = k;
+        this.niveis = new double[][]{new double[k]};
+        this.tamanhos = new int[1];
+    }
+
+    void adiciona(double valor) {
+        acrescenta(0, valor);
+        n++;
+        comprime();
+    }
+
+    void combina(EsbocoDeQuantis outro) {
+        while (niveis.length < outro.niveis.length) {
+            novoNivel();
+        }
+        for (int h = 0; h < outro.niveis.length; h++) {
+            for (int i = 0; i < outro.tamanhos[h]; i++) {
+                acrescenta(h, outro.niveis[h][i]);
+            }
+        }
+        n += outro.n;
+        comprime();
+    }
+
+    long getN() {
+        return n;
+    }
+
+    /**
+     * Retorna o menor valor guardado cuja posição acumulada alcança
+     * <code>q * n</code>.
+     *
+     * @param q Ordem do quantil, em [0, 1].
+     * @return Quantil aproximado, ou <code>NaN</code> se não houver valores.
+     */
+    double quantil(double q) {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        double[][] ordenados = new double[niveis.length][];
+        for (int h = 0; h < niveis.length; h++) {
+            ordenados[h] = Arrays.copyOf(niveis[h], tamanhos[h]);
+            Arrays.sort(ordenados[h]);
+        }
+        int[] posicoes = new int[niveis.length];
+        double alvo = Math.max(1, Math.ceil(q * n));
+        long acumulado = 0;
+        double valor = Double.NaN;
+        while (acumulado < alvo) {
+            int escolhido = -1;
+            for (int h = 0; h < ordenados.length; h++) {
+                if (posicoes[h] < ordenados[h].length
+                        && (escolhido < 0 || ordenados[h][posicoes[h]] < ordenados[escolhido][posicoes[escolhido]])) {
+                    escolhido = h;
+                }
+            }
+            if (escolhido < 0) {
+                break;
+            }
+            valor = ordenados[escolhido][posicoes[escolhido]++];
+            acumulado += 1L << escolhido;
+        }
+        return valor;
+    }
+
+    private int capacidade(int nivel) {
+        int profundidade = niveis.length - 1 - nivel;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(RAZAO, profundidade)));
+    }
+
+    private void comprime() {
+        while (excedeCapacidade()) {
+            for (int h = 0; h < niveis.length; h++) {
+                if (tamanhos[h] >= capacidade(h)) {
+                    compacta(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean excedeCapacidade() {
+        int total = 0;
+        int capacidade = 0;
+        for (int h = 0; h < niveis.length; h++) {
+            total += tamanhos[h];
+            capacidade += capacidade(h);
+        }
+        return total > capacidade;
+    }
+
+    private void compacta(int h) {
+        if (h + 1 == niveis.length) {
+            novoNivel();
+        }
+        double[] itens = niveis[h];
+        int m = tamanhos[h];
+        Arrays.sort(itens, 0, m);
+        int pares = m & ~1;
+        for (int i = ThreadLocalRandom.current().nextInt(2); i < pares; i += 2) {
+            acrescenta(h + 1, itens[i]);
+        }
+        if (pares < m) {
+            itens[0] = itens[m - 1];
+        }
+        tamanhos[h] = m - pares;
+    }
+
+    private void novoNivel() {
+        niveis = Arrays.copyOf(niveis, niveis.length + 1);
+        tamanhos = Arrays.copyOf(tamanhos, tamanhos.length + 1);
+        niveis[niveis.length - 1] = new double[k];
+    }
+
+    private void acrescenta(int h, double valor) {
+        if (tamanhos[h] == niveis[h].length) {
+            niveis[h] = Arrays.copyOf(niveis[h], 2 * niveis[h].length);
+        }
+        niveis[h][tamanhos[h]++] = valor;
+    }
+}
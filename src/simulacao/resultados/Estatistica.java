@@ -0,0 +1,199 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.resultados;
+
+/**
+ * Estatísticas de uma variável, calculadas em uma única passagem e com
+ * memória constante.
+ *
+ * <p>
+ * Média e variância são acumuladas pelo método de Welford, estável para
+ * grandes números de observações; mínimo e máximo são exatos; quantis são
+ * aproximados por um esboço de tamanho limitado, exato até
+ * {@link #PRECISAO_PADRAO} observações, na precisão padrão.
+ * </p>
+ *
+ * <p>
+ * Instâncias não são seguras para uso concorrente: em execuções paralelas,
+ * cada linha de execução acumula a sua, e as parciais são reunidas ao final
+ * por {@link #combina(Estatistica)}.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class Estatistica {
+
+    /**
+     * Capacidade padrão do esboço de quantis.
+     */
+    public static final int PRECISAO_PADRAO = 200;
+
+    private final EsbocoDeQuantis quantis;
+
+    private long n;
+    private double media;
+    private double m2;
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double maximo = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Construtor com esboço de precisão {@link #PRECISAO_PADRAO}.
+     */
+    public Estatistica() {
+        this(PRECISAO_PADRAO);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param precisao Capacidade do esboço de quantis; o erro de posição é da
+     * ordem de <code>1/precisao</code>.
+     */
+    public Estatistica(int precisao) {
+        this.quantis = new EsbocoDeQuantis(precisao);
+    }
+
+    /**
+     * Acrescenta uma observação.
+     *
+     * @param valor Valor observado.
+     * @throws IllegalArgumentException Se o valor for <code>NaN</code>.
+     */
+    public void adiciona(double valor) {
+        if (Double.isNaN(valor)) {
+            throw new IllegalArgumentException("Observação indefinida (NaN).");
+        }
+        n++;
+        double desvio = valor - media;
+        media += desvio / n;
+        m2 += desvio * (valor - media);
+        minimo = Math.min(minimo, valor);
+        maximo = Math.max(maximo, valor);
+        quantis.adiciona(valor);
+    }
+
+    /**
+     * Reúne as observações de outra estatística a esta.
+     *
+     * @param outra Estatística parcial; não é alterada.
+     * @return Esta estatística.
+     */
+    public Estatistica combina(Estatistica outra) {
+        if (outra.n == 0) {
+            return this;
+        }
+        long total = n + outra.n;
+        double desvio = outra.media - media;
+        media += desvio * outra.n / total;
+        m2 += outra.m2 + desvio * desvio * ((double) n * outra.n / total);
+        n = total;
+        minimo = Math.min(minimo, outra.minimo);
+        maximo = Math.max(maximo, outra.maximo);
+        quantis.combina(outra.quantis);
+        return this;
+    }
+
+    /**
+     * @return Número de observações.
+     */
+    public long getN() {
+        return n;
+    }
+
+    /**
+     * @return Média, ou <code>NaN</code> sem observações.
+     */
+    public double getMedia() {
+        return n == 0 ? Double.NaN : media;
+    }
+
+    /**
+     * @return Variância amostral, ou <code>NaN</code> com menos de duas
+     * observações.
+     */
+    public double getVariancia() {
+        return n < 2 ? Double.NaN : m2 / (n - 1);
+    }
+
+    /**
+     * @return Desvio padrão amostral, ou <code>NaN</code> com menos de duas
+     * observações.
+     */
+    public double getDesvioPadrao() {
+        return Math.sqrt(getVariancia());
+    }
+
+    /**
+     * @return Menor observação, ou <code>NaN</code> sem observações.
+     */
+    public double getMinimo() {
+        return n == 0 ? Double.NaN : minimo;
+    }
+
+    /**
+     * @return Maior observação, ou <code>NaN</code> sem observações.
+     */
+    public double getMaximo() {
+        return n == 0 ? Double.NaN : maximo;
+    }
+
+    /**
+     * Retorna um quantil aproximado: o menor valor cuja posição acumulada
+     * alcança <code>q * n</code>.
+     *
+     * @param q Ordem do quantil, em [0, 1]; 0 e 1 retornam mínimo e máximo
+     * exatos.
+     * @return Quantil, ou <code>NaN</code> sem observações.
+     */
+    public double getQuantil(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Ordem do quantil fora de [0, 1]: " + q + ".");
+        }
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return minimo;
+        }
+        if (q == 1) {
+            return maximo;
+        }
+        return quantis.quantil(q);
+    }
+
+    /**
+     * @return Mediana aproximada.
+     */
+    public double getMediana() {
+        return getQuantil(0.5);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("média %.6g\tdesvio %.3g\tmín %.6g\tp50 %.6g\tp95 %.6g\tp99 %.6g\tmáx %.6g",
+                getMedia(), getDesvioPadrao(), getMinimo(), getQuantil(0.5), getQuantil(0.95), getQuantil(0.99),
+                getMaximo());
+    }
+}
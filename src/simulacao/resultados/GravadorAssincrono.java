@@ -0,0 +1,264 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.resultados;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import simulacao.Resultado;
+
+/**
+ * Gravação de resultados em segundo plano, em lotes.
+ *
+ * <p>
+ * Os dados de cada resultado são extraídos na chamada de
+ * {@link #registra(Resultado)}, na linha de execução do experimento, por
+ * {@link RegistroDeResultado#de(long, Resultado)}: a distribuição pertence
+ * ao otimizador e não pode ser lida depois. A extração custa uma cópia das
+ * vazões e uma avaliação de potência por turbina. Os registros são
+ * acumulados em um lote; lotes completos são entregues a uma linha de
+ * execução gravadora, que os codifica e descarrega o arquivo uma vez por
+ * lote. O experimento só espera pela gravação quando a gravadora está um
+ * lote inteiro atrasada, de modo que no máximo três lotes existem ao mesmo
+ * tempo: o em preenchimento, o pronto e o em gravação.
+ * </p>
+ *
+ * <p>
+ * Erros de gravação são relançados no registro seguinte, ou em
+ * {@link #flush()} e {@link #close()}; os registros posteriores ao erro são
+ * descartados. O registro pode ser feito por várias linhas de execução, mas
+ * {@link #close()} deve ser chamado para que o último lote seja gravado.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class GravadorAssincrono implements DestinoDeResultados {
+
+    /**
+     * Número padrão de resultados por lote.
+     */
+    public static final int LOTE_PADRAO = 1024;
+
+    private static final RegistroDeResultado[] FIM = new RegistroDeResultado[0];
+
+    private final GravadorDeResultados gravador;
+    private final BlockingQueue<RegistroDeResultado[]> prontos = new ArrayBlockingQueue<>(1);
+    private final Thread gravadora;
+    private final Object monitor = new Object();
+
+    private RegistroDeResultado[] lote;
+    private int n;
+    private long registrados;
+    private long enviados;
+    private boolean fechado;
+
+    private long gravados;
+    private volatile Exception erro;
+
+    /**
+     * Construtor com lotes de {@link #LOTE_PADRAO} resultados.
+     *
+     * @param gravador Gravador do formato; é fechado com este.
+     */
+    public GravadorAssincrono(GravadorDeResultados gravador) {
+        this(gravador, LOTE_PADRAO);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param gravador Gravador do formato; é fechado com este.
+     * @param tamanhoLote Número de resultados por lote.
+     */
+    public GravadorAssincrono(GravadorDeResultados gravador, int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("Tamanho de lote deve ser positivo.");
+        }
+        this.gravador = gravador;
+        this.lote = new RegistroDeResultado[tamanhoLote];
+        this.gravadora = new Thread(this::grava, "gravacao-resultados");
+        this.gravadora.setDaemon(true);
+        this.gravadora.start();
+    }
+
+    private void grava() {
+        try {
+            RegistroDeResultado[] registros;
+            while ((registros = prontos.take()) != FIM) {
+                if (erro == null) {
+                    try {
+                        for (RegistroDeResultado registro : registros) {
+                            gravador.escreve(registro);
+                        }
+                        gravador.flush();
+                    } catch (IOException | RuntimeException ex) {
+                        erro = ex;
+                    }
+                }
+                synchronized (monitor) {
+                    gravados += registros.length;
+                    monitor.notifyAll();
+                }
+            }
+        } catch (InterruptedException ex) {
+            // Encerrada sem fechamento; nada mais a gravar.
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Bloqueia apenas se a gravadora estiver um lote inteiro atrasada.
+     */
+    @Override
+    public synchronized void registra(Resultado resultado) throws IOException {
+        verificaErro();
+        if (fechado) {
+            throw new IOException("Gravação de resultados já encerrada.");
+        }
+        lote[n++] = RegistroDeResultado.de(registrados++, resultado);
+        if (n == lote.length) {
+            RegistroDeResultado[] completo = lote;
+            lote = new RegistroDeResultado[completo.length];
+            n = 0;
+            envia(completo);
+        }
+    }
+
+    @Override
+    public synchronized long getRegistrados() {
+        return registrados;
+    }
+
+    /**
+     * Envia o lote incompleto e espera que todos os resultados registrados
+     * sejam gravados no arquivo.
+     *
+     * @throws IOException Se houver erro de gravação.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        verificaErro();
+        if (fechado) {
+            return;
+        }
+        enviaParcial();
+        synchronized (monitor) {
+            while (gravados < enviados) {
+                try {
+                    monitor.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Gravação de resultados interrompida.");
+                }
+            }
+        }
+        verificaErro();
+    }
+
+    /**
+     * Grava os resultados pendentes, encerra a gravadora e fecha o arquivo.
+     *
+     * <p>
+     * Se a espera for interrompida, a gravadora também é interrompida, e o
+     * arquivo só é fechado depois que ela terminar o lote em curso; os lotes
+     * ainda não gravados são descartados.
+     * </p>
+     *
+     * @throws IOException Se houver erro de gravação ou ao fechar o arquivo.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        try {
+            if (erro == null) {
+                enviaParcial();
+            }
+            prontos.put(FIM);
+            gravadora.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Gravação de resultados interrompida.");
+        } finally {
+            encerraGravadora();
+            gravador.close();
+        }
+        verificaErro();
+    }
+
+    /**
+     * Interrompe a gravadora, se ainda ativa, e espera o seu término sem
+     * ceder a interrupções, preservando o estado de interrupção da linha de
+     * execução corrente.
+     */
+    private void encerraGravadora() {
+        if (!gravadora.isAlive()) {
+            return;
+        }
+        gravadora.interrupt();
+        boolean interrompida = false;
+        while (true) {
+            try {
+                gravadora.join();
+                break;
+            } catch (InterruptedException ex) {
+                interrompida = true;
+            }
+        }
+        if (interrompida) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enviaParcial() throws IOException {
+        if (n > 0) {
+            envia(Arrays.copyOf(lote, n));
+            Arrays.fill(lote, 0, n, null);
+            n = 0;
+        }
+    }
+
+    private void envia(RegistroDeResultado[] registros) throws IOException {
+        try {
+            prontos.put(registros);
+            enviados += registros.length;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Gravação de resultados interrompida.");
+        }
+    }
+
+    private void verificaErro() throws IOException {
+        Exception ocorrido = erro;
+        if (ocorrido != null) {
+            throw new IOException("Erro na gravação dos resultados em " + gravador.getArquivo() + ".", ocorrido);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.resultados;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Gravação de resultados em arquivo binário compacto.
+ *
+ * <p>
+ * O arquivo traz um identificador, a versão do formato e o número de vazões,
+ * seguidos de um registro de tamanho fixo por experimento, sem contagem
+ * prévia:
+ * </p>
+ * <pre>
+ * experimento (long), tempo, aptidao, potencia, vazao (double),
+ * geracoes (int), avaliacoes (long), vazoes (nVazoes double)
+ * </pre>
+ *
+ * <p>
+ * Cada registro ocupa <code>52 + 8 * nVazoes</code> bytes, cerca de metade
+ * da linha CSV equivalente, e os valores são gravados sem conversão.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see LeitorDeResultados
+ */
+public final class GravadorBinario extends GravadorDeResultados {
+
+    static final int IDENTIFICADOR = 0x52534C54;
+    static final int VERSAO = 1;
+
+    private final DataOutputStream dados;
+
+    /**
+     * Construtor: cria, ou substitui, o arquivo e grava o cabeçalho.
+     *
+     * @param arquivo Arquivo de destino.
+     * @param nVazoes Número de vazões por distribuição.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public GravadorBinario(Path arquivo, int nVazoes) throws IOException {
+        super(arquivo, nVazoes);
+        this.dados = new DataOutputStream(saida);
+        try {
+            dados.writeInt(IDENTIFICADOR);
+            dados.writeInt(VERSAO);
+            dados.writeInt(nVazoes);
+        } catch (IOException ex) {
+            saida.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    protected void codifica(RegistroDeResultado registro) throws IOException {
+        dados.writeLong(registro.getExperimento());
+        dados.writeDouble(registro.getTempoExecucao());
+        dados.writeDouble(registro.getAptidao());
+        dados.writeDouble(registro.getPotencia());
+        dados.writeDouble(registro.getVazao());
+        dados.writeInt(registro.getGeracoes());
+        dados.writeLong(registro.getAvaliacoes());
+        for (int i = 0; i < nVazoes; i++) {
+            dados.writeDouble(registro.getVazao(i));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.resultados;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Gravação de resultados em CSV.
+ *
+ * <p>
+ * Uma linha de cabeçalho e uma linha por experimento, separadas por
+ * <code>;</code> e com formatação de dados inglesa, como os demais arquivos
+ * do projeto:
+ * </p>
+ * <pre>
+ * experimento;tempo;aptidao;potencia;vazao;geracoes;avaliacoes;vazao1;...;vazaoN
+ * </pre>
+ *
+ * <p>
+ * Os números são gravados com {@link Double#toString(double)}, que preserva
+ * o valor exato. A linha é montada em um buffer reutilizado, sem conversão
+ * de caracteres: todo o conteúdo é ASCII.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class GravadorCSV extends GravadorDeResultados {
+
+    private static final char SEPARADOR = ';';
+
+    private final StringBuilder linha = new StringBuilder(256);
+    private byte[] bytes = new byte[256];
+
+    /**
+     * Construtor: cria, ou substitui, o arquivo e grava o cabeçalho.
+     *
+     * @param arquivo Arquivo de destino.
+     * @param nVazoes Número de vazões por distribuição.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public GravadorCSV(Path arquivo, int nVazoes) throws IOException {
+        super(arquivo, nVazoes);
+        linha.append("experimento;tempo;aptidao;potencia;vazao;geracoes;avaliacoes");
+        for (int i = 1; i <= nVazoes; i++) {
+            linha.append(SEPARADOR).append("vazao").append(i);
+        }
+        try {
+            escreveLinha();
+        } catch (IOException ex) {
+            saida.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    protected void codifica(RegistroDeResultado registro) throws IOException {
+        linha.append(registro.getExperimento())
+                .append(SEPARADOR).append(registro.getTempoExecucao())
+                .append(SEPARADOR).append(registro.getAptidao())
+                .append(SEPARADOR).append(registro.getPotencia())
+                .append(SEPARADOR).append(registro.getVazao())
+                .append(SEPARADOR).append(registro.getGeracoes())
+                .append(SEPARADOR).append(registro.getAvaliacoes());
+        for (int i = 0; i < nVazoes; i++) {
+            linha.append(SEPARADOR).append(registro.getVazao(i));
+        }
+        escreveLinha();
+    }
+
+    private void escreveLinha() throws IOException {
+        linha.append('\n');
+        int n = linha.length();
+        if (bytes.length < n) {
+            bytes = new byte[2 * n];
+        }
+        for (int i = 0; i < n; i++) {
+            bytes[i] = (byte) linha.charAt(i);
+        }
+        saida.write(bytes, 0, n);
+        linha.setLength(0);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.resultados;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import simulacao.Resultado;
+
+/**
+ * Gravação síncrona de resultados em arquivo.
+ *
+ * <p>
+ * Subclasses definem o formato: o cabeçalho é gravado na criação e cada
+ * registro por {@link #escreve(RegistroDeResultado)}. A saída é
+ * bufferizada; os dados só chegam ao arquivo em {@link #flush()} ou
+ * {@link #close()}. Todos os registros devem ter o número de vazões
+ * informado na criação.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see GravadorAssincrono
+ */
+public abstract class GravadorDeResultados implements DestinoDeResultados {
+
+    /**
+     * Tamanho do buffer de saída [bytes].
+     */
+    protected static final int TAMANHO_BUFFER = 1 << 16;
+
+    protected final Path arquivo;
+    protected final OutputStream saida;
+    protected final int nVazoes;
+
+    private long registrados;
+
+    /**
+     * Construtor: cria, ou substitui, o arquivo.
+     *
+     * @param arquivo Arquivo de destino.
+     * @param nVazoes Número de vazões por distribuição.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    protected GravadorDeResultados(Path arquivo, int nVazoes) throws IOException {
+        if (nVazoes < 0) {
+            throw new IllegalArgumentException("Número de vazões negativo.");
+        }
+        this.arquivo = arquivo;
+        this.nVazoes = nVazoes;
+        this.saida = new BufferedOutputStream(Files.newOutputStream(arquivo), TAMANHO_BUFFER);
+    }
+
+    /**
+     * Cria um gravador pela extensão do arquivo: binário se terminado em
+     * <code>.bin</code>, CSV caso contrário.
+     *
+     * @param arquivo Arquivo de destino.
+     * @param nVazoes Número de vazões por distribuição.
+     * @return Gravador do formato.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public static GravadorDeResultados para(Path arquivo, int nVazoes) throws IOException {
+        return arquivo.toString().endsWith(".bin")
+                ? new GravadorBinario(arquivo, nVazoes)
+                : new GravadorCSV(arquivo, nVazoes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void registra(Resultado resultado) throws IOException {
+        escreve(RegistroDeResultado.de(registrados, resultado));
+    }
+
+    /**
+     * Grava um registro.
+     *
+     * @param registro Registro a gravar.
+     * @throws IOException Se houver erro de escrita.
+     */
+    public final void escreve(RegistroDeResultado registro) throws IOException {
+        if (registro.getNVazoes() != nVazoes) {
+            throw new IllegalArgumentException("Registro com " + registro.getNVazoes()
+                    + " vazões; esperadas " + nVazoes + ".");
+        }
+        codifica(registro);
+        registrados++;
+    }
+
+    /**
+     * Codifica um registro na saída.
+     *
+     * @param registro Registro, com o número de vazões esperado.
+     * @throws IOException Se houver erro de escrita.
+     */
+    protected abstract void codifica(RegistroDeResultado registro) throws IOException;
+
+    @Override
+    public final long getRegistrados() {
+        return registrados;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        saida.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        saida.close();
+    }
+
+    /**
+     * @return Arquivo de destino.
+     */
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * @return Número de vazões por distribuição.
+     */
+    public int getNVazoes() {
+        return nVazoes;
+    }
+}
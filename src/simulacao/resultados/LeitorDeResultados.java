@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.resultados;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Leitura, em ordem, de resultados gravados por {@link GravadorBinario}.
+ *
+ * <p>
+ * Lê um registro por vez, de modo que arquivos de qualquer tamanho podem ser
+ * percorridos com memória constante.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class LeitorDeResultados implements Closeable {
+
+    private final Path arquivo;
+    private final DataInputStream entrada;
+    private final int nVazoes;
+
+    /**
+     * Construtor: abre o arquivo e lê o cabeçalho.
+     *
+     * @param arquivo Arquivo binário de resultados.
+     * @throws IOException Se o arquivo não puder ser aberto ou não for um
+     * arquivo de resultados.
+     */
+    public LeitorDeResultados(Path arquivo) throws IOException {
+        this.arquivo = arquivo;
+        this.entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo),
+                GravadorDeResultados.TAMANHO_BUFFER));
+        try {
+            if (entrada.readInt() != GravadorBinario.IDENTIFICADOR || entrada.readInt() != GravadorBinario.VERSAO) {
+                throw new IOException("Erro na leitura dos resultados " + arquivo + ": formato ou versão desconhecidos.");
+            }
+            nVazoes = entrada.readInt();
+            if (nVazoes < 0) {
+                throw new IOException("Erro na leitura dos resultados " + arquivo + ": cabeçalho inválido.");
+            }
+        } catch (IOException ex) {
+            entrada.close();
+            if (ex instanceof EOFException) {
+                throw new IOException("Erro na leitura dos resultados " + arquivo + ": arquivo truncado.", ex);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Lê o próximo registro.
+     *
+     * @return Registro, ou <code>null</code> ao final do arquivo.
+     * @throws IOException Se houver erro de leitura ou o último registro
+     * estiver incompleto.
+     */
+    public RegistroDeResultado proximo() throws IOException {
+        entrada.mark(8);
+        if (entrada.read() < 0) {
+            return null;
+        }
+        entrada.reset();
+        try {
+            long experimento = entrada.readLong();
+            double tempo = entrada.readDouble();
+            double aptidao = entrada.readDouble();
+            double potencia = entrada.readDouble();
+            double vazao = entrada.readDouble();
+            int geracoes = entrada.readInt();
+            long avaliacoes = entrada.readLong();
+            double[] vazoes = new double[nVazoes];
+            for (int i = 0; i < nVazoes; i++) {
+                vazoes[i] = entrada.readDouble();
+            }
+            return new RegistroDeResultado(experimento, tempo, aptidao, potencia, vazao, geracoes, avaliacoes, vazoes);
+        } catch (EOFException ex) {
+            throw new IOException("Erro na leitura dos resultados " + arquivo + ": arquivo truncado.", ex);
+        }
+    }
+
+    /**
+     * @return Número de vazões por distribuição.
+     */
+    public int getNVazoes() {
+        return nVazoes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.resultados;
+
+import java.util.Arrays;
+import simulacao.Resultado;
+import usina.DistribuicaoVazao;
+
+/**
+ * Cópia dos dados de um {@link Resultado}, pronta para gravação.
+ *
+ * <p>
+ * Guarda apenas valores primitivos, extraídos no momento do registro, de
+ * modo que pode ser gravada em outra linha de execução sem acessar a
+ * distribuição original, que pode continuar sendo alterada pelo otimizador.
+ * Gerações e avaliações não registradas pelo otimizador são representadas
+ * por -1.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class RegistroDeResultado {
+
+    private final long experimento;
+    private final double tempoExecucao;
+    private final double aptidao;
+    private final double potencia;
+    private final double vazao;
+    private final int geracoes;
+    private final long avaliacoes;
+    private final double[] vazoes;
+
+    /**
+     * Construtor.
+     *
+     * @param experimento Índice do experimento, a partir de 0.
+     * @param tempoExecucao Tempo de execução [s].
+     * @param aptidao Grau de adaptação da melhor distribuição.
+     * @param potencia Potência total da melhor distribuição [MW].
+     * @param vazao Vazão total da melhor distribuição [m³/s].
+     * @param geracoes Gerações concluídas, ou -1.
+     * @param avaliacoes Avaliações realizadas, ou -1.
+     * @param vazoes Vazões da melhor distribuição; o vetor é copiado.
+     */
+    public RegistroDeResultado(long experimento, double tempoExecucao, double aptidao, double potencia,
+            double vazao, int geracoes, long avaliacoes, double[] vazoes) {
+        this.experimento = experimento;
+        this.tempoExecucao = tempoExecucao;
+        this.aptidao = aptidao;
+        this.potencia = potencia;
+        this.vazao = vazao;
+        this.geracoes = geracoes;
+        this.avaliacoes = avaliacoes;
+        this.vazoes = vazoes.clone();
+    }
+
+    /**
+     * Extrai os dados de um resultado.
+     *
+     * <p>
+     * Deve ser chamado na linha de execução que produziu o resultado: a
+     * distribuição pertence ao otimizador, e a potência depende das turbinas
+     * no momento do registro. O custo é uma cópia das vazões, somadas sobre
+     * o vetor copiado, e uma avaliação de potência por turbina, pequeno
+     * diante da execução que produziu o resultado.
+     * </p>
+     *
+     * @param experimento Índice do experimento, a partir de 0.
+     * @param resultado Resultado do experimento.
+     * @return Registro do resultado.
+     */
+    public static RegistroDeResultado de(long experimento, Resultado resultado) {
+        DistribuicaoVazao melhor = resultado.getMelhorDistribuicao();
+        Integer geracoes = resultado.getGeracoes();
+        Long avaliacoes = resultado.getAvaliacoes();
+        double[] vazoes = melhor.getVazoes();
+        return new RegistroDeResultado(experimento, resultado.getTempoExecucao(), resultado.getMelhorSolucao(),
+                melhor.getPotenciaTotal(), Arrays.stream(vazoes).sum(),
+                geracoes == null ? -1 : geracoes, avaliacoes == null ? -1 : avaliacoes,
+                vazoes);
+    }
+
+    public long getExperimento() {
+        return experimento;
+    }
+
+    public double getTempoExecucao() {
+        return tempoExecucao;
+    }
+
+    public double getAptidao() {
+        return aptidao;
+    }
+
+    /**
+     * @return Potência total da melhor distribuição [MW], calculada com a
+     * queda bruta de instalação das turbinas, como em
+     * {@link DistribuicaoVazao#getPotenciaTotal()}, e não com a queda de um
+     * eventual contexto de avaliação.
+     */
+    public double getPotencia() {
+        return potencia;
+    }
+
+    public double getVazao() {
+        return vazao;
+    }
+
+    /**
+     * @return Gerações concluídas, ou -1 se o otimizador não as registra.
+     */
+    public int getGeracoes() {
+        return geracoes;
+    }
+
+    /**
+     * @return Avaliações realizadas, ou -1 se o otimizador não as registra.
+     */
+    public long getAvaliacoes() {
+        return avaliacoes;
+    }
+
+    /**
+     * @return Número de vazões da distribuição.
+     */
+    public int getNVazoes() {
+        return vazoes.length;
+    }
+
+    /**
+     * @param turbina Índice da turbina.
+     * @return Vazão despachada para a turbina [m³/s].
+     */
+    public double getVazao(int turbina) {
+        return vazoes[turbina];
+    }
+
+    /**
+     * @return Cópia das vazões da distribuição.
+     */
+    public double[] getVazoes() {
+        return vazoes.clone();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof RegistroDeResultado)) {
+            return false;
+        }
+        RegistroDeResultado outro = (RegistroDeResultado) obj;
+        return experimento == outro.experimento
+                && Double.compare(tempoExecucao, outro.tempoExecucao) == 0
+                && Double.compare(aptidao, outro.aptidao) == 0
+                && Double.compare(potencia, outro.potencia) == 0
+                && Double.compare(vazao, outro.vazao) == 0
+                && geracoes == outro.geracoes
+                && avaliacoes == outro.avaliacoes
+                && Arrays.equals(vazoes, outro.vazoes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(experimento) + Arrays.hashCode(vazoes);
+    }
+}
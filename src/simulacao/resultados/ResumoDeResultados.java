@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package simulacao.resultados;
+
+import simulacao.Resultado;
+
+/**
+ * Resumo estatístico de uma série de experimentos, sem guardar os
+ * resultados.
+ *
+ * <p>
+ * Acumula tempo de execução, grau de adaptação da melhor solução, gerações
+ * e avaliações; as duas últimas apenas dos resultados que as registram. Como
+ * destino de resultados, pode ser usado no lugar de, ou junto a, um
+ * gravador em arquivo.
+ * </p>
+ *
+ * <p>
+ * Não é seguro para uso concorrente: em execuções paralelas, cada linha de
+ * execução acumula o seu resumo, e os resumos são reunidos ao final por
+ * {@link #combina(ResumoDeResultados)}.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see Estatistica
+ */
+public final class ResumoDeResultados implements DestinoDeResultados {
+
+    private final Estatistica tempo = new Estatistica();
+    private final Estatistica aptidao = new Estatistica();
+    private final Estatistica geracoes = new Estatistica();
+    private final Estatistica avaliacoes = new Estatistica();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void registra(Resultado resultado) {
+        tempo.adiciona(resultado.getTempoExecucao());
+        aptidao.adiciona(resultado.getMelhorSolucao());
+        if (resultado.getGeracoes() != null) {
+            geracoes.adiciona(resultado.getGeracoes());
+        }
+        if (resultado.getAvaliacoes() != null) {
+            avaliacoes.adiciona(resultado.getAvaliacoes());
+        }
+    }
+
+    /**
+     * Reúne os experimentos de outro resumo a este.
+     *
+     * @param outro Resumo parcial; não é alterado.
+     * @return Este resumo.
+     */
+    public ResumoDeResultados combina(ResumoDeResultados outro) {
+        tempo.combina(outro.tempo);
+        aptidao.combina(outro.aptidao);
+        geracoes.combina(outro.geracoes);
+        avaliacoes.combina(outro.avaliacoes);
+        return this;
+    }
+
+    @Override
+    public long getRegistrados() {
+        return tempo.getN();
+    }
+
+    /**
+     * @return Estatísticas do tempo de execução [s].
+     */
+    public Estatistica getTempo() {
+        return tempo;
+    }
+
+    /**
+     * @return Estatísticas do grau de adaptação da melhor solução.
+     */
+    public Estatistica getAptidao() {
+        return aptidao;
+    }
+
+    /**
+     * @return Estatísticas das gerações concluídas.
+     */
+    public Estatistica getGeracoes() {
+        return geracoes;
+    }
+
+    /**
+     * @return Estatísticas das avaliações realizadas.
+     */
+    public Estatistica getAvaliacoes() {
+        return avaliacoes;
+    }
+
+    /**
+     * Nada a descarregar.
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Nada a fechar; o resumo continua disponível.
+     */
+    @Override
+    public void close() {
+    }
+}
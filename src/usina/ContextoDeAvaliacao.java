@@ -0,0 +1,188 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package usina;
+
+import java.util.Arrays;
+
+/**
+ * Contexto imutável de avaliação de distribuições de vazão.
+ *
+ * <p>
+ * Reúne as condições de operação de um despacho: a meta de potência, a queda
+ * bruta ou o nível do reservatório, e a disponibilidade das turbinas. É separado do modelo da usina
+ * (turbinas e condutos), de modo que uma mesma instância de {@link Usina}
+ * possa avaliar, simultaneamente e sem sincronização, despachos com condições
+ * diferentes.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see Usina#avalia(double[], usina.ContextoDeAvaliacao)
+ * @see Usina#comContexto(usina.ContextoDeAvaliacao)
+ */
+public final class ContextoDeAvaliacao {
+
+    private final double meta;
+    private final double quedaBruta;
+    private final boolean[] disponiveis;
+    private final double nivel;
+
+    /**
+     * Construtor para a queda bruta de instalação e todas as turbinas
+     * disponíveis.
+     *
+     * @param meta Meta de potência [MW].
+     */
+    public ContextoDeAvaliacao(double meta) {
+        this(meta, Double.NaN, null);
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param meta Meta de potência [MW].
+     * @param quedaBruta Queda bruta comum a todas as turbinas [m], ou
+     * <code>Double.NaN</code> para a queda de instalação de cada turbina.
+     * @param disponiveis Disponibilidade de cada turbina, na ordem da usina,
+     * ou <code>null</code> se todas estiverem disponíveis. O vetor é copiado.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se a meta não for positiva;</li>
+     * <li>Se a queda bruta for negativa.</li>
+     * </ul>
+     */
+    public ContextoDeAvaliacao(double meta, double quedaBruta, boolean[] disponiveis) {
+        this(meta, quedaBruta, disponiveis, Double.NaN);
+    }
+
+    /**
+     * Construtor com nível do reservatório, para usinas com modelo de queda.
+     *
+     * @param meta Meta de potência [MW].
+     * @param quedaBruta Queda bruta comum a todas as turbinas [m], ou
+     * <code>Double.NaN</code>. Se definida, prevalece sobre o modelo de queda.
+     * @param disponiveis Disponibilidade de cada turbina, ou
+     * <code>null</code> se todas estiverem disponíveis. O vetor é copiado.
+     * @param nivel Nível do reservatório [m], ou <code>Double.NaN</code>.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se a meta não for positiva;</li>
+     * <li>Se a queda bruta for negativa.</li>
+     * </ul>
+     *
+     * @see ModeloDeQueda
+     */
+    public ContextoDeAvaliacao(double meta, double quedaBruta, boolean[] disponiveis, double nivel) {
+        if (!(meta > 0)) {
+            throw new IllegalArgumentException("Meta deve ser positiva.");
+        }
+        if (quedaBruta < 0) {
+            throw new IllegalArgumentException("Queda bruta menor que zero.");
+        }
+        this.meta = meta;
+        this.quedaBruta = quedaBruta;
+        this.disponiveis = disponiveis == null ? null : disponiveis.clone();
+        this.nivel = nivel;
+    }
+
+    /**
+     * Cria um contexto com as mesmas condições e outra meta.
+     *
+     * @param meta Nova meta de potência [MW].
+     * @return Novo contexto.
+     */
+    public ContextoDeAvaliacao comMeta(double meta) {
+        return new ContextoDeAvaliacao(meta, quedaBruta, disponiveis, nivel);
+    }
+
+    public double getMeta() {
+        return meta;
+    }
+
+    /**
+     * Recupera a queda bruta do contexto.
+     *
+     * @return Queda bruta [m], ou <code>Double.NaN</code> se cada turbina usa
+     * a sua queda de instalação.
+     */
+    public double getQuedaBruta() {
+        return quedaBruta;
+    }
+
+    /**
+     * Verifica se o contexto define a queda bruta.
+     *
+     * @return <code>true</code> se a queda bruta é definida pelo contexto.
+     */
+    public boolean temQuedaBruta() {
+        return !Double.isNaN(quedaBruta);
+    }
+
+    /**
+     * Recupera o nível do reservatório.
+     *
+     * @return Nível [m], ou <code>Double.NaN</code> se não definido.
+     */
+    public double getNivel() {
+        return nivel;
+    }
+
+    /**
+     * Verifica se o contexto define o nível do reservatório.
+     *
+     * @return <code>true</code> se o nível é definido pelo contexto.
+     */
+    public boolean temNivel() {
+        return !Double.isNaN(nivel);
+    }
+
+    /**
+     * Verifica a disponibilidade de uma turbina.
+     *
+     * @param turbina Índice da turbina, na ordem da usina.
+     * @return <code>true</code> se a turbina estiver disponível.
+     */
+    public boolean isDisponivel(int turbina) {
+        return disponiveis == null || disponiveis[turbina];
+    }
+
+    /**
+     * Verifica se o contexto usa as condições de instalação: queda de cada
+     * turbina, sem nível do reservatório, e todas disponíveis.
+     *
+     * @return <code>true</code> se nenhuma condição é alterada além da meta.
+     */
+    public boolean isPadrao() {
+        return !temQuedaBruta() && !temNivel() && disponiveis == null;
+    }
+
+    @Override
+    public String toString() {
+        return "ContextoDeAvaliacao [meta=" + meta + ", quedaBruta=" + quedaBruta
+                + ", disponiveis=" + Arrays.toString(disponiveis) + ", nivel=" + nivel + "]";
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ *
+ */
+package usina.DAO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Leitor de arquivos CSV numéricos sobre o arquivo mapeado em memória.
+ *
+ * <p>
+ * Percorre os bytes do arquivo, em UTF-8, sem criar uma <code>String</code>
+ * por linha ou por campo: os números são convertidos diretamente dos bytes.
+ * Números com até 15 algarismos significativos e expoente decimal de até 22
+ * são convertidos de forma exata por uma única multiplicação ou divisão;
+ * os demais recorrem a {@link Double#parseDouble(String)}. Utiliza formatação
+ * de dados inglesa, como os demais arquivos de entrada.
+ * </p>
+ *
+ * <p>
+ * Linhas em branco são ignoradas, assim como um separador ao final da linha
+ * e espaços ao redor dos campos. Erros indicam arquivo, linha e coluna.
+ * </p>
+ *
+ * @author Victor Soares
+ * @version 1.0
+ */
+public final class LeitorCSV {
+
+	private static final double[] POTENCIAS_DE_DEZ = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private final Path arquivo;
+	private final ByteBuffer buffer;
+	private final byte separador;
+
+	private int linha;
+	private int inicioDaLinha;
+	private double[] valores = new double[8];
+
+	/**
+	 * Construtor com separador <code>;</code>.
+	 *
+	 * @param arquivo Arquivo CSV.
+	 * @throws IOException Se o arquivo não puder ser aberto ou mapeado.
+	 */
+	public LeitorCSV(Path arquivo) throws IOException {
+		this(arquivo, ';');
+	}
+
+	/**
+	 * @param arquivo Arquivo CSV.
+	 * @param separador Separador de campos, ASCII.
+	 * @throws IOException Se o arquivo não puder ser aberto ou mapeado.
+	 */
+	public LeitorCSV(Path arquivo, char separador) throws IOException {
+		if (separador > 0x7F) {
+			throw new IllegalArgumentException("Separador deve ser ASCII.");
+		}
+		this.arquivo = arquivo;
+		this.separador = (byte) separador;
+
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			this.buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+		}
+
+		if (buffer.remaining() >= 3 && (buffer.get(0) & 0xFF) == 0xEF
+				&& (buffer.get(1) & 0xFF) == 0xBB && (buffer.get(2) & 0xFF) == 0xBF) {
+			buffer.position(3);
+		}
+	}
+
+	/**
+	 * Lê a próxima linha não vazia.
+	 *
+	 * @return Valores da linha, ou <code>null</code> ao final do arquivo.
+	 * @throws IOException Se algum campo não for um número; a mensagem indica
+	 * a linha e a coluna.
+	 */
+	public double[] proximaLinha() throws IOException {
+		int n = leLinha();
+		return n < 0 ? null : Arrays.copyOf(valores, n);
+	}
+
+	/**
+	 * Lê o próximo valor de um arquivo com um valor por linha.
+	 *
+	 * @return Valor da próxima linha não vazia.
+	 * @throws IOException Se a linha não tiver exatamente um número.
+	 * @throws NoSuchElementException Ao final do arquivo.
+	 * @see #temProximaLinha()
+	 */
+	public double proximoValor() throws IOException {
+		int n = leLinha();
+		if (n < 0) {
+			throw new NoSuchElementException("Fim do arquivo " + arquivo + ".");
+		}
+		if (n != 1) {
+			throw erro("deve ter 1 valor por linha, encontrados " + n, 1);
+		}
+		return valores[0];
+	}
+
+	/**
+	 * Verifica se há alguma linha não vazia por ler.
+	 *
+	 * @return <code>true</code> se houver.
+	 */
+	public boolean temProximaLinha() {
+		for (int i = buffer.position(); i < buffer.limit(); i++) {
+			byte b = buffer.get(i);
+			if (b != '\n' && b != '\r' && b != ' ' && b != '\t' && b != separador) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return Número da última linha lida, a partir de 1.
+	 */
+	public int getLinha() {
+		return linha;
+	}
+
+	/**
+	 * @return Arquivo lido.
+	 */
+	public Path getArquivo() {
+		return arquivo;
+	}
+
+	/**
+	 * Cria uma exceção de formatação para a linha atual.
+	 *
+	 * @param mensagem Descrição do problema.
+	 * @param coluna Coluna do problema, a partir de 1.
+	 * @return Exceção com arquivo, linha e coluna.
+	 */
+	public IOException erro(String mensagem, int coluna) {
+		return new IOException("Erro na leitura do arquivo CSV " + arquivo + ": Problemas de formatação - "
+				+ mensagem + ", linha " + linha + ", coluna " + coluna + ".");
+	}
+
+	/**
+	 * Lê os valores da próxima linha não vazia para {@link #valores}.
+	 *
+	 * @return Número de valores, ou -1 ao final do arquivo.
+	 */
+	private int leLinha() throws IOException {
+		while (buffer.hasRemaining()) {
+			linha++;
+			inicioDaLinha = buffer.position();
+			int fim = inicioDaLinha;
+			while (fim < buffer.limit() && buffer.get(fim) != '\n') {
+				fim++;
+			}
+			buffer.position(fim < buffer.limit() ? fim + 1 : fim);
+			if (fim > inicioDaLinha && buffer.get(fim - 1) == '\r') {
+				fim--;
+			}
+
+			int n = 0;
+			int i = inicioDaLinha;
+			while (i < fim) {
+				int inicio = pulaEspacos(i, fim);
+				int termino = inicio;
+				while (termino < fim && buffer.get(termino) != separador) {
+					termino++;
+				}
+				int proximo = termino + 1;
+				while (termino > inicio && (buffer.get(termino - 1) == ' ' || buffer.get(termino - 1) == '\t')) {
+					termino--;
+				}
+
+				if (inicio == termino) {
+					if (proximo < fim || n == 0 && proximo == fim) {
+						throw erro("campo vazio", inicio - inicioDaLinha + 1);
+					}
+				} else {
+					if (n == valores.length) {
+						valores = Arrays.copyOf(valores, 2 * n);
+					}
+					valores[n++] = converte(inicio, termino);
+				}
+				i = proximo;
+			}
+			if (n > 0) {
+				return n;
+			}
+		}
+		return -1;
+	}
+
+	private int pulaEspacos(int i, int fim) {
+		while (i < fim && (buffer.get(i) == ' ' || buffer.get(i) == '\t')) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Converte os bytes <code>[inicio, fim)</code> em número.
+	 */
+	private double converte(int inicio, int fim) throws IOException {
+		int i = inicio;
+		boolean negativo = false;
+		byte b = buffer.get(i);
+		if (b == '-' || b == '+') {
+			negativo = b == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int algarismos = 0;
+		int expoente = 0;
+		boolean truncado = false;
+		boolean algum = false;
+		boolean ponto = false;
+
+		for (; i < fim; i++) {
+			b = buffer.get(i);
+			if (b >= '0' && b <= '9') {
+				algum = true;
+				if (mantissa == 0 && b == '0') {
+					if (ponto) {
+						expoente--;
+					}
+				} else if (algarismos < 18) {
+					mantissa = 10 * mantissa + (b - '0');
+					algarismos++;
+					if (ponto) {
+						expoente--;
+					}
+				} else {
+					truncado = true;
+					if (!ponto) {
+						expoente++;
+					}
+				}
+			} else if (b == '.' && !ponto) {
+				ponto = true;
+			} else {
+				break;
+			}
+		}
+
+		if (algum && i < fim && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+			i++;
+			boolean expoenteNegativo = false;
+			if (i < fim && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+				expoenteNegativo = buffer.get(i) == '-';
+				i++;
+			}
+			int valor = 0;
+			boolean algumExpoente = false;
+			for (; i < fim && buffer.get(i) >= '0' && buffer.get(i) <= '9'; i++) {
+				algumExpoente = true;
+				if (valor < 100000) {
+					valor = 10 * valor + (buffer.get(i) - '0');
+				}
+			}
+			if (!algumExpoente) {
+				algum = false;
+			}
+			expoente += expoenteNegativo ? -valor : valor;
+		}
+
+		if (!algum || i != fim) {
+			return converteLento(inicio, fim);
+		}
+
+		double valor;
+		if (mantissa == 0) {
+			valor = 0;
+		} else if (!truncado && algarismos <= 15 && expoente >= -22 && expoente <= 22) {
+			valor = expoente >= 0 ? mantissa * POTENCIAS_DE_DEZ[expoente] : mantissa / POTENCIAS_DE_DEZ[-expoente];
+		} else {
+			return converteLento(inicio, fim);
+		}
+		return negativo ? -valor : valor;
+	}
+
+	private double converteLento(int inicio, int fim) throws IOException {
+		byte[] bytes = new byte[fim - inicio];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(inicio + i);
+		}
+		String campo = new String(bytes, StandardCharsets.UTF_8);
+		try {
+			return Double.parseDouble(campo);
+		} catch (NumberFormatException nfe) {
+			IOException erro = erro("interpretação do número \"" + campo + "\"", inicio - inicioDaLinha + 1);
+			erro.initCause(nfe);
+			throw erro;
+		}
+	}
+}
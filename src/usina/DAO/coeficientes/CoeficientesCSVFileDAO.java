@@ -0,0 +1,90 @@
+/**
+ *
+ */
+package usina.DAO.coeficientes;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import usina.DAO.LeitorCSV;
+import usina.Polinomio;
+
+/**
+ * Leitura das curvas características em arquivo CSV.
+ *
+ * <p>
+ * Cada coluna traz os coeficientes de uma turbina, e cada linha um grau, do
+ * maior para o termo independente, como no <code>polyval</code> do Matlab.
+ * </p>
+ *
+ * @author Victor Soares
+ * @version 1.0
+ */
+public final class CoeficientesCSVFileDAO implements CoeficientesDAO {
+
+	/**
+	 * Arquivo padrão das curvas características.
+	 */
+	public static final String ARQUIVO_PADRAO = "data/input/coeficientes.csv";
+
+	private final String arquivo;
+
+	public CoeficientesCSVFileDAO() {
+		this(ARQUIVO_PADRAO);
+	}
+
+	/**
+	 * @param arquivo Caminho do arquivo CSV.
+	 */
+	public CoeficientesCSVFileDAO(String arquivo) {
+		this.arquivo = arquivo;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Lido em UTF-8 por {@link LeitorCSV}: linhas em branco e um separador
+	 * ao final da linha são ignorados, e erros de formatação indicam arquivo,
+	 * linha e coluna. Utiliza formatação de dados inglesa, como os demais
+	 * arquivos de entrada.
+	 */
+	@Override
+	public List<Polinomio> carregaCoeficientes() throws IOException {
+
+		try {
+			LeitorCSV leitor = new LeitorCSV(Paths.get(arquivo));
+			List<double[]> linhas = new ArrayList<>();
+
+			double[] linha;
+			while ((linha = leitor.proximaLinha()) != null) {
+				if (!linhas.isEmpty() && linha.length != linhas.get(0).length) {
+					throw leitor.erro("Linhas de tamanhos variados", Math.min(linha.length, linhas.get(0).length) + 1);
+				}
+				linhas.add(linha);
+			}
+
+			if (linhas.isEmpty()) {
+				throw new IOException("Erro na leitura dos coeficientes (coeficientes não encontrados).");
+			}
+
+			List<Polinomio> polinomios = new ArrayList<>(linhas.get(0).length);
+			for (int coluna = 0; coluna < linhas.get(0).length; coluna++) {
+				double[] coeficientes = new double[linhas.size()];
+				for (int grau = 0; grau < linhas.size(); grau++) {
+					coeficientes[grau] = linhas.get(grau)[coluna];
+				}
+				polinomios.add(new Polinomio(coeficientes));
+			}
+			return polinomios;
+
+		} catch (NoSuchFileException fnfe) {
+
+			String erro = "Erro na leitura do arquivo CSV :"
+					+ "Arquivo CSV não encontrado: " + fnfe.getFile() + ".";
+
+			throw new IOException(erro, fnfe);
+		}
+	}
+}
@@ -0,0 +1,25 @@
+/**
+ *
+ */
+package usina.DAO.coeficientes;
+
+import java.util.List;
+import usina.Polinomio;
+
+/**
+ * Acesso às curvas características polinomiais das turbinas.
+ *
+ * @author Victor Soares
+ * @version 1.0
+ */
+public interface CoeficientesDAO {
+
+    /**
+     * Realiza a leitura das curvas características, uma por turbina.
+     *
+     * @return Polinômio de cada turbina, na ordem da usina.
+     * @throws Exception
+     * @see Polinomio
+     */
+    public List<Polinomio> carregaCoeficientes() throws Exception;
+}
@@ -0,0 +1,86 @@
+/**
+ *
+ */
+package usina.DAO.demanda;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import usina.DAO.LeitorCSV;
+
+/**
+ * Leitura da série de demanda em arquivo CSV, um valor por linha.
+ *
+ * @author Victor Soares
+ * @version 1.0
+ */
+public final class DemandaCSVFileDAO implements DemandaDAO {
+
+	/**
+	 * Arquivo padrão da série de demanda.
+	 */
+	public static final String ARQUIVO_PADRAO = "data/input/demanda.csv";
+
+	private final String arquivo;
+
+	public DemandaCSVFileDAO() {
+		this(ARQUIVO_PADRAO);
+	}
+
+	/**
+	 * @param arquivo Caminho do arquivo CSV.
+	 */
+	public DemandaCSVFileDAO(String arquivo) {
+		this.arquivo = arquivo;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Lido por {@link LeitorCSV}, o mesmo leitor de {@link #abreFonte()}:
+	 * linhas em branco são ignoradas e erros de formatação indicam linha e
+	 * coluna. Utiliza formatação de dados inglesa, como os demais arquivos de
+	 * entrada.
+	 */
+	@Override
+	public double[] carregaDemanda() throws IOException {
+
+		double[] demandas = new double[24];
+		int n = 0;
+
+		try {
+			LeitorCSV leitor = new LeitorCSV(Paths.get(arquivo));
+			while (leitor.temProximaLinha()) {
+				if (n == demandas.length) {
+					demandas = Arrays.copyOf(demandas, 2 * n);
+				}
+				demandas[n++] = leitor.proximoValor();
+			}
+
+		} catch (NoSuchFileException fnfe) {
+
+			String erro = "Erro na leitura do arquivo CSV :"
+					+ "Arquivo CSV não encontrado: " + fnfe.getFile() + ".";
+
+			throw new IOException(erro, fnfe);
+		}
+
+		if (n == 0) {
+			throw new IOException("Erro na leitura da demanda (valores não encontrados).");
+		}
+
+		return Arrays.copyOf(demandas, n);
+	}
+
+	/**
+	 * Abre o mesmo arquivo para leitura sob demanda, sem carregá-lo.
+	 *
+	 * @return Série de demanda.
+	 * @throws IOException Se o arquivo não puder ser aberto.
+	 * @see FonteDeDemandaCSV
+	 */
+	public FonteDeDemanda abreFonte() throws IOException {
+		return new FonteDeDemandaCSV(Paths.get(arquivo));
+	}
+}
@@ -0,0 +1,21 @@
+/**
+ *
+ */
+package usina.DAO.demanda;
+
+/**
+ * Acesso a séries de demanda horária.
+ *
+ * @author Victor Soares
+ * @version 1.0
+ */
+public interface DemandaDAO {
+
+    /**
+     * Realiza a leitura da série de demanda, em ordem cronológica.
+     *
+     * @return Demanda de cada período [MW].
+     * @throws Exception
+     */
+    public double[] carregaDemanda() throws Exception;
+}
@@ -0,0 +1,182 @@
+/**
+ *
+ */
+package usina.DAO.demanda;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Série de demanda com leitura antecipada em segundo plano.
+ *
+ * <p>
+ * Uma linha de execução lê a fonte em blocos de tamanho fixo enquanto o
+ * bloco atual é consumido, de modo que a leitura do arquivo se sobrepõe ao
+ * processamento dos períodos. No máximo três blocos existem ao mesmo tempo:
+ * o consumido, o pronto e o em leitura.
+ * </p>
+ *
+ * <p>
+ * Erros de leitura são relançados no consumo, na posição em que ocorreram.
+ * Instâncias devem ser consumidas por uma única linha de execução.
+ * </p>
+ *
+ * @author Victor Soares
+ * @version 1.0
+ */
+public final class FonteAntecipada implements FonteDeDemanda {
+
+	/**
+	 * Tamanho padrão dos blocos.
+	 */
+	public static final int BLOCO_PADRAO = 4096;
+
+	private static final Bloco FIM = new Bloco(new double[0], 0, null);
+
+	private final FonteDeDemanda fonte;
+	private final BlockingQueue<Bloco> prontos = new ArrayBlockingQueue<>(1);
+	private final Thread leitora;
+
+	private Bloco atual;
+	private int posicao;
+
+	/**
+	 * @param fonte Fonte a antecipar; é fechada com esta.
+	 */
+	public FonteAntecipada(FonteDeDemanda fonte) {
+		this(fonte, BLOCO_PADRAO);
+	}
+
+	/**
+	 * @param fonte Fonte a antecipar; é fechada com esta.
+	 * @param tamanhoBloco Número de valores por bloco.
+	 */
+	public FonteAntecipada(FonteDeDemanda fonte, int tamanhoBloco) {
+		if (tamanhoBloco <= 0) {
+			throw new IllegalArgumentException("Tamanho de bloco deve ser positivo.");
+		}
+		this.fonte = fonte;
+		this.leitora = new Thread(() -> le(tamanhoBloco), "leitura-demanda");
+		this.leitora.setDaemon(true);
+		this.leitora.start();
+	}
+
+	private void le(int tamanhoBloco) {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				double[] valores = new double[tamanhoBloco];
+				int n = 0;
+				RuntimeException erro = null;
+				try {
+					while (n < tamanhoBloco && fonte.hasNext()) {
+						double valor = fonte.nextDouble();
+						valores[n++] = valor;
+					}
+				} catch (RuntimeException ex) {
+					erro = ex;
+				}
+				Bloco bloco = n == 0 && erro == null ? FIM : new Bloco(valores, n, erro);
+				prontos.put(bloco);
+				if (bloco == FIM || bloco.erro != null) {
+					return;
+				}
+			}
+		} catch (InterruptedException ex) {
+			// Fonte fechada pelo consumidor.
+		}
+	}
+
+	private boolean carrega() {
+		while (atual == null || posicao == atual.n) {
+			if (atual == FIM) {
+				return false;
+			}
+			if (atual != null && atual.erro != null) {
+				RuntimeException erro = atual.erro;
+				atual = FIM;
+				throw erro;
+			}
+			try {
+				atual = prontos.take();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Leitura da demanda interrompida.", ex);
+			}
+			posicao = 0;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return carrega();
+	}
+
+	@Override
+	public double nextDouble() {
+		if (!carrega()) {
+			throw new NoSuchElementException("Fim da série de demanda.");
+		}
+		return atual.valores[posicao++];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Copia diretamente dos blocos lidos. Se a leitura antecipada falhar
+	 * depois de valores já copiados, retorna os valores copiados e lança o
+	 * erro na chamada seguinte.
+	 */
+	@Override
+	public int le(double[] destino, int inicio, int quantidade) {
+		if (!carrega()) {
+			return -1;
+		}
+		int n = 0;
+		while (n < quantidade) {
+			if (n > 0 && posicao == atual.n && atual.erro != null) {
+				break;
+			}
+			if (!carrega()) {
+				break;
+			}
+			int bloco = Math.min(quantidade - n, atual.n - posicao);
+			System.arraycopy(atual.valores, posicao, destino, inicio + n, bloco);
+			posicao += bloco;
+			n += bloco;
+		}
+		return n;
+	}
+
+	/**
+	 * Interrompe a leitura antecipada e fecha a fonte.
+	 *
+	 * @throws IOException Se houver erro ao fechar a fonte.
+	 */
+	@Override
+	public void close() throws IOException {
+		leitora.interrupt();
+		try {
+			leitora.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		fonte.close();
+	}
+
+	private static final class Bloco {
+
+		private final double[] valores;
+		private final int n;
+		private final RuntimeException erro;
+
+		private Bloco(double[] valores, int n, RuntimeException erro) {
+			this.valores = valores;
+			this.n = n;
+			this.erro = erro;
+		}
+	}
+}
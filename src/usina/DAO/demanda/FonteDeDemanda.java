@@ -0,0 +1,45 @@
+/**
+ *
+ */
+package usina.DAO.demanda;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Série de demanda lida sob demanda, em ordem cronológica.
+ *
+ * <p>
+ * Destina-se a horizontes longos, em que carregar a série inteira não é
+ * aceitável: as implementações guardam apenas um bloco limitado de valores.
+ * Erros de leitura são lançados como {@link UncheckedIOException}.
+ * </p>
+ *
+ * @author Victor Soares
+ * @version 1.0
+ *
+ * @see FonteAntecipada
+ */
+public interface FonteDeDemanda extends PrimitiveIterator.OfDouble, Closeable {
+
+	/**
+	 * Lê os próximos valores da série.
+	 *
+	 * @param destino Vetor de destino.
+	 * @param inicio Posição inicial no destino.
+	 * @param quantidade Número máximo de valores.
+	 * @return Número de valores lidos, ou -1 se a série terminou.
+	 * @throws UncheckedIOException Se houver erro de leitura.
+	 */
+	public default int le(double[] destino, int inicio, int quantidade) {
+		if (!hasNext()) {
+			return -1;
+		}
+		int n = 0;
+		while (n < quantidade && hasNext()) {
+			destino[inicio + n++] = nextDouble();
+		}
+		return n;
+	}
+}
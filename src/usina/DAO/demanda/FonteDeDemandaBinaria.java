@@ -0,0 +1,167 @@
+/**
+ *
+ */
+package usina.DAO.demanda;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Série de demanda em arquivo binário, lida sob demanda.
+ *
+ * <p>
+ * O arquivo traz um identificador, a versão do formato e os valores em
+ * <code>double</code>, sem contagem prévia: pode ser gravado à medida que a
+ * série é produzida. A leitura usa um buffer de tamanho fixo, recarregado do
+ * canal quando esgotado.
+ * </p>
+ *
+ * @author Victor Soares
+ * @version 1.0
+ *
+ * @see #grava(Path, PrimitiveIterator.OfDouble)
+ */
+public final class FonteDeDemandaBinaria implements FonteDeDemanda {
+
+	/**
+	 * Número padrão de valores do buffer.
+	 */
+	public static final int CAPACIDADE_PADRAO = 8192;
+
+	private static final int IDENTIFICADOR = 0x444D4E44;
+	private static final int VERSAO = 1;
+
+	private final Path arquivo;
+	private final FileChannel canal;
+	private final ByteBuffer buffer;
+	private boolean fim;
+
+	/**
+	 * @param arquivo Arquivo binário.
+	 * @throws IOException Se o arquivo não puder ser aberto ou não for uma
+	 *             série de demanda.
+	 */
+	public FonteDeDemandaBinaria(Path arquivo) throws IOException {
+		this(arquivo, CAPACIDADE_PADRAO);
+	}
+
+	/**
+	 * @param arquivo Arquivo binário.
+	 * @param capacidade Número de valores do buffer.
+	 * @throws IOException Se o arquivo não puder ser aberto ou não for uma
+	 *             série de demanda.
+	 */
+	public FonteDeDemandaBinaria(Path arquivo, int capacidade) throws IOException {
+		if (capacidade <= 0) {
+			throw new IllegalArgumentException("Capacidade deve ser positiva.");
+		}
+		this.arquivo = arquivo;
+		this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+		this.buffer = ByteBuffer.allocateDirect(8 * capacidade);
+
+		try {
+			buffer.limit(8);
+			while (buffer.hasRemaining() && canal.read(buffer) >= 0) {
+			}
+			buffer.flip();
+			if (buffer.remaining() < 8 || buffer.getInt() != IDENTIFICADOR || buffer.getInt() != VERSAO) {
+				throw new IOException("Erro na leitura da série " + arquivo + ": formato ou versão desconhecidos.");
+			}
+			buffer.clear().flip();
+		} catch (IOException ex) {
+			canal.close();
+			throw ex;
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (buffer.remaining() >= 8) {
+			return true;
+		}
+		if (fim) {
+			if (buffer.hasRemaining()) {
+				throw new UncheckedIOException(new IOException("Erro na leitura da série " + arquivo + ": arquivo truncado."));
+			}
+			return false;
+		}
+		try {
+			buffer.compact();
+			while (buffer.position() < 8 || buffer.hasRemaining()) {
+				if (canal.read(buffer) < 0) {
+					fim = true;
+					break;
+				}
+			}
+			buffer.flip();
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Erro na leitura da série " + arquivo + ".", ex);
+		}
+		return hasNext();
+	}
+
+	@Override
+	public double nextDouble() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("Fim da série de demanda.");
+		}
+		return buffer.getDouble();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Copia diretamente do buffer.
+	 */
+	@Override
+	public int le(double[] destino, int inicio, int quantidade) {
+		if (!hasNext()) {
+			return -1;
+		}
+		int n = 0;
+		while (n < quantidade && hasNext()) {
+			int bloco = Math.min(quantidade - n, buffer.remaining() / 8);
+			buffer.asDoubleBuffer().get(destino, inicio + n, bloco);
+			buffer.position(buffer.position() + 8 * bloco);
+			n += bloco;
+		}
+		return n;
+	}
+
+	@Override
+	public void close() throws IOException {
+		canal.close();
+	}
+
+	/**
+	 * Grava uma série no formato lido por esta classe.
+	 *
+	 * @param arquivo Arquivo de destino.
+	 * @param serie Valores, em ordem cronológica.
+	 * @return Número de valores gravados.
+	 * @throws IOException Se houver erro de escrita.
+	 */
+	public static long grava(Path arquivo, PrimitiveIterator.OfDouble serie) throws IOException {
+		long n = 0;
+		try (OutputStream saidaArquivo = Files.newOutputStream(arquivo);
+				DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(saidaArquivo))) {
+			saida.writeInt(IDENTIFICADOR);
+			saida.writeInt(VERSAO);
+			while (serie.hasNext()) {
+				saida.writeDouble(serie.nextDouble());
+				n++;
+			}
+		}
+		return n;
+	}
+}
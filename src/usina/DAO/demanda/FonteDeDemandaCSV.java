@@ -0,0 +1,65 @@
+/**
+ *
+ */
+package usina.DAO.demanda;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import usina.DAO.LeitorCSV;
+
+/**
+ * Série de demanda em arquivo CSV, um valor por linha, lida sob demanda.
+ *
+ * <p>
+ * O arquivo é mapeado em memória e percorrido por {@link LeitorCSV}: nenhum
+ * valor é guardado além do próximo, e as páginas já lidas podem ser
+ * descartadas pelo sistema.
+ * </p>
+ *
+ * @author Victor Soares
+ * @version 1.0
+ */
+public final class FonteDeDemandaCSV implements FonteDeDemanda {
+
+	private final LeitorCSV leitor;
+
+	/**
+	 * @param arquivo Arquivo CSV.
+	 * @throws IOException Se o arquivo não puder ser aberto.
+	 */
+	public FonteDeDemandaCSV(Path arquivo) throws IOException {
+		this.leitor = new LeitorCSV(arquivo);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return leitor.temProximaLinha();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UncheckedIOException Se a linha não tiver exatamente um número;
+	 *             a mensagem indica linha e coluna.
+	 */
+	@Override
+	public double nextDouble() {
+		if (!leitor.temProximaLinha()) {
+			throw new NoSuchElementException("Fim da série de demanda.");
+		}
+		try {
+			return leitor.proximoValor();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Nada a liberar: o mapeamento é descartado pelo coletor.
+	 */
+	@Override
+	public void close() {
+	}
+}
@@ -3,27 +3,100 @@
  */
 package usina.DAO.turbina;
 
+import java.nio.file.Paths;
+import java.util.Properties;
+
 /**
  * 
  * @author Victor Soares
  * @version 1.0
- * 
- * @deprecated 
  */
 public final class TubinaDAOFactory {
-	
+
+	/**
+	 * Propriedade de configuração com o tipo de origem.
+	 * 
+	 * @see DAOTypes
+	 */
+	public static final String PROPRIEDADE_TIPO = "turbina.dao";
+
+	/**
+	 * Propriedade de configuração com a origem: arquivo binário ou URL JDBC.
+	 */
+	public static final String PROPRIEDADE_ORIGEM = "turbina.origem";
+
 	public enum DAOTypes {
-		CSV
+		CSV,
+		/**
+		 * Arquivo binário.
+		 * 
+		 * @see TurbinaBinaryFileDAO
+		 */
+		BINARIO,
+		/**
+		 * Banco de dados local.
+		 * 
+		 * @see TurbinaJDBCDAO
+		 */
+		JDBC
 	};
 
+	/**
+	 * @param sourceType Tipo de origem, com a origem padrão.
+	 * @return DAO de turbinas.
+	 * @throws IllegalArgumentException Se o tipo exigir origem explícita
+	 *             (JDBC).
+	 */
 	public static TurbinaDAO getTurbinaDAO(DAOTypes sourceType) {
 
 		switch (sourceType) {
 
 		case CSV:
 			return new TurbinaCSVFileDAO();
+
+		case BINARIO:
+			return new TurbinaBinaryFileDAO();
+
+		default:
+			throw new IllegalArgumentException("Origem " + sourceType + " exige URL ou arquivo.");
+		}
+	}
+
+	/**
+	 * @param sourceType Tipo de origem.
+	 * @param origem Arquivo binário ou URL JDBC; ignorada para CSV.
+	 * @return DAO de turbinas.
+	 */
+	public static TurbinaDAO getTurbinaDAO(DAOTypes sourceType, String origem) {
+
+		switch (sourceType) {
+
+		case BINARIO:
+			return new TurbinaBinaryFileDAO(Paths.get(origem));
+
+		case JDBC:
+			return new TurbinaJDBCDAO(origem);
+
+		default:
+			return getTurbinaDAO(sourceType);
 		}
+	}
 
-		return null;
+	/**
+	 * Escolhe a origem pela configuração: {@link #PROPRIEDADE_TIPO}, com
+	 * <code>CSV</code> como padrão, e {@link #PROPRIEDADE_ORIGEM}, opcional
+	 * exceto para JDBC.
+	 * 
+	 * @param configuracao Configuração, por exemplo
+	 *            <code>System.getProperties()</code>.
+	 * @return DAO de turbinas.
+	 * @throws IllegalArgumentException Se o tipo for desconhecido ou faltar a
+	 *             origem.
+	 */
+	public static TurbinaDAO getTurbinaDAO(Properties configuracao) {
+		DAOTypes tipo = DAOTypes.valueOf(configuracao.getProperty(PROPRIEDADE_TIPO, DAOTypes.CSV.name()).trim()
+				.toUpperCase());
+		String origem = configuracao.getProperty(PROPRIEDADE_ORIGEM);
+		return origem == null ? getTurbinaDAO(tipo) : getTurbinaDAO(tipo, origem.trim());
 	}
 }
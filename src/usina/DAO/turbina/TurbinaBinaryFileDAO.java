@@ -0,0 +1,220 @@
+/**
+ *
+ */
+package usina.DAO.turbina;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura de turbinas em arquivo binário.
+ *
+ * <p>
+ * O arquivo, mapeado em memória, traz um cabeçalho, os conjuntos distintos
+ * de parâmetros de rendimento e um registro de tamanho fixo por turbina:
+ * limites de potência e de vazão, queda bruta (<code>NaN</code> se ausente),
+ * índice do conjunto de parâmetros e estado. O tamanho fixo permite ler uma
+ * turbina qualquer sem percorrer as anteriores.
+ * </p>
+ *
+ * @author Victor Soares
+ * @version 1.0
+ *
+ * @see #grava(Path, List)
+ */
+public final class TurbinaBinaryFileDAO implements TurbinaDAO {
+
+	/**
+	 * Arquivo padrão de turbinas.
+	 */
+	public static final String ARQUIVO_PADRAO = "data/input/Turbinas/turbinas.bin";
+
+	private static final int IDENTIFICADOR = 0x5452424E;
+	private static final int VERSAO = 1;
+	private static final int TAMANHO_REGISTRO = 5 * 8 + 4 + 1;
+
+	private final Path arquivo;
+
+	private ByteBuffer buffer;
+	private int nTurbinas;
+	private int inicioRegistros;
+	private Double[][] conjuntos;
+
+	public TurbinaBinaryFileDAO() {
+		this(Paths.get(ARQUIVO_PADRAO));
+	}
+
+	/**
+	 * @param arquivo Arquivo binário de turbinas.
+	 */
+	public TurbinaBinaryFileDAO(Path arquivo) {
+		this.arquivo = arquivo;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Cada conjunto de parâmetros de rendimento é lido uma única vez.
+	 */
+	@Override
+	public List<TurbinaTransfer> carregaTurbinas() throws IOException {
+		abre();
+		TurbinaTransfer[] turbinas = new TurbinaTransfer[nTurbinas];
+		for (int i = 0; i < nTurbinas; i++) {
+			turbinas[i] = le(i);
+		}
+		return Arrays.asList(turbinas);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int contaTurbinas() throws IOException {
+		abre();
+		return nTurbinas;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Lê apenas o cabeçalho, na primeira chamada, e o registro da turbina.
+	 */
+	@Override
+	public TurbinaTransfer carregaTurbina(int indice) throws IOException {
+		abre();
+		if (indice < 0 || indice >= nTurbinas) {
+			throw new IndexOutOfBoundsException("Turbina " + indice + " inexistente (" + nTurbinas + " turbinas).");
+		}
+		return le(indice);
+	}
+
+	/**
+	 * Grava turbinas no formato lido por esta classe.
+	 *
+	 * @param arquivo Arquivo de destino.
+	 * @param turbinas Turbinas a gravar.
+	 * @throws IOException Se houver erro de escrita.
+	 */
+	public static void grava(Path arquivo, List<TurbinaTransfer> turbinas) throws IOException {
+
+		Map<List<Double>, Integer> indices = new HashMap<>();
+		List<Double[]> conjuntos = new ArrayList<>();
+		int[] conjuntoDe = new int[turbinas.size()];
+		for (int i = 0; i < turbinas.size(); i++) {
+			Double[] parametros = turbinas.get(i).getParametrosRendimento();
+			List<Double> chave = Arrays.asList(parametros);
+			Integer indice = indices.get(chave);
+			if (indice == null) {
+				indice = conjuntos.size();
+				indices.put(chave, indice);
+				conjuntos.add(parametros);
+			}
+			conjuntoDe[i] = indice;
+		}
+
+		try (OutputStream saidaArquivo = Files.newOutputStream(arquivo);
+				DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(saidaArquivo))) {
+
+			saida.writeInt(IDENTIFICADOR);
+			saida.writeInt(VERSAO);
+			saida.writeInt(turbinas.size());
+			saida.writeInt(conjuntos.size());
+			for (Double[] parametros : conjuntos) {
+				saida.writeInt(parametros.length);
+				for (Double parametro : parametros) {
+					saida.writeDouble(parametro);
+				}
+			}
+			for (int i = 0; i < turbinas.size(); i++) {
+				TurbinaTransfer turbina = turbinas.get(i);
+				saida.writeDouble(turbina.getLimiteMinDePotencia());
+				saida.writeDouble(turbina.getLimiteMaxDePotencia());
+				saida.writeDouble(turbina.getLimiteMinDeVazao());
+				saida.writeDouble(turbina.getLimiteMaxDeVazao());
+				saida.writeDouble(turbina.getQuedaBruta() == null ? Double.NaN : turbina.getQuedaBruta());
+				saida.writeInt(conjuntoDe[i]);
+				saida.writeByte(turbina.isLigado() ? 1 : 0);
+			}
+		}
+	}
+
+	/**
+	 * Mapeia o arquivo e lê o cabeçalho e os conjuntos de parâmetros, uma
+	 * única vez.
+	 */
+	private synchronized void abre() throws IOException {
+		if (buffer != null) {
+			return;
+		}
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			ByteBuffer mapeado = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+
+			if (mapeado.getInt() != IDENTIFICADOR || mapeado.getInt() != VERSAO) {
+				throw new IOException("Erro na leitura do arquivo binário " + arquivo + ": formato ou versão desconhecidos.");
+			}
+			int n = mapeado.getInt();
+			int nConjuntos = mapeado.getInt();
+			if (n < 0 || nConjuntos < 0) {
+				throw new IOException("Erro na leitura do arquivo binário " + arquivo + ": cabeçalho inválido.");
+			}
+			Double[][] lidos = new Double[nConjuntos][];
+			for (int i = 0; i < nConjuntos; i++) {
+				lidos[i] = new Double[mapeado.getInt()];
+				for (int j = 0; j < lidos[i].length; j++) {
+					lidos[i][j] = mapeado.getDouble();
+				}
+			}
+			if (mapeado.remaining() != (long) n * TAMANHO_REGISTRO) {
+				throw new IOException("Erro na leitura do arquivo binário " + arquivo + ": tamanho incompatível com "
+						+ n + " turbinas.");
+			}
+
+			conjuntos = lidos;
+			nTurbinas = n;
+			inicioRegistros = mapeado.position();
+			buffer = mapeado;
+
+		} catch (NoSuchFileException fnfe) {
+			throw new IOException("Erro na leitura do arquivo binário: arquivo não encontrado: " + arquivo + ".", fnfe);
+		} catch (BufferUnderflowException | NegativeArraySizeException ex) {
+			throw new IOException("Erro na leitura do arquivo binário " + arquivo + ": arquivo truncado.", ex);
+		}
+	}
+
+	private TurbinaTransfer le(int indice) throws IOException {
+		int posicao = inicioRegistros + indice * TAMANHO_REGISTRO;
+
+		int conjunto = buffer.getInt(posicao + 5 * 8);
+		if (conjunto < 0 || conjunto >= conjuntos.length) {
+			throw new IOException("Erro na leitura do arquivo binário " + arquivo + ": turbina " + indice
+					+ " com parâmetros inexistentes.");
+		}
+
+		TurbinaTransfer turbina = new TurbinaTransfer();
+		turbina.setLimiteMinDePotencia(buffer.getDouble(posicao));
+		turbina.setLimiteMaxDePotencia(buffer.getDouble(posicao + 8));
+		turbina.setLimiteMinDeVazao(buffer.getDouble(posicao + 16));
+		turbina.setLimiteMaxDeVazao(buffer.getDouble(posicao + 24));
+		double queda = buffer.getDouble(posicao + 32);
+		turbina.setQuedaBruta(Double.isNaN(queda) ? null : queda);
+		turbina.setParametrosRendimento(conjuntos[conjunto].clone());
+		turbina.setLigado(buffer.get(posicao + 5 * 8 + 4) != 0);
+		return turbina;
+	}
+}
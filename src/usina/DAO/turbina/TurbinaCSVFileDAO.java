@@ -1,121 +1,127 @@
 package usina.DAO.turbina;
 
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
+import usina.DAO.LeitorCSV;
 
 /**
- * 
+ *
  * @author Victor Soares
  * @version 1.0
- * 
- * @deprecated
  */
 public final class TurbinaCSVFileDAO implements TurbinaDAO {
 
-	String cvsSplitBy = ";";
+	/**
+	 * Diretório padrão dos arquivos de turbinas.
+	 */
+	public static final String DIRETORIO_PADRAO = "data/input/Turbinas";
+
+	private final Path parametros;
+	private final Path potencias;
+	private final Path vazoes;
+
+	public TurbinaCSVFileDAO() {
+		this(Paths.get(DIRETORIO_PADRAO, "parametrosRendimento.csv"),
+				Paths.get(DIRETORIO_PADRAO, "limitesPotencia.csv"),
+				Paths.get(DIRETORIO_PADRAO, "limitesVazoes.csv"));
+	}
+
+	/**
+	 * @param parametros Arquivo dos parâmetros de rendimento, um por linha.
+	 * @param potencias Arquivo dos limites de potência: mínimos na primeira
+	 *            linha, máximos na segunda, uma coluna por turbina.
+	 * @param vazoes Arquivo dos limites de vazão, no mesmo formato.
+	 */
+	public TurbinaCSVFileDAO(Path parametros, Path potencias, Path vazoes) {
+		this.parametros = parametros;
+		this.potencias = potencias;
+		this.vazoes = vazoes;
+	}
 
 	/**
 	 * {@inheritDoc}
-	 * 
-	 * Especializada para leitura de arquivos CSV. Utiliza formata��o de dados
+	 *
+	 * Especializada para leitura de arquivos CSV. Utiliza formatação de dados
 	 * inglesa, por manter a compatibilidade com os dados de entrada usados nos
 	 * programas Matlab, predecessores para alguns dos algoritmos e mantidos por
-	 * prop�sitos de teste de sa�da.
-	 * 
-	 * @deprecated
+	 * propósitos de teste de saída.
+	 *
+	 * <p>
+	 * Os arquivos são lidos em UTF-8 por {@link LeitorCSV}; erros de
+	 * formatação indicam arquivo, linha e coluna. A lista retornada é apoiada
+	 * em vetor. Os valores são lidos como primitivos; como
+	 * {@link TurbinaTransfer} guarda valores em caixa, os parâmetros de
+	 * rendimento são convertidos uma única vez e copiados para cada turbina.
+	 * </p>
 	 */
 	@Override
-	public final LinkedList<TurbinaTransfer> carregaTurbinas() throws IOException {
-
-		LinkedList<TurbinaTransfer> turbinas = new LinkedList<>();
-
-		try (
-				BufferedReader bufferParametros = new BufferedReader(
-						new FileReader("data/input/Turbinas/parametrosRendimento.csv"));
-				BufferedReader bufferPotencias = new BufferedReader(
-						new FileReader("data/input/Turbinas/limitesPotencia.csv"));
-				BufferedReader bufferVazoes = new BufferedReader(
-						new FileReader("data/input/Turbinas/limitesVazoes.csv"));) {
-
-			String minPotencias[] = bufferPotencias.readLine().split(cvsSplitBy);
-
-			String maxPotencias[] = bufferPotencias.readLine().split(cvsSplitBy);
-
-			String minVazoes[] = bufferVazoes.readLine().split(cvsSplitBy);
+	public final List<TurbinaTransfer> carregaTurbinas() throws IOException {
+
+		try {
+			LeitorCSV leitorPotencias = new LeitorCSV(potencias);
+			double[] minPotencias = leitorPotencias.proximaLinha();
+			double[] maxPotencias = leitorPotencias.proximaLinha();
+			if (maxPotencias == null) {
+				throw leitorPotencias.erro("limites mínimos e máximos esperados", 1);
+			}
+			if (minPotencias.length != maxPotencias.length) {
+				throw leitorPotencias.erro("Linhas de tamanhos variados", minPotencias.length + 1);
+			}
 
-			String maxVazoes[] = bufferVazoes.readLine().split(cvsSplitBy);
+			LeitorCSV leitorVazoes = new LeitorCSV(vazoes);
+			double[] minVazoes = leitorVazoes.proximaLinha();
+			double[] maxVazoes = leitorVazoes.proximaLinha();
+			if (maxVazoes == null) {
+				throw leitorVazoes.erro("limites mínimos e máximos esperados", 1);
+			}
+			if (minVazoes.length != maxVazoes.length || minVazoes.length != minPotencias.length) {
+				throw leitorVazoes.erro("Linhas de tamanhos variados", 1);
+			}
 
-			List<Double> parametrosRendimento = new ArrayList<>();
-			Double[] parametrosArray;
-			
-			String linha;
-			while((linha=bufferParametros.readLine())!=null){
-				if(linha.split(cvsSplitBy).length == 1){
-					
-				}else{
-					throw new IOException(
-							"Problemas de formatação - Erro na leitura dos parametros para turbinas(deve ter 1 por linha).");
+			LeitorCSV leitorParametros = new LeitorCSV(parametros);
+			double[] lidos = new double[8];
+			int n = 0;
+			while (leitorParametros.temProximaLinha()) {
+				if (n == lidos.length) {
+					lidos = Arrays.copyOf(lidos, 2 * n);
 				}
-				parametrosRendimento.add(Double.parseDouble(linha.split(cvsSplitBy)[0]));
+				lidos[n++] = leitorParametros.proximoValor();
 			}
-			parametrosArray=new Double[parametrosRendimento.size()];
-			for(int i=0; i<parametrosRendimento.size();i++)
-				parametrosArray[i]=parametrosRendimento.get(i);
-			
-
-			if ((minPotencias == null) || (maxPotencias == null)
-					|| (minPotencias.length != maxPotencias.length)
-					|| (minVazoes == null) || (maxVazoes == null)
-					|| (minVazoes.length != maxVazoes.length)
-					|| (minPotencias.length != minVazoes.length)) {
-
+			if (n == 0) {
 				throw new IOException(
-						"Problemas de formatação - Linhas de tamanhos variados");
+						"Erro na leitura dos parametros para turbinas (parametros não encontrados).");
 			}
-			if (parametrosRendimento.size() == 0) {
-				throw new IOException(
-						"Erro na leitura dos parametros para turbinas (parametros n�o encontrados).");
+			Double[] parametrosRendimento = new Double[n];
+			for (int i = 0; i < n; i++) {
+				parametrosRendimento[i] = lidos[i];
 			}
 
-			for (int i = 0; i < minPotencias.length; i++) {
+			TurbinaTransfer[] turbinas = new TurbinaTransfer[minPotencias.length];
+			for (int i = 0; i < turbinas.length; i++) {
 
 				TurbinaTransfer tmp = new TurbinaTransfer();
 
-				tmp.setLimiteMinDePotencia(Double.parseDouble(minPotencias[i]));
-				tmp.setLimiteMaxDePotencia(Double.parseDouble(maxPotencias[i]));
+				tmp.setLimiteMinDePotencia(minPotencias[i]);
+				tmp.setLimiteMaxDePotencia(maxPotencias[i]);
 
-				tmp.setLimiteMinDeVazao(Double.parseDouble(minVazoes[i]));
-				tmp.setLimiteMaxDeVazao(Double.parseDouble(maxVazoes[i]));
-				
-				tmp.setParametrosRendimento(parametrosArray);
-				turbinas.add(tmp);
-			}
-
-		} catch (NumberFormatException | NullPointerException nfe) {
+				tmp.setLimiteMinDeVazao(minVazoes[i]);
+				tmp.setLimiteMaxDeVazao(maxVazoes[i]);
 
-			String erro = "Erro na leitura do arquivo CSV :" +
-					" Problemas de formatação - Interpreta��o dos números.";
-
-			throw new IOException(erro, nfe);
+				tmp.setParametrosRendimento(parametrosRendimento);
+				turbinas[i] = tmp;
+			}
+			return Arrays.asList(turbinas);
 
-		} catch (FileNotFoundException fnfe) {
+		} catch (NoSuchFileException fnfe) {
 
 			String erro = "Erro na leitura do arquivo CSV :"
-					+ "Arquivo CSV não encontrado.";
+					+ "Arquivo CSV não encontrado: " + fnfe.getFile() + ".";
 
 			throw new IOException(erro, fnfe);
-
-		} catch (IOException ioe) {
-
-			String erro = "Erro na leitura do arquivo CSV.";
-			throw new IOException(erro, ioe);
 		}
-
-		return turbinas;
 	}
 }
@@ -9,10 +9,8 @@ import java.util.List;
  *
  * @author Victor Soares
  * @version 1.0
- * 
- * @deprecated
  */
-public interface TurbinaDAO {
+public interface TurbinaDAO extends AutoCloseable {
 
     /**
      * Realiza a leitura de objetos do tipo TubinaTranfer.
@@ -22,4 +20,49 @@ public interface TurbinaDAO {
      * @see TurbinaTransfer
      */
     public List<TurbinaTransfer> carregaTurbinas() throws Exception;
+
+    /**
+     * Recupera o número de turbinas da origem.
+     *
+     * <p>
+     * A implementação padrão carrega todas as turbinas; origens com acesso
+     * direto por turbina devem especializá-la.
+     * </p>
+     *
+     * @return Número de turbinas.
+     * @throws Exception
+     */
+    public default int contaTurbinas() throws Exception {
+        return carregaTurbinas().size();
+    }
+
+    /**
+     * Realiza a leitura de uma única turbina.
+     *
+     * <p>
+     * A implementação padrão carrega todas as turbinas; origens com acesso
+     * direto por turbina devem especializá-la.
+     * </p>
+     *
+     * @param indice Posição da turbina, a partir de 0.
+     * @return Turbina lida.
+     * @throws Exception
+     * @throws IndexOutOfBoundsException Se não houver turbina na posição.
+     */
+    public default TurbinaTransfer carregaTurbina(int indice) throws Exception {
+        return carregaTurbinas().get(indice);
+    }
+
+    /**
+     * Libera os recursos da origem, como conexões abertas.
+     *
+     * <p>
+     * A implementação padrão não faz nada.
+     * </p>
+     *
+     * @throws Exception
+     */
+    @Override
+    public default void close() throws Exception {
+    }
 }
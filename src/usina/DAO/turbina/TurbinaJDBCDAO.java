@@ -0,0 +1,292 @@
+/**
+ *
+ */
+package usina.DAO.turbina;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura de turbinas em banco de dados local, por JDBC.
+ *
+ * <p>
+ * Independe do banco: o driver embarcado (H2, SQLite, Derby...) é escolhido
+ * pela URL e precisa apenas estar no classpath, por exemplo
+ * <code>jdbc:h2:file:data/input/Turbinas/turbinas</code> ou
+ * <code>jdbc:sqlite:data/input/Turbinas/turbinas.db</code>. O H2 (2.1.x, a
+ * última linha para Java 8) é referenciado fora do projeto, como a biblioteca
+ * de Inteligência Computacional: ver <code>file.reference.h2.jar</code> em
+ * <code>nbproject/project.properties</code>. O esquema usa duas tabelas:
+ * </p>
+ * <pre>
+ * turbina (id, ligada, potencia_min, potencia_max, vazao_min, vazao_max, queda_bruta)
+ * parametro_rendimento (turbina, ordem, valor)
+ * </pre>
+ *
+ * <p>
+ * A leitura em lote usa uma consulta por tabela, ordenadas por turbina; a
+ * leitura de uma turbina usa consultas preparadas pela chave
+ * <code>id</code>, que {@link #grava(List)} numera a partir de 0, na ordem
+ * da lista. Uma única conexão é aberta no primeiro acesso e reutilizada até
+ * {@link #close()}; o acesso é serializado.
+ * </p>
+ *
+ * @author Victor Soares
+ * @version 1.0
+ *
+ * @see #criaTabelas()
+ * @see #grava(List)
+ */
+public final class TurbinaJDBCDAO implements TurbinaDAO {
+
+	private final String url;
+
+	private Connection conexao;
+	private PreparedStatement consultaTurbina;
+	private PreparedStatement consultaParametros;
+
+	/**
+	 * @param url URL JDBC do banco.
+	 */
+	public TurbinaJDBCDAO(String url) {
+		if (url == null) {
+			throw new NullPointerException("URL JDBC nula.");
+		}
+		this.url = url;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized List<TurbinaTransfer> carregaTurbinas() throws SQLException {
+
+		List<TurbinaTransfer> turbinas = new ArrayList<>();
+		List<Integer> ids = new ArrayList<>();
+
+		try (Statement consulta = conexao().createStatement()) {
+
+			try (ResultSet linhas = consulta.executeQuery(
+					"SELECT id, ligada, potencia_min, potencia_max, vazao_min, vazao_max, queda_bruta"
+					+ " FROM turbina ORDER BY id")) {
+				while (linhas.next()) {
+					ids.add(linhas.getInt(1));
+					turbinas.add(le(linhas));
+				}
+			}
+
+			List<Double> parametros = new ArrayList<>();
+			int posicao = 0;
+			try (ResultSet linhas = consulta.executeQuery(
+					"SELECT turbina, valor FROM parametro_rendimento ORDER BY turbina, ordem")) {
+				while (linhas.next()) {
+					int turbina = linhas.getInt(1);
+					while (posicao < ids.size() && ids.get(posicao) < turbina) {
+						turbinas.get(posicao++).setParametrosRendimento(parametros.toArray(new Double[0]));
+						parametros.clear();
+					}
+					if (posicao < ids.size() && ids.get(posicao) == turbina) {
+						parametros.add(linhas.getDouble(2));
+					}
+				}
+			}
+			while (posicao < ids.size()) {
+				turbinas.get(posicao++).setParametrosRendimento(parametros.toArray(new Double[0]));
+				parametros.clear();
+			}
+		}
+		return turbinas;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized int contaTurbinas() throws SQLException {
+		try (Statement consulta = conexao().createStatement();
+				ResultSet linhas = consulta.executeQuery("SELECT COUNT(*) FROM turbina")) {
+			linhas.next();
+			return linhas.getInt(1);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * A posição é o identificador da turbina, lida pela chave com consultas
+	 * preparadas uma única vez.
+	 */
+	@Override
+	public synchronized TurbinaTransfer carregaTurbina(int indice) throws SQLException {
+		if (consultaTurbina == null) {
+			consultaTurbina = conexao().prepareStatement(
+					"SELECT id, ligada, potencia_min, potencia_max, vazao_min, vazao_max, queda_bruta"
+					+ " FROM turbina WHERE id = ?");
+			consultaParametros = conexao.prepareStatement(
+					"SELECT valor FROM parametro_rendimento WHERE turbina = ? ORDER BY ordem");
+		}
+
+		TurbinaTransfer turbina;
+		consultaTurbina.setInt(1, indice);
+		try (ResultSet linhas = consultaTurbina.executeQuery()) {
+			if (!linhas.next()) {
+				throw new IndexOutOfBoundsException("Turbina " + indice + " inexistente.");
+			}
+			turbina = le(linhas);
+		}
+
+		List<Double> valores = new ArrayList<>();
+		consultaParametros.setInt(1, indice);
+		try (ResultSet linhas = consultaParametros.executeQuery()) {
+			while (linhas.next()) {
+				valores.add(linhas.getDouble(1));
+			}
+		}
+		turbina.setParametrosRendimento(valores.toArray(new Double[0]));
+		return turbina;
+	}
+
+	/**
+	 * Cria as tabelas, se ainda não existirem.
+	 *
+	 * @throws SQLException Se houver erro no banco.
+	 */
+	public synchronized void criaTabelas() throws SQLException {
+		try (Statement comando = conexao().createStatement()) {
+			comando.executeUpdate("CREATE TABLE IF NOT EXISTS turbina (id INTEGER PRIMARY KEY, ligada BOOLEAN,"
+					+ " potencia_min DOUBLE PRECISION, potencia_max DOUBLE PRECISION,"
+					+ " vazao_min DOUBLE PRECISION, vazao_max DOUBLE PRECISION, queda_bruta DOUBLE PRECISION)");
+			comando.executeUpdate("CREATE TABLE IF NOT EXISTS parametro_rendimento (turbina INTEGER, ordem INTEGER,"
+					+ " valor DOUBLE PRECISION, PRIMARY KEY (turbina, ordem))");
+		}
+	}
+
+	/**
+	 * Substitui as turbinas do banco, em uma única transação e com inserções
+	 * em lote. Os identificadores seguem a ordem da lista. As turbinas são
+	 * validadas antes de qualquer alteração, e a transação é desfeita em
+	 * qualquer falha.
+	 *
+	 * @param turbinas Turbinas a gravar.
+	 * @throws SQLException Se houver erro no banco; nada é alterado.
+	 * @throws IllegalArgumentException Se alguma turbina não tiver limites ou
+	 * parâmetros de rendimento; nada é alterado.
+	 */
+	public synchronized void grava(List<TurbinaTransfer> turbinas) throws SQLException {
+		for (int i = 0; i < turbinas.size(); i++) {
+			valida(turbinas.get(i), i);
+		}
+
+		Connection conexao = conexao();
+		conexao.setAutoCommit(false);
+		try (Statement limpeza = conexao.createStatement();
+				PreparedStatement insereTurbina = conexao.prepareStatement(
+						"INSERT INTO turbina (id, ligada, potencia_min, potencia_max, vazao_min, vazao_max, queda_bruta)"
+						+ " VALUES (?, ?, ?, ?, ?, ?, ?)");
+				PreparedStatement insereParametro = conexao.prepareStatement(
+						"INSERT INTO parametro_rendimento (turbina, ordem, valor) VALUES (?, ?, ?)")) {
+
+			limpeza.executeUpdate("DELETE FROM parametro_rendimento");
+			limpeza.executeUpdate("DELETE FROM turbina");
+
+			for (int i = 0; i < turbinas.size(); i++) {
+				TurbinaTransfer turbina = turbinas.get(i);
+				insereTurbina.setInt(1, i);
+				insereTurbina.setBoolean(2, turbina.isLigado());
+				insereTurbina.setDouble(3, turbina.getLimiteMinDePotencia());
+				insereTurbina.setDouble(4, turbina.getLimiteMaxDePotencia());
+				insereTurbina.setDouble(5, turbina.getLimiteMinDeVazao());
+				insereTurbina.setDouble(6, turbina.getLimiteMaxDeVazao());
+				if (turbina.getQuedaBruta() == null) {
+					insereTurbina.setNull(7, Types.DOUBLE);
+				} else {
+					insereTurbina.setDouble(7, turbina.getQuedaBruta());
+				}
+				insereTurbina.addBatch();
+
+				Double[] parametros = turbina.getParametrosRendimento();
+				for (int j = 0; j < parametros.length; j++) {
+					insereParametro.setInt(1, i);
+					insereParametro.setInt(2, j);
+					insereParametro.setDouble(3, parametros[j]);
+					insereParametro.addBatch();
+				}
+			}
+			insereTurbina.executeBatch();
+			insereParametro.executeBatch();
+			conexao.commit();
+
+		} catch (SQLException | RuntimeException ex) {
+			conexao.rollback();
+			throw ex;
+		} finally {
+			conexao.setAutoCommit(true);
+		}
+	}
+
+	/**
+	 * Fecha a conexão, se aberta; um novo acesso abre outra.
+	 *
+	 * @throws SQLException Se houver erro ao fechar a conexão.
+	 */
+	@Override
+	public synchronized void close() throws SQLException {
+		if (conexao != null) {
+			try {
+				conexao.close();
+			} finally {
+				conexao = null;
+				consultaTurbina = null;
+				consultaParametros = null;
+			}
+		}
+	}
+
+	/**
+	 * Conexão compartilhada, aberta no primeiro acesso.
+	 */
+	private Connection conexao() throws SQLException {
+		if (conexao == null) {
+			conexao = DriverManager.getConnection(url);
+		}
+		return conexao;
+	}
+
+	private static void valida(TurbinaTransfer turbina, int indice) {
+		if (turbina == null) {
+			throw new IllegalArgumentException("Turbina " + indice + " nula.");
+		}
+		if (turbina.getLimiteMinDePotencia() == null || turbina.getLimiteMaxDePotencia() == null
+				|| turbina.getLimiteMinDeVazao() == null || turbina.getLimiteMaxDeVazao() == null) {
+			throw new IllegalArgumentException("Turbina " + indice + " sem limites de operação.");
+		}
+		Double[] parametros = turbina.getParametrosRendimento();
+		if (parametros == null) {
+			throw new IllegalArgumentException("Turbina " + indice + " sem parâmetros de rendimento.");
+		}
+		for (Double parametro : parametros) {
+			if (parametro == null) {
+				throw new IllegalArgumentException("Turbina " + indice + " com parâmetro de rendimento nulo.");
+			}
+		}
+	}
+
+	private static TurbinaTransfer le(ResultSet linhas) throws SQLException {
+		TurbinaTransfer turbina = new TurbinaTransfer();
+		turbina.setLigado(linhas.getBoolean(2));
+		turbina.setLimiteMinDePotencia(linhas.getDouble(3));
+		turbina.setLimiteMaxDePotencia(linhas.getDouble(4));
+		turbina.setLimiteMinDeVazao(linhas.getDouble(5));
+		turbina.setLimiteMaxDeVazao(linhas.getDouble(6));
+		double queda = linhas.getDouble(7);
+		turbina.setQuedaBruta(linhas.wasNull() ? null : queda);
+		return turbina;
+	}
+}
@@ -9,8 +9,6 @@ import java.io.Serializable;
  * 
  * @author Victor Soares
  * @version 1.0
- * 
- * @deprecated
  */
 public final class TurbinaTransfer implements Serializable {
 	
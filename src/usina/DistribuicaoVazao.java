@@ -69,6 +69,31 @@ public final class DistribuicaoVazao extends SerReal<Double> {
         return getCaracteristicas().stream().mapToDouble(locus -> ((Fluxo) locus).getVazao()).sum();
     }
 
+    /**
+     * Copia as vazões da distribuição para um vetor primitivo.
+     *
+     * @since 1.0
+     * @param destino Vetor de destino, com ao menos {@link #getSize()}
+     * posições.
+     * @return O próprio vetor de destino.
+     */
+    public double[] getVazoes(double[] destino) {
+        for (int i = 0; i < getSize(); i++) {
+            destino[i] = ((Fluxo) getCaracteristica(i)).getVazao();
+        }
+        return destino;
+    }
+
+    /**
+     * Retorna as vazões da distribuição em um novo vetor primitivo.
+     *
+     * @since 1.0
+     * @return Vetor de vazões, na ordem das turbinas.
+     */
+    public double[] getVazoes() {
+        return getVazoes(new double[getSize()]);
+    }
+
     public String toStringDetalhado() {
         StringBuilder detalhes = new StringBuilder();
 
@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package usina;
+
+/**
+ * Modelo de queda bruta acoplada à operação da usina.
+ *
+ * <p>
+ * A queda bruta é a diferença entre a cota de montante, polinômio do nível do
+ * reservatório, e a cota de jusante, polinômio da vazão defluente total:
+ * <code>H = montante(nível) - jusante(Q)</code>. Como o canal de fuga sobe
+ * com a defluência, a queda de todas as turbinas depende da distribuição
+ * inteira, e não apenas da vazão de cada uma. A defluência considerada é a
+ * soma das vazões turbinadas.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see ContextoDeAvaliacao#getNivel()
+ */
+public final class ModeloDeQueda {
+
+    private final Polinomio montante;
+    private final Polinomio jusante;
+
+    /**
+     * Construtor.
+     *
+     * @param montante Cota de montante [m] em função do nível do reservatório
+     * [m].
+     * @param jusante Cota de jusante [m] em função da vazão defluente total
+     * [m^3/s].
+     */
+    public ModeloDeQueda(Polinomio montante, Polinomio jusante) {
+        if (montante == null || jusante == null) {
+            throw new NullPointerException("Referência a polinômio nula");
+        }
+        this.montante = montante;
+        this.jusante = jusante;
+    }
+
+    /**
+     * Calcula a queda bruta.
+     *
+     * @param nivel Nível do reservatório [m].
+     * @param vazaoTotal Vazão defluente total [m^3/s].
+     * @return Queda bruta [m].
+     */
+    public double getQuedaBruta(double nivel, double vazaoTotal) {
+        return montante.valor(nivel) - jusante.valor(vazaoTotal);
+    }
+
+    public Polinomio getMontante() {
+        return montante;
+    }
+
+    public Polinomio getJusante() {
+        return jusante;
+    }
+}
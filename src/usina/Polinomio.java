@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package usina;
+
+import java.util.Arrays;
+
+/**
+ * Polinômio de uma variável com coeficientes reais.
+ *
+ * <p>
+ * Os coeficientes seguem a convenção do <code>polyval</code> do Matlab, do
+ * maior grau para o termo independente, a mesma dos arquivos de entrada. O
+ * valor e a derivada são calculados pelo esquema de Horner: um produto e
+ * uma soma por coeficiente, sem alocação de objetos.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class Polinomio {
+
+    private final double[] coeficientes;
+
+    /**
+     * Construtor.
+     *
+     * @param coeficientes Coeficientes, do maior grau para o termo
+     * independente. O vetor é copiado.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se não houver coeficientes.</li>
+     * </ul>
+     */
+    public Polinomio(double... coeficientes) {
+        if (coeficientes.length == 0) {
+            throw new IllegalArgumentException("Polinômio sem coeficientes.");
+        }
+        this.coeficientes = coeficientes.clone();
+    }
+
+    /**
+     * Calcula o valor do polinômio.
+     *
+     * @param x Variável.
+     * @return Valor em <code>x</code>.
+     */
+    public double valor(double x) {
+        double valor = coeficientes[0];
+        for (int i = 1; i < coeficientes.length; i++) {
+            valor = valor * x + coeficientes[i];
+        }
+        return valor;
+    }
+
+    /**
+     * Calcula a derivada do polinômio.
+     *
+     * @param x Variável.
+     * @return Derivada em <code>x</code>.
+     */
+    public double derivada(double x) {
+        int grau = coeficientes.length - 1;
+        double derivada = 0;
+        for (int i = 0; i < grau; i++) {
+            derivada = derivada * x + (grau - i) * coeficientes[i];
+        }
+        return derivada;
+    }
+
+    /**
+     * Calcula o valor e a derivada em uma única passada.
+     *
+     * @param x Variável.
+     * @param derivadas Vetor de saída: recebe a derivada na posição
+     * <code>posicao</code>.
+     * @param posicao Posição do vetor de saída.
+     * @return Valor em <code>x</code>.
+     */
+    public double valor(double x, double[] derivadas, int posicao) {
+        double valor = coeficientes[0];
+        double derivada = 0;
+        for (int i = 1; i < coeficientes.length; i++) {
+            derivada = derivada * x + valor;
+            valor = valor * x + coeficientes[i];
+        }
+        derivadas[posicao] = derivada;
+        return valor;
+    }
+
+    /**
+     * @return Grau do polinômio.
+     */
+    public int getGrau() {
+        return coeficientes.length - 1;
+    }
+
+    /**
+     * @return Coeficientes, do maior grau para o termo independente (cópia).
+     */
+    public double[] getCoeficientes() {
+        return coeficientes.clone();
+    }
+
+    @Override
+    public boolean equals(Object objeto) {
+        return objeto instanceof Polinomio && Arrays.equals(coeficientes, ((Polinomio) objeto).coeficientes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(coeficientes);
+    }
+
+    @Override
+    public String toString() {
+        return "Polinomio " + Arrays.toString(coeficientes);
+    }
+}
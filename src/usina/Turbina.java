@@ -23,6 +23,8 @@
  */
 package usina;
 
+import java.util.Arrays;
+import java.util.Objects;
 import usina.tubulacao.Conduto;
 import static java.lang.Math.pow;
 
@@ -45,6 +47,11 @@ import static java.lang.Math.pow;
  */
 public final class Turbina {
 
+    /**
+     * Constante de conversão para potência: gravidade [m/s^2] * 10^-3.
+     */
+    private static final double K = 9.8 * pow(10, -3);
+
     private Double limiteMinDePotencia;
     private Double limiteMaxDePotencia;
 
@@ -59,6 +66,8 @@ public final class Turbina {
     private Double quedaBruta;
     private Conduto conduto;
 
+    private Polinomio caracteristica;
+
     /**
      * Construtor.
      *
@@ -298,6 +307,9 @@ public final class Turbina {
      * @return Potência da turbina.
      */
     public final Double getPotencia(Fluxo fluxo) {
+        if (caracteristica != null) {
+            return caracteristica.valor(fluxo.getVazao());
+        }
         Double rendimento = getRendimento(fluxo);
         Double k = 9.8*pow(10,-3);
         
@@ -307,6 +319,206 @@ public final class Turbina {
         return k*rendimento*quedaLiquida*vazao;
     }
 
+    /**
+     * Calcula o rendimento da turbina dada uma vazão, para o coeficiente de
+     * Reynolds padrão.
+     *
+     * <p>
+     * Versão primitiva de {@link #getRendimento(usina.Fluxo)}, destinada aos
+     * laços internos de avaliação.
+     * </p>
+     *
+     * @since 1.0
+     * @param vazao Vazão turbinada [m^3/s].
+     * @return Rendimento da turbina.
+     */
+    public final double getRendimento(double vazao) {
+        return getRendimento(vazao, quedaBruta - conduto.getPerdaHidraulica(vazao));
+    }
+
+    /**
+     * Calcula a potência gerada pela turbina dada uma vazão, para o
+     * coeficiente de Reynolds padrão.
+     *
+     * <p>
+     * Versão primitiva de {@link #getPotencia(usina.Fluxo)}: a perda no
+     * conduto é calculada uma única vez e nenhum objeto é alocado.
+     * </p>
+     *
+     * @since 1.0
+     * @param vazao Vazão turbinada [m^3/s].
+     * @return Potência da turbina.
+     */
+    public final double getPotencia(double vazao) {
+        if (caracteristica != null) {
+            return caracteristica.valor(vazao);
+        }
+        double quedaLiquida = quedaBruta - conduto.getPerdaHidraulica(vazao);
+        return K * getRendimento(vazao, quedaLiquida) * quedaLiquida * vazao;
+    }
+
+    /**
+     * Calcula a potência gerada pela turbina dada uma vazão e uma queda bruta
+     * de operação, no lugar da queda de instalação.
+     *
+     * @since 1.0
+     * @param vazao Vazão turbinada [m^3/s].
+     * @param quedaBruta Queda bruta de operação [m].
+     * @return Potência da turbina.
+     *
+     * @see ContextoDeAvaliacao
+     */
+    public final double getPotencia(double vazao, double quedaBruta) {
+        if (caracteristica != null) {
+            return caracteristica.valor(vazao);
+        }
+        double quedaLiquida = quedaBruta - conduto.getPerdaHidraulica(vazao);
+        return K * getRendimento(vazao, quedaLiquida) * quedaLiquida * vazao;
+    }
+
+    /**
+     * Calcula a derivada da potência em relação à vazão, dP/dQ, de forma
+     * analítica, para o coeficiente de Reynolds padrão.
+     *
+     * <p>
+     * Com <code>P = K·η(h, Q)·h·Q</code> e <code>h = H - perda(Q)</code>:
+     * <code>dP/dQ = K·(η'·h·Q + η·h'·Q + η·h)</code>, onde
+     * <code>η' = ∂η/∂h·h' + ∂η/∂Q</code> e <code>h' = -perda'(Q)</code>.
+     * </p>
+     *
+     * @since 1.0
+     * @param vazao Vazão turbinada [m^3/s].
+     * @return Derivada da potência [MW/(m^3/s)].
+     */
+    public final double getDerivadaPotencia(double vazao) {
+        if (caracteristica != null) {
+            return caracteristica.derivada(vazao);
+        }
+        double quedaLiquida = quedaBruta - conduto.getPerdaHidraulica(vazao);
+        return getDerivadaPotencia(vazao, quedaLiquida, getRendimento(vazao, quedaLiquida),
+                -conduto.getDerivadaPerdaHidraulica(vazao));
+    }
+
+    /**
+     * Calcula a derivada da potência em relação à vazão para uma queda bruta
+     * de operação, no lugar da queda de instalação.
+     *
+     * @since 1.0
+     * @param vazao Vazão turbinada [m^3/s].
+     * @param quedaBruta Queda bruta de operação [m].
+     * @return Derivada da potência [MW/(m^3/s)].
+     *
+     * @see #getPotencia(double, double)
+     */
+    public final double getDerivadaPotencia(double vazao, double quedaBruta) {
+        if (caracteristica != null) {
+            return caracteristica.derivada(vazao);
+        }
+        double quedaLiquida = quedaBruta - conduto.getPerdaHidraulica(vazao);
+        return getDerivadaPotencia(vazao, quedaLiquida, getRendimento(vazao, quedaLiquida),
+                -conduto.getDerivadaPerdaHidraulica(vazao));
+    }
+
+    /**
+     * Calcula a potência e sua derivada em relação à vazão em uma única
+     * avaliação da cadeia hidráulica, sem alocação de objetos.
+     *
+     * @since 1.0
+     * @param vazao Vazão turbinada [m^3/s].
+     * @param derivadas Vetor de saída: recebe dP/dQ na posição
+     * <code>posicao</code>.
+     * @param posicao Posição do vetor de saída.
+     * @return Potência da turbina.
+     *
+     * @see #getPotencia(double)
+     * @see #getDerivadaPotencia(double)
+     */
+    public final double getPotencia(double vazao, double[] derivadas, int posicao) {
+        return getPotencia(vazao, quedaBruta, derivadas, posicao);
+    }
+
+    /**
+     * Calcula a potência e sua derivada em relação à vazão, em uma única
+     * avaliação da cadeia hidráulica, para uma queda bruta de operação no
+     * lugar da queda de instalação.
+     *
+     * @since 1.0
+     * @param vazao Vazão turbinada [m^3/s].
+     * @param quedaBruta Queda bruta de operação [m].
+     * @param derivadas Vetor de saída: recebe dP/dQ na posição
+     * <code>posicao</code>.
+     * @param posicao Posição do vetor de saída.
+     * @return Potência da turbina.
+     *
+     * @see #getPotencia(double, double)
+     * @see #getDerivadaPotencia(double, double)
+     */
+    public final double getPotencia(double vazao, double quedaBruta, double[] derivadas, int posicao) {
+        if (caracteristica != null) {
+            return caracteristica.valor(vazao, derivadas, posicao);
+        }
+        double quedaLiquida = quedaBruta - conduto.getPerdaHidraulica(vazao, derivadas, posicao);
+        double rendimento = getRendimento(vazao, quedaLiquida);
+
+        derivadas[posicao] = getDerivadaPotencia(vazao, quedaLiquida, rendimento, -derivadas[posicao]);
+        return K * rendimento * quedaLiquida * vazao;
+    }
+
+    private double getDerivadaPotencia(double vazao, double quedaLiquida,
+            double rendimento, double derivadaQueda) {
+        double derivadaRendimento = (parametrosRendimento[1]
+                + parametrosRendimento[3] * vazao
+                + 2 * parametrosRendimento[4] * quedaLiquida) * derivadaQueda
+                + parametrosRendimento[2]
+                + parametrosRendimento[3] * quedaLiquida
+                + 2 * parametrosRendimento[5] * vazao;
+
+        return K * (derivadaRendimento * quedaLiquida * vazao
+                + rendimento * derivadaQueda * vazao
+                + rendimento * quedaLiquida);
+    }
+
+    private double getRendimento(double vazao, double quedaLiquida) {
+        return parametrosRendimento[0]
+                + parametrosRendimento[1] * quedaLiquida
+                + parametrosRendimento[2] * vazao
+                + parametrosRendimento[3] * quedaLiquida * vazao
+                + parametrosRendimento[4] * (quedaLiquida * quedaLiquida)
+                + parametrosRendimento[5] * (vazao * vazao);
+    }
+
+    /**
+     * Define uma curva característica polinomial de potência [MW] em função
+     * da vazão [m^3/s], que substitui o modelo da cadeia hidráulica.
+     *
+     * <p>
+     * Com curva característica, a potência e sua derivada são calculadas
+     * apenas pelo polinômio, pelo esquema de Horner, e independem do conduto e da
+     * queda bruta, inclusive a de contextos de avaliação. O rendimento
+     * continua sendo o do modelo hidráulico.
+     * </p>
+     *
+     * @since 1.0
+     * @param caracteristica Curva característica, ou <code>null</code> para o
+     * modelo da cadeia hidráulica.
+     *
+     * @see usina.DAO.coeficientes.CoeficientesDAO
+     */
+    public final void setCaracteristica(Polinomio caracteristica) {
+        this.caracteristica = caracteristica;
+    }
+
+    /**
+     * Recupera a curva característica polinomial da turbina.
+     *
+     * @since 1.0
+     * @return Curva característica, ou <code>null</code> se a potência vem do
+     * modelo da cadeia hidráulica.
+     */
+    public final Polinomio getCaracteristica() {
+        return caracteristica;
+    }
+
     /**
      * Verifica o estado da turbina, ligada/desligada.
      *
@@ -384,6 +596,39 @@ public final class Turbina {
         return quedaBruta;
     }
 
+    /**
+     * Verifica se duas turbinas instaladas são intercambiáveis: mesmos
+     * limites, parâmetros de rendimento, queda bruta e curva característica,
+     * e, sem curva característica, condutos com os mesmos segmentos.
+     *
+     * @see Conduto#isEquivalente(usina.tubulacao.Conduto)
+     *
+     * @since 1.0
+     * @param outra Turbina a comparar.
+     * @return <code>true</code> se as turbinas forem equivalentes.
+     */
+    public final boolean isEquivalente(Turbina outra) {
+        if (outra == this) {
+            return true;
+        }
+        if (!limiteMinDePotencia.equals(outra.limiteMinDePotencia)
+                || !limiteMaxDePotencia.equals(outra.limiteMaxDePotencia)
+                || !limiteMinDeVazao.equals(outra.limiteMinDeVazao)
+                || !limiteMaxDeVazao.equals(outra.limiteMaxDeVazao)
+                || !Arrays.equals(parametrosRendimento, outra.parametrosRendimento)
+                || !Objects.equals(quedaBruta, outra.quedaBruta)
+                || !Objects.equals(caracteristica, outra.caracteristica)) {
+            return false;
+        }
+        if (caracteristica != null) {
+            return true;
+        }
+        if (!isConectada() || !outra.isConectada()) {
+            return !isConectada() && !outra.isConectada();
+        }
+        return conduto.isEquivalente(outra.conduto);
+    }
+
     @Override
     public String toString() {
 
@@ -55,7 +55,9 @@ public final class Usina extends Ambiente<Double, DistribuicaoVazao> {
 
     private final List<Turbina> turbinas;
     private final List<Conduto> condutos;
-    private Double meta;
+    private final ModeloDeQueda modeloDeQueda;
+    private volatile ContextoDeAvaliacao contexto;
+    private volatile int[][] simetrias;
 
     /**
      * Construtor.
@@ -71,6 +73,26 @@ public final class Usina extends Ambiente<Double, DistribuicaoVazao> {
      * </ul>
      */
     public Usina(List<Turbina> turbinas, List<Conduto> condutos) {
+        this(turbinas, condutos, null);
+    }
+
+    /**
+     * Construtor com modelo de queda acoplada.
+     *
+     * @param turbinas Turbinas da usina.
+     * @param condutos Condutos da usina.
+     * @param modeloDeQueda Modelo de queda bruta, usado nos contextos que
+     * definem o nível do reservatório, ou <code>null</code>.
+     *
+     * @since 1.0
+     * @throws NullPointerException
+     * <ul>
+     * Se turbinas ou condutos forem referências nulas.
+     * </ul>
+     *
+     * @see ContextoDeAvaliacao#getNivel()
+     */
+    public Usina(List<Turbina> turbinas, List<Conduto> condutos, ModeloDeQueda modeloDeQueda) {
         super(Ambiente.Modo.MAXIMIZACAO);
         if (turbinas == null) {
             throw new NullPointerException("Referência a turbinas nula");
@@ -80,22 +102,163 @@ public final class Usina extends Ambiente<Double, DistribuicaoVazao> {
         }
         this.turbinas = turbinas;
         this.condutos = condutos;
+        this.modeloDeQueda = modeloDeQueda;
     }
 
+    /**
+     * Construtor de visões: compartilha o modelo de outra usina.
+     */
+    private Usina(Usina modelo, ContextoDeAvaliacao contexto) {
+        super(Ambiente.Modo.MAXIMIZACAO);
+        this.turbinas = modelo.turbinas;
+        this.condutos = modelo.condutos;
+        this.modeloDeQueda = modelo.modeloDeQueda;
+        this.simetrias = modelo.simetrias;
+        this.contexto = contexto;
+    }
+
+    /**
+     * Cria uma visão desta usina com um contexto de avaliação próprio.
+     *
+     * <p>
+     * A visão compartilha turbinas e condutos com esta usina, sem cópias, e
+     * serve aos algoritmos que avaliam por {@link #avalia(usina.DistribuicaoVazao)},
+     * que não recebe contexto. Visões diferentes podem ser usadas em paralelo.
+     * </p>
+     *
+     * @since 1.0
+     * @param contexto Contexto da visão.
+     * @return Visão da usina.
+     */
+    public Usina comContexto(ContextoDeAvaliacao contexto) {
+        if (contexto == null) {
+            throw new NullPointerException("Referência ao contexto nula");
+        }
+        return new Usina(this, contexto);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Avalia no contexto corrente da usina.
+     *
+     * @see #getContexto()
+     */
     @Override
     public Double avalia(DistribuicaoVazao vazoes) {
 
-        if (getMeta() == null) {
-            throw new IllegalStateException("Meta não atribuida");
+        ContextoDeAvaliacao contexto = getContextoAtribuido();
+        if (!contexto.isPadrao()) {
+            return avalia(vazoes.getVazoes(), contexto);
         }
 
+        Double meta = contexto.getMeta();
         Double potencia = vazoes.getPotenciaTotal();
         Double vazao = vazoes.getVazaoTotal();
 
         Double eficiencia = potencia / vazao;
 
         //Barreira
-        if (potencia < getMeta() * 0.999 || potencia > getMeta() * 1.001) {
+        if (potencia < meta * 0.999 || potencia > meta * 1.001) {
+            eficiencia *= .9;
+        }
+
+        return eficiencia;
+    }
+
+    /**
+     * Avalia uma distribuição de vazão representada por um vetor primitivo,
+     * no contexto corrente da usina.
+     *
+     * @since 1.0
+     * @param vazoes Vazões, na ordem das turbinas.
+     * @return Grau de adaptação da distribuição.
+     * @throws IllegalStateException
+     * <ul>
+     * <li>Se a meta não tiver sido atribuída.</li>
+     * </ul>
+     *
+     * @see #avalia(double[], usina.ContextoDeAvaliacao)
+     */
+    public double avalia(double[] vazoes) {
+        return avalia(vazoes, getContextoAtribuido());
+    }
+
+    /**
+     * Avalia uma distribuição de vazão representada por um vetor primitivo,
+     * em um contexto de avaliação.
+     *
+     * <p>
+     * Equivalente a {@link #avalia(usina.DistribuicaoVazao)}, mas calculado em
+     * uma única passada sobre as turbinas, sem alocação de objetos: destinado
+     * aos laços internos dos otimizadores. Não lê nem altera estado da usina,
+     * e pode ser usado em paralelo com contextos diferentes.
+     * </p>
+     *
+     * <p>
+     * Turbinas indisponíveis no contexto não contribuem com potência nem com
+     * vazão, quaisquer que sejam as vazões atribuídas a elas.
+     * </p>
+     *
+     * <p>
+     * Com nível do reservatório no contexto e modelo de queda na usina, a
+     * queda bruta comum é calculada uma única vez, a partir da vazão total,
+     * antes da passada sobre as turbinas.
+     * </p>
+     *
+     * @since 1.0
+     * @param vazoes Vazões, na ordem das turbinas.
+     * @param contexto Condições de operação.
+     * @return Grau de adaptação da distribuição.
+     * @throws IllegalStateException
+     * <ul>
+     * <li>Se o contexto definir o nível do reservatório e a usina não tiver
+     * modelo de queda.</li>
+     * </ul>
+     */
+    public double avalia(double[] vazoes, ContextoDeAvaliacao contexto) {
+
+        double meta = contexto.getMeta();
+
+        double potencia = 0;
+        double vazao = 0;
+        if (contexto.isPadrao()) {
+            for (int i = 0; i < vazoes.length; i++) {
+                potencia += turbinas.get(i).getPotencia(vazoes[i]);
+                vazao += vazoes[i];
+            }
+        } else {
+            double queda = contexto.getQuedaBruta();
+            if (!contexto.temQuedaBruta() && contexto.temNivel()) {
+                if (modeloDeQueda == null) {
+                    throw new IllegalStateException("Usina sem modelo de queda");
+                }
+                double defluencia = 0;
+                for (int i = 0; i < vazoes.length; i++) {
+                    if (contexto.isDisponivel(i)) {
+                        defluencia += vazoes[i];
+                    }
+                }
+                queda = modeloDeQueda.getQuedaBruta(contexto.getNivel(), defluencia);
+            }
+
+            boolean quedaComum = !Double.isNaN(queda);
+            for (int i = 0; i < vazoes.length; i++) {
+                if (!contexto.isDisponivel(i)) {
+                    continue;
+                }
+                Turbina turbina = turbinas.get(i);
+                potencia += quedaComum
+                        ? turbina.getPotencia(vazoes[i], queda)
+                        : turbina.getPotencia(vazoes[i]);
+                vazao += vazoes[i];
+            }
+        }
+
+        double eficiencia = potencia / vazao;
+
+        //Barreira
+        if (potencia < meta * 0.999 || potencia > meta * 1.001) {
             eficiencia *= .9;
         }
 
@@ -139,24 +302,235 @@ public final class Usina extends Ambiente<Double, DistribuicaoVazao> {
         return Collections.unmodifiableList(condutos);
     }
 
+    /**
+     * Recupera o modelo de queda acoplada da usina.
+     *
+     * @since 1.0
+     * @return Modelo de queda, ou <code>null</code> se a queda de cada turbina
+     * é a de instalação.
+     */
+    public ModeloDeQueda getModeloDeQueda() {
+        return modeloDeQueda;
+    }
+
+    /**
+     * Recupera os limites mínimos de vazão das turbinas.
+     *
+     * @since 1.0
+     * @return Novo vetor de limites, na ordem das turbinas.
+     */
+    public double[] getLimitesMinDeVazao() {
+        double[] limites = new double[turbinas.size()];
+        for (int i = 0; i < limites.length; i++) {
+            limites[i] = turbinas.get(i).getLimiteMinDeVazao();
+        }
+        return limites;
+    }
+
+    /**
+     * Recupera os limites máximos de vazão das turbinas.
+     *
+     * @since 1.0
+     * @return Novo vetor de limites, na ordem das turbinas.
+     */
+    public double[] getLimitesMaxDeVazao() {
+        double[] limites = new double[turbinas.size()];
+        for (int i = 0; i < limites.length; i++) {
+            limites[i] = turbinas.get(i).getLimiteMaxDeVazao();
+        }
+        return limites;
+    }
+
+    /**
+     * Recupera as classes de equivalência das turbinas: cada turbina recebe o
+     * índice da primeira turbina equivalente a ela, incluindo o conduto.
+     *
+     * <p>
+     * Turbinas equivalentes são intercambiáveis: trocar suas vazões não altera
+     * a avaliação. As classes são calculadas na primeira chamada, com a usina
+     * já montada.
+     * </p>
+     *
+     * @since 1.0
+     * @return Novo vetor com a classe de cada turbina.
+     *
+     * @see Turbina#isEquivalente(usina.Turbina)
+     */
+    public int[] getClassesDeEquivalencia() {
+        int[] classes = new int[turbinas.size()];
+        for (int[] membros : getSimetrias()) {
+            for (int membro : membros) {
+                classes[membro] = membros[0];
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Leva uma distribuição de vazão à forma canônica: dentro de cada classe
+     * de equivalência, as vazões ficam em ordem crescente na ordem das
+     * turbinas.
+     *
+     * <p>
+     * Todas as permutações equivalentes de uma distribuição têm a mesma forma
+     * canônica e a mesma avaliação. Não aloca objetos.
+     * </p>
+     *
+     * @since 1.0
+     * @param vazoes Vazões, na ordem das turbinas; alteradas no lugar.
+     * @return O próprio vetor.
+     */
+    public double[] canonica(double[] vazoes) {
+        for (int[] membros : getSimetrias()) {
+            for (int k = 1; k < membros.length; k++) {
+                double valor = vazoes[membros[k]];
+                int j = k - 1;
+                while (j >= 0 && vazoes[membros[j]] > valor) {
+                    vazoes[membros[j + 1]] = vazoes[membros[j]];
+                    j--;
+                }
+                vazoes[membros[j + 1]] = valor;
+            }
+        }
+        return vazoes;
+    }
+
+    /**
+     * Leva um conjunto de turbinas, representado por bits na ordem das
+     * turbinas, à forma canônica: dentro de cada classe de equivalência,
+     * ficam marcadas as primeiras turbinas da classe.
+     *
+     * @since 1.0
+     * @param conjunto Máscara de bits; a turbina <code>i</code> corresponde ao
+     * bit <code>1 &lt;&lt; i</code>.
+     * @return Máscara canônica.
+     */
+    public int canonica(int conjunto) {
+        return canonica(conjunto, -1);
+    }
+
+    /**
+     * Leva um conjunto de turbinas disponíveis à forma canônica entre as
+     * disponíveis: dentro de cada classe de equivalência, ficam marcadas as
+     * primeiras turbinas disponíveis da classe.
+     *
+     * <p>
+     * Conjuntos que diferem apenas pela troca de turbinas equivalentes e
+     * disponíveis têm a mesma forma canônica, qualquer que seja a
+     * disponibilidade.
+     * </p>
+     *
+     * @since 1.0
+     * @param conjunto Máscara de bits, contida em <code>disponiveis</code>.
+     * @param disponiveis Máscara das turbinas disponíveis.
+     * @return Máscara canônica, contida em <code>disponiveis</code>.
+     */
+    public int canonica(int conjunto, int disponiveis) {
+        int canonico = 0;
+        for (int[] membros : getSimetrias()) {
+            int n = 0;
+            for (int membro : membros) {
+                if ((conjunto & (1 << membro)) != 0) {
+                    n++;
+                }
+            }
+            for (int k = 0; k < membros.length && n > 0; k++) {
+                if ((disponiveis & (1 << membros[k])) != 0) {
+                    canonico |= 1 << membros[k];
+                    n--;
+                }
+            }
+        }
+        return canonico;
+    }
+
+    /**
+     * Membros de cada classe de equivalência, em ordem crescente.
+     */
+    private int[][] getSimetrias() {
+        int[][] simetrias = this.simetrias;
+        if (simetrias == null) {
+            int n = turbinas.size();
+            int[] classes = new int[n];
+            int[] tamanhos = new int[n];
+            int nClasses = 0;
+            for (int i = 0; i < n; i++) {
+                classes[i] = i;
+                for (int j = 0; j < i; j++) {
+                    if (classes[j] == j && turbinas.get(i).isEquivalente(turbinas.get(j))) {
+                        classes[i] = j;
+                        break;
+                    }
+                }
+                if (tamanhos[classes[i]]++ == 0) {
+                    nClasses++;
+                }
+            }
+
+            simetrias = new int[nClasses][];
+            int c = 0;
+            for (int i = 0; i < n; i++) {
+                if (classes[i] == i) {
+                    int[] membros = new int[tamanhos[i]];
+                    int k = 0;
+                    for (int j = i; j < n; j++) {
+                        if (classes[j] == i) {
+                            membros[k++] = j;
+                        }
+                    }
+                    simetrias[c++] = membros;
+                }
+            }
+            this.simetrias = simetrias;
+        }
+        return simetrias;
+    }
+
     /**
      * Recupera a meta da usina.
      *
      * @since 1.0
-     * @return Meta para distribuição de vazão.
+     * @return Meta do contexto corrente, ou <code>null</code> se não houver
+     * contexto.
      */
     public Double getMeta() {
-        return meta;
+        ContextoDeAvaliacao contexto = this.contexto;
+        return contexto == null ? null : contexto.getMeta();
     }
 
     /**
-     * Atribui uma nova meta para as distribuições de vazão.
+     * Atribui uma nova meta para as distribuições de vazão, mantendo as
+     * demais condições do contexto corrente.
      *
      * @since 1.0
      * @param meta Meta para distribuição de vazão.
+     * @deprecated Altera o estado compartilhado da usina. Use contextos de
+     * avaliação: {@link #avalia(double[], usina.ContextoDeAvaliacao)} ou
+     * {@link #comContexto(usina.ContextoDeAvaliacao)}.
      */
+    @Deprecated
     public void setMeta(Double meta) {
-        this.meta = meta;
+        ContextoDeAvaliacao contexto = this.contexto;
+        this.contexto = contexto == null ? new ContextoDeAvaliacao(meta) : contexto.comMeta(meta);
+    }
+
+    /**
+     * Recupera o contexto corrente da usina, usado pelas avaliações que não
+     * recebem contexto.
+     *
+     * @since 1.0
+     * @return Contexto corrente, ou <code>null</code> se não houver.
+     */
+    public ContextoDeAvaliacao getContexto() {
+        return contexto;
+    }
+
+    private ContextoDeAvaliacao getContextoAtribuido() {
+        ContextoDeAvaliacao contexto = this.contexto;
+        if (contexto == null) {
+            throw new IllegalStateException("Meta não atribuida");
+        }
+        return contexto;
     }
 
 }
@@ -0,0 +1,467 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package usina.factory;
+
+import java.io.BufferedReader;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import usina.ModeloDeQueda;
+import usina.Polinomio;
+import usina.Turbina;
+import usina.Usina;
+import usina.tubulacao.Conduto;
+import usina.tubulacao.ConectorCilindricoCurvoPoligonal;
+import usina.tubulacao.ConectorCilindricoCurvoSuave;
+import usina.tubulacao.TuboCilindricoReto;
+
+/**
+ * Definição de usina lida de arquivo de descrição.
+ *
+ * <p>
+ * O arquivo traz, em linhas com campos separados por <code>;</code>, o nome
+ * da usina, os parâmetros de rendimento, as turbinas e, após cada turbina,
+ * os segmentos de seu conduto, de montante para jusante:
+ * </p>
+ * <pre>
+ * usina;nome
+ * montante;a1;a2;...
+ * jusante;b1;b2;...
+ * rendimento;p1;p2;...
+ * turbina;potência mínima;potência máxima;vazão mínima;vazão máxima;queda bruta
+ * tubo;comprimento;diâmetro;rugosidade absoluta
+ * conector;poligonal|suave;diâmetro;desvio
+ * </pre>
+ *
+ * <p>
+ * Os registros <code>montante</code> e <code>jusante</code>, opcionais mas
+ * sempre em par, trazem os coeficientes, do maior grau para o termo
+ * independente, das cotas de montante em função do nível do reservatório e
+ * de jusante em função da defluência total; com eles a usina recebe um
+ * {@link ModeloDeQueda}.
+ * </p>
+ *
+ * <p>
+ * A geometria é validada na leitura: todo conduto começa e termina em tubo,
+ * e cada conector tem o diâmetro do tubo que o precede. Também na leitura,
+ * com o número da linha, são validados os limites de cada turbina (mínimos
+ * positivos, máximos não menores que os mínimos), a queda bruta, positiva,
+ * e os parâmetros de rendimento, exatamente seis. Os segmentos são
+ * construídos uma única vez, com seus coeficientes de perda já calculados, e
+ * compartilhados, por serem imutáveis, entre as usinas instanciadas.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see UsinaFactory#getUsina(Path)
+ */
+public final class DefinicaoDeUsina {
+
+    private static final String SEPARADOR = ";";
+    private static final double TOLERANCIA_DIAMETRO = 1e-9;
+    private static final int PARAMETROS_RENDIMENTO = 6;
+
+    private final String nome;
+    private final List<Double[]> limites;
+    private final List<Double[]> rendimentos;
+    private final List<Double> quedas;
+    private final List<Conduto> condutos;
+    private final ModeloDeQueda modeloDeQueda;
+
+    DefinicaoDeUsina(String nome, List<Double[]> limites, List<Double[]> rendimentos,
+            List<Double> quedas, List<Conduto> condutos, ModeloDeQueda modeloDeQueda) {
+        this.nome = nome;
+        this.limites = limites;
+        this.rendimentos = rendimentos;
+        this.quedas = quedas;
+        this.condutos = condutos;
+        this.modeloDeQueda = modeloDeQueda;
+    }
+
+    /**
+     * Lê, valida e compila um arquivo de descrição de usina.
+     *
+     * @param arquivo Arquivo de descrição, em UTF-8.
+     * @return Definição da usina.
+     * @throws IOException Se o arquivo não puder ser lido ou for inválido; a
+     * mensagem indica a linha do erro.
+     */
+    public static DefinicaoDeUsina carrega(Path arquivo) throws IOException {
+
+        String nome = arquivo.getFileName().toString();
+        List<Double[]> limites = new ArrayList<>();
+        List<Double[]> rendimentos = new ArrayList<>();
+        List<Double> quedas = new ArrayList<>();
+        List<Conduto> condutos = new ArrayList<>();
+        Polinomio montante = null;
+        Polinomio jusante = null;
+
+        Double[] rendimento = null;
+        Conduto conduto = null;
+        int segmentos = 0;
+        Double diametroAnterior = null;
+        boolean terminaEmConector = false;
+        int numeroLinha = 0;
+
+        try (BufferedReader buffer = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+
+            String linha;
+            while ((linha = buffer.readLine()) != null) {
+                numeroLinha++;
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                String[] campos = linha.split(SEPARADOR);
+
+                try {
+                    switch (campos[0]) {
+                        case "usina":
+                            campos(campos, 2);
+                            nome = campos[1].trim();
+                            break;
+
+                        case "montante":
+                            if (montante != null) {
+                                throw new IllegalArgumentException("Cota de montante declarada mais de uma vez.");
+                            }
+                            montante = polinomio(campos);
+                            break;
+
+                        case "jusante":
+                            if (jusante != null) {
+                                throw new IllegalArgumentException("Cota de jusante declarada mais de uma vez.");
+                            }
+                            jusante = polinomio(campos);
+                            break;
+
+                        case "rendimento":
+                            if (campos.length != PARAMETROS_RENDIMENTO + 1) {
+                                throw new IllegalArgumentException(String.format(
+                                        "Rendimento com %d parâmetros (esperados %d).",
+                                        campos.length - 1, PARAMETROS_RENDIMENTO));
+                            }
+                            rendimento = new Double[campos.length - 1];
+                            for (int i = 1; i < campos.length; i++) {
+                                rendimento[i - 1] = numero(campos[i]);
+                            }
+                            break;
+
+                        case "turbina":
+                            campos(campos, 6);
+                            if (rendimento == null) {
+                                throw new IllegalArgumentException("Turbina sem parâmetros de rendimento declarados.");
+                            }
+                            validaConduto(conduto, segmentos, terminaEmConector, condutos.size());
+                            Double[] limite = {numero(campos[1]), numero(campos[2]), numero(campos[3]), numero(campos[4])};
+                            double queda = numero(campos[5]);
+                            validaTurbina(limite, queda);
+                            limites.add(limite);
+                            quedas.add(queda);
+                            rendimentos.add(rendimento);
+                            conduto = new Conduto();
+                            condutos.add(conduto);
+                            segmentos = 0;
+                            diametroAnterior = null;
+                            break;
+
+                        case "tubo":
+                            campos(campos, 4);
+                            if (conduto == null) {
+                                throw new IllegalArgumentException("Tubo declarado antes de qualquer turbina.");
+                            }
+                            double diametro = numero(campos[2]);
+                            conduto.adicianaTubo(new TuboCilindricoReto(numero(campos[1]), diametro, numero(campos[3])));
+                            segmentos++;
+                            diametroAnterior = diametro;
+                            terminaEmConector = false;
+                            break;
+
+                        case "conector":
+                            campos(campos, 4);
+                            if (diametroAnterior == null) {
+                                throw new IllegalArgumentException("Conector sem tubo a montante.");
+                            }
+                            double diametroConector = numero(campos[2]);
+                            if (Math.abs(diametroConector - diametroAnterior) > TOLERANCIA_DIAMETRO * diametroAnterior) {
+                                throw new IllegalArgumentException(String.format(
+                                        "Diâmetro do conector (%s) diferente do tubo a montante (%s).",
+                                        diametroConector, diametroAnterior));
+                            }
+                            adicionaConector(conduto, campos[1].trim(), diametroConector, numero(campos[3]));
+                            segmentos++;
+                            terminaEmConector = true;
+                            break;
+
+                        default:
+                            throw new IllegalArgumentException("Registro desconhecido: " + campos[0] + ".");
+                    }
+                } catch (IllegalArgumentException | NoSuchElementException ex) {
+                    throw new IOException("Erro na descrição da usina " + arquivo + ", linha " + numeroLinha
+                            + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+
+        try {
+            validaConduto(conduto, segmentos, terminaEmConector, condutos.size());
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Erro na descrição da usina " + arquivo + ": " + ex.getMessage(), ex);
+        }
+        if (condutos.isEmpty()) {
+            throw new IOException("Erro na descrição da usina " + arquivo + ": nenhuma turbina declarada.");
+        }
+        if ((montante == null) != (jusante == null)) {
+            throw new IOException("Erro na descrição da usina " + arquivo
+                    + ": cotas de montante e de jusante devem ser declaradas juntas.");
+        }
+
+        return new DefinicaoDeUsina(nome, limites, rendimentos, quedas, condutos,
+                montante == null ? null : new ModeloDeQueda(montante, jusante));
+    }
+
+    /**
+     * Monta uma nova usina, com todas as turbinas instaladas e ligadas.
+     *
+     * <p>
+     * Turbinas e condutos são novos a cada chamada; apenas os segmentos de
+     * conduto e o modelo de queda, imutáveis, são compartilhados.
+     * </p>
+     *
+     * @return Instância da usina montada.
+     */
+    public Usina instancia() {
+        List<Turbina> turbinas = new ArrayList<>(limites.size());
+        List<Conduto> instalados = new ArrayList<>(limites.size());
+
+        for (int i = 0; i < limites.size(); i++) {
+            Double[] limite = limites.get(i);
+            Turbina turbina = new Turbina(limite[0], limite[1], limite[2], limite[3], rendimentos.get(i));
+            Conduto conduto = new Conduto(condutos.get(i));
+            turbina.instala(quedas.get(i), conduto);
+            turbina.setLigada(true);
+            turbinas.add(turbina);
+            instalados.add(conduto);
+        }
+        return new Usina(turbinas, instalados, modeloDeQueda);
+    }
+
+    /**
+     * @return Nome da usina, ou o nome do arquivo se não declarado.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * @return Número de turbinas.
+     */
+    public int getNTurbinas() {
+        return limites.size();
+    }
+
+    /**
+     * @return Modelo de queda, ou <code>null</code> se as cotas não forem
+     * declaradas.
+     */
+    public ModeloDeQueda getModeloDeQueda() {
+        return modeloDeQueda;
+    }
+
+    /**
+     * Grava a definição compilada.
+     *
+     * @param saida Destino.
+     * @throws IOException Se houver erro de escrita.
+     * @see ImagemDeUsina
+     */
+    void escreve(DataOutput saida) throws IOException {
+        byte[] bytesNome = nome.getBytes(StandardCharsets.UTF_8);
+        saida.writeInt(bytesNome.length);
+        saida.write(bytesNome);
+        saida.writeInt(limites.size());
+        for (int i = 0; i < limites.size(); i++) {
+            for (Double limite : limites.get(i)) {
+                saida.writeDouble(limite);
+            }
+            Double[] rendimento = rendimentos.get(i);
+            saida.writeInt(rendimento.length);
+            for (Double parametro : rendimento) {
+                saida.writeDouble(parametro);
+            }
+            saida.writeDouble(quedas.get(i));
+            condutos.get(i).escreve(saida);
+        }
+        escreve(saida, modeloDeQueda == null ? null : modeloDeQueda.getMontante());
+        escreve(saida, modeloDeQueda == null ? null : modeloDeQueda.getJusante());
+    }
+
+    /**
+     * Lê uma definição gravada por {@link #escreve(DataOutput)}.
+     *
+     * @param entrada Origem, posicionada na definição.
+     * @return Definição da usina.
+     * @throws IllegalArgumentException Se o conteúdo for inválido.
+     */
+    static DefinicaoDeUsina le(ByteBuffer entrada) {
+        byte[] bytesNome = new byte[entrada.getInt()];
+        entrada.get(bytesNome);
+        String nome = new String(bytesNome, StandardCharsets.UTF_8);
+
+        int nTurbinas = entrada.getInt();
+        if (nTurbinas <= 0) {
+            throw new IllegalArgumentException("Número de turbinas inválido.");
+        }
+        List<Double[]> limites = new ArrayList<>(nTurbinas);
+        List<Double[]> rendimentos = new ArrayList<>(nTurbinas);
+        List<Double> quedas = new ArrayList<>(nTurbinas);
+        List<Conduto> condutos = new ArrayList<>(nTurbinas);
+        for (int i = 0; i < nTurbinas; i++) {
+            limites.add(new Double[]{entrada.getDouble(), entrada.getDouble(), entrada.getDouble(), entrada.getDouble()});
+            Double[] rendimento = new Double[entrada.getInt()];
+            if (rendimento.length != PARAMETROS_RENDIMENTO) {
+                throw new IllegalArgumentException("Número de parâmetros de rendimento inválido.");
+            }
+            for (int j = 0; j < rendimento.length; j++) {
+                rendimento[j] = entrada.getDouble();
+            }
+            rendimentos.add(rendimento);
+            quedas.add(entrada.getDouble());
+            condutos.add(Conduto.le(entrada));
+        }
+        Polinomio montante = lePolinomio(entrada);
+        Polinomio jusante = lePolinomio(entrada);
+        if ((montante == null) != (jusante == null)) {
+            throw new IllegalArgumentException("Modelo de queda incompleto.");
+        }
+        return new DefinicaoDeUsina(nome, limites, rendimentos, quedas, condutos,
+                montante == null ? null : new ModeloDeQueda(montante, jusante));
+    }
+
+    /**
+     * Grava os coeficientes de um polinômio, precedidos de sua quantidade;
+     * zero indica polinômio ausente.
+     */
+    private static void escreve(DataOutput saida, Polinomio polinomio) throws IOException {
+        if (polinomio == null) {
+            saida.writeInt(0);
+            return;
+        }
+        double[] coeficientes = polinomio.getCoeficientes();
+        saida.writeInt(coeficientes.length);
+        for (double coeficiente : coeficientes) {
+            saida.writeDouble(coeficiente);
+        }
+    }
+
+    private static Polinomio lePolinomio(ByteBuffer entrada) {
+        int n = entrada.getInt();
+        if (n < 0) {
+            throw new IllegalArgumentException("Número de coeficientes inválido.");
+        }
+        if (n == 0) {
+            return null;
+        }
+        double[] coeficientes = new double[n];
+        for (int i = 0; i < n; i++) {
+            coeficientes[i] = entrada.getDouble();
+        }
+        return new Polinomio(coeficientes);
+    }
+
+    private static void adicionaConector(Conduto conduto, String tipo, double diametro, double desvio) {
+        switch (tipo) {
+            case "poligonal":
+                conduto.adicianaTubo(new ConectorCilindricoCurvoPoligonal(diametro, desvio));
+                break;
+            case "suave":
+                conduto.adicianaTubo(new ConectorCilindricoCurvoSuave(diametro, desvio));
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de conector desconhecido: " + tipo + ".");
+        }
+    }
+
+    private static void validaTurbina(Double[] limite, double queda) {
+        if (!(limite[0] > 0) || !(limite[2] > 0)) {
+            throw new IllegalArgumentException("Limites mínimos de potência e vazão devem ser positivos.");
+        }
+        if (!(limite[1] >= limite[0])) {
+            throw new IllegalArgumentException(String.format(
+                    "Potência máxima (%s) menor que a mínima (%s).", limite[1], limite[0]));
+        }
+        if (!(limite[3] >= limite[2])) {
+            throw new IllegalArgumentException(String.format(
+                    "Vazão máxima (%s) menor que a mínima (%s).", limite[3], limite[2]));
+        }
+        if (!(queda > 0)) {
+            throw new IllegalArgumentException("Queda bruta deve ser positiva.");
+        }
+    }
+
+    private static void validaConduto(Conduto conduto, int segmentos, boolean terminaEmConector, int turbina) {
+        if (conduto == null) {
+            return;
+        }
+        if (segmentos == 0) {
+            throw new IllegalArgumentException("Conduto da turbina " + turbina + " sem segmentos.");
+        }
+        if (terminaEmConector) {
+            throw new IllegalArgumentException("Conduto da turbina " + turbina + " termina em conector.");
+        }
+    }
+
+    private static Polinomio polinomio(String[] campos) {
+        if (campos.length < 2) {
+            throw new IllegalArgumentException("Coeficientes de " + campos[0] + " ausentes.");
+        }
+        double[] coeficientes = new double[campos.length - 1];
+        for (int i = 1; i < campos.length; i++) {
+            coeficientes[i - 1] = numero(campos[i]);
+        }
+        return new Polinomio(coeficientes);
+    }
+
+    private static void campos(String[] campos, int esperados) {
+        if (campos.length != esperados) {
+            throw new IllegalArgumentException(String.format(
+                    "Registro %s com %d campos (esperados %d).", campos[0], campos.length, esperados));
+        }
+    }
+
+    private static double numero(String campo) {
+        try {
+            return Double.parseDouble(campo.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Número inválido: " + campo + ".", ex);
+        }
+    }
+}
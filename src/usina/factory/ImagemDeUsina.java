@@ -0,0 +1,211 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package usina.factory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32;
+
+/**
+ * Imagem binária de definições de usina compiladas.
+ *
+ * <p>
+ * Evita, na partida, a leitura do arquivo de descrição e o cálculo dos
+ * fatores de atrito e das constantes de perda dos condutos. A imagem é
+ * mapeada em memória e traz:
+ * </p>
+ * <ul>
+ * <li>Identificador e versão do formato;</li>
+ * <li>Data de modificação e tamanho do arquivo de descrição de origem;</li>
+ * <li>Tamanho e CRC-32 do conteúdo;</li>
+ * <li>Conteúdo: a definição compilada.</li>
+ * </ul>
+ *
+ * <p>
+ * Imagens de outra versão, corrompidas, ou de uma descrição diferente da
+ * atual são descartadas e refeitas a partir da descrição.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see DefinicaoDeUsina
+ */
+public final class ImagemDeUsina {
+
+    /**
+     * Extensão acrescentada ao arquivo de descrição para nomear a imagem.
+     */
+    public static final String EXTENSAO = ".img";
+
+    private static final int IDENTIFICADOR = 0x55534E41;
+    private static final int VERSAO = 2;
+    private static final int TAMANHO_CABECALHO = 4 + 4 + 8 + 8 + 4 + 4;
+
+    private ImagemDeUsina() {
+    }
+
+    /**
+     * Recupera a imagem associada a um arquivo de descrição.
+     *
+     * @param descricao Arquivo de descrição.
+     * @return Caminho da imagem, no mesmo diretório.
+     */
+    public static Path getImagem(Path descricao) {
+        return descricao.resolveSibling(descricao.getFileName() + EXTENSAO);
+    }
+
+    /**
+     * Carrega uma definição pela imagem, se válida, ou pela descrição,
+     * refazendo a imagem.
+     *
+     * <p>
+     * Falhas na gravação da imagem, como um diretório sem permissão de
+     * escrita, não impedem o carregamento.
+     * </p>
+     *
+     * @param descricao Arquivo de descrição.
+     * @param imagem Arquivo de imagem.
+     * @return Definição da usina.
+     * @throws IOException Se a descrição não puder ser lida ou for inválida.
+     */
+    public static DefinicaoDeUsina carrega(Path descricao, Path imagem) throws IOException {
+        BasicFileAttributes atributos = Files.readAttributes(descricao, BasicFileAttributes.class);
+        long modificacao = atributos.lastModifiedTime().toMillis();
+        long tamanho = atributos.size();
+
+        DefinicaoDeUsina definicao = le(imagem, modificacao, tamanho);
+        if (definicao != null) {
+            return definicao;
+        }
+
+        definicao = DefinicaoDeUsina.carrega(descricao);
+        try {
+            escreve(definicao, imagem, modificacao, tamanho);
+        } catch (IOException | IllegalArgumentException ex) {
+            // A imagem é apenas um atalho: a definição já está disponível.
+        }
+        return definicao;
+    }
+
+    /**
+     * Lê uma imagem.
+     *
+     * @param imagem Arquivo de imagem.
+     * @param modificacao Data de modificação esperada da descrição [ms].
+     * @param tamanho Tamanho esperado da descrição [bytes].
+     * @return Definição da usina, ou <code>null</code> se a imagem não
+     * existir, for de outra versão, estiver corrompida ou desatualizada.
+     * @throws IOException Se houver erro de leitura.
+     */
+    public static DefinicaoDeUsina le(Path imagem, long modificacao, long tamanho) throws IOException {
+        try (FileChannel canal = FileChannel.open(imagem, StandardOpenOption.READ)) {
+            if (canal.size() < TAMANHO_CABECALHO) {
+                return null;
+            }
+            ByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+
+            if (buffer.getInt() != IDENTIFICADOR || buffer.getInt() != VERSAO
+                    || buffer.getLong() != modificacao || buffer.getLong() != tamanho) {
+                return null;
+            }
+            int tamanhoConteudo = buffer.getInt();
+            int crc = buffer.getInt();
+            if (tamanhoConteudo != buffer.remaining()) {
+                return null;
+            }
+
+            CRC32 verificador = new CRC32();
+            verificador.update(buffer.duplicate());
+            if ((int) verificador.getValue() != crc) {
+                return null;
+            }
+
+            DefinicaoDeUsina definicao = DefinicaoDeUsina.le(buffer);
+            return buffer.hasRemaining() ? null : definicao;
+
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Grava uma imagem, substituindo atomicamente a anterior.
+     *
+     * @param definicao Definição da usina.
+     * @param imagem Arquivo de imagem.
+     * @param modificacao Data de modificação da descrição de origem [ms].
+     * @param tamanho Tamanho da descrição de origem [bytes].
+     * @throws IOException Se houver erro de escrita.
+     * @throws IllegalArgumentException Se algum segmento de conduto não puder
+     * ser compilado.
+     */
+    public static void escreve(DefinicaoDeUsina definicao, Path imagem, long modificacao, long tamanho)
+            throws IOException {
+        ByteArrayOutputStream conteudo = new ByteArrayOutputStream();
+        try (DataOutputStream saida = new DataOutputStream(conteudo)) {
+            definicao.escreve(saida);
+        }
+        byte[] bytes = conteudo.toByteArray();
+        CRC32 verificador = new CRC32();
+        verificador.update(bytes);
+
+        Path diretorio = imagem.toAbsolutePath().getParent();
+        Path temporario = Files.createTempFile(diretorio, imagem.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream arquivo = Files.newOutputStream(temporario);
+                    DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(arquivo))) {
+                saida.writeInt(IDENTIFICADOR);
+                saida.writeInt(VERSAO);
+                saida.writeLong(modificacao);
+                saida.writeLong(tamanho);
+                saida.writeInt(bytes.length);
+                saida.writeInt((int) verificador.getValue());
+                saida.write(bytes);
+            }
+            try {
+                Files.move(temporario, imagem, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporario, imagem, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+}
@@ -3,20 +3,31 @@
  */
 package usina.factory;
 
-import usina.Turbina;
+import usina.DAO.coeficientes.CoeficientesCSVFileDAO;
+import usina.Polinomio;
 import usina.Usina;
-import usina.tubulacao.Conduto;
-import usina.tubulacao.ConectorCilindricoCurvoPoligonal;
-import usina.tubulacao.TuboCilindricoReto;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Montadora de Usinas.
  *
  * <p>
  * Essa classe visa fornecer métodos a instanciação de usinas pré-codificadas
- * para uso.
+ * para uso, e de usinas descritas em arquivo.
+ * </p>
+ *
+ * <p>
+ * As descrições lidas são guardadas, já validadas e com os modelos de perda
+ * dos condutos calculados, por arquivo; uma nova leitura só ocorre se o
+ * arquivo for modificado. Entre execuções, a definição compilada é lida da
+ * imagem binária ao lado da descrição ({@link ImagemDeUsina}).
  * </p>
  *
  * @author Victor de Lima Soares
@@ -24,6 +35,13 @@ import java.util.List;
  */
 public class UsinaFactory {
 
+    /**
+     * Arquivo de descrição da usina de Três Marias.
+     */
+    public static final String ARQUIVO_TRESMARIAS = "data/input/usinas/tresmarias.usina";
+
+    private static final Map<Path, Descricao> DESCRICOES = new ConcurrentHashMap<>();
+
     /**
      * Enumeração de usinas pré-codificadas.
      *
@@ -31,7 +49,16 @@ public class UsinaFactory {
      */
     public enum Usinas {
 
-        TRESMARIAS
+        /**
+         * Três Marias, descrita em {@link #ARQUIVO_TRESMARIAS}.
+         */
+        TRESMARIAS,
+        /**
+         * Três Marias com as curvas características polinomiais de
+         * <code>data/input/coeficientes.csv</code> no lugar da cadeia
+         * hidráulica.
+         */
+        TRESMARIAS_POLINOMIAL
     };
 
     /**
@@ -46,77 +73,84 @@ public class UsinaFactory {
     public static Usina getUsina(Usinas usina) {
 
         switch (usina) {
+            case TRESMARIAS_POLINOMIAL:
+
+                Usina polinomial = getUsina(Usinas.TRESMARIAS);
+                List<Polinomio> caracteristicas;
+                try {
+                    caracteristicas = new CoeficientesCSVFileDAO().carregaCoeficientes();
+                } catch (IOException ex) {
+                    throw new IllegalStateException("Curvas características indisponíveis.", ex);
+                }
+                if (caracteristicas.size() != polinomial.getTurbinas().size()) {
+                    throw new IllegalStateException("Número de curvas características diferente do número de turbinas.");
+                }
+                for (int i = 0; i < caracteristicas.size(); i++) {
+                    polinomial.getTurbinas().get(i).setCaracteristica(caracteristicas.get(i));
+                }
+                return polinomial;
+
             case TRESMARIAS:
 
-                Integer nTurbinas = 6;
-                List<Turbina> turbinas = new ArrayList<>(nTurbinas);
-
-                Double[] parametrosRendimento = new Double[]{0.1463, 0.018076, 0.0050502, -3.5254e-05, -0.00012337, -1.4507e-05};
-
-                turbinas.add(new Turbina(35d, 66d, 70d, 140d, parametrosRendimento));
-                turbinas.add(new Turbina(35d, 66d, 70d, 140d, parametrosRendimento));
-                turbinas.add(new Turbina(35d, 66d, 70d, 140d, parametrosRendimento));
-
-                turbinas.add(new Turbina(35d, 66d, 70d, 140d, parametrosRendimento));
-                turbinas.add(new Turbina(35d, 66d, 70d, 140d, parametrosRendimento));
-                turbinas.add(new Turbina(35d, 66d, 70d, 140d, parametrosRendimento));
-
-                List<Conduto> condutos = new ArrayList<>();
-                condutos.add(new Conduto()); //1
-                condutos.get(0).adicianaTubo(new TuboCilindricoReto(160d, 6.6, 0.2));
-                condutos.get(0).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 28d));
-                condutos.get(0).adicianaTubo(new TuboCilindricoReto(91.6, 6.6, 0.2));
-                condutos.get(0).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 30d));
-                condutos.get(0).adicianaTubo(new TuboCilindricoReto(13.4, 6.2, 0.2));
-
-                condutos.add(new Conduto());//2
-                condutos.get(1).adicianaTubo(new TuboCilindricoReto(160d, 6.6, 0.2));
-                condutos.get(1).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 22d));
-                condutos.get(1).adicianaTubo(new TuboCilindricoReto(86.26, 6.6, 0.2));
-                condutos.get(1).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 21d));
-                condutos.get(1).adicianaTubo(new TuboCilindricoReto(13.4, 6.2, 0.2));
-
-                condutos.add(new Conduto());//3
-                condutos.get(2).adicianaTubo(new TuboCilindricoReto(160d, 6.6, 0.2));
-                condutos.get(2).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 16d));
-                condutos.get(2).adicianaTubo(new TuboCilindricoReto(82.54, 6.6, 0.2));
-                condutos.get(2).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 12d));
-                condutos.get(2).adicianaTubo(new TuboCilindricoReto(13.4, 6.2, 0.2));
-
-                condutos.add(new Conduto());//4
-                condutos.get(3).adicianaTubo(new TuboCilindricoReto(160d, 6.6, 0.2));
-                condutos.get(3).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 4d));
-                condutos.get(3).adicianaTubo(new TuboCilindricoReto(80.58, 6.6, 0.2));
-                condutos.get(3).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 3d));
-                condutos.get(3).adicianaTubo(new TuboCilindricoReto(13.4, 6.2, 0.2));
-
-                condutos.add(new Conduto());//5
-                condutos.get(4).adicianaTubo(new TuboCilindricoReto(160d, 6.6, 0.2));
-                condutos.get(4).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 4d));
-                condutos.get(4).adicianaTubo(new TuboCilindricoReto(80.58, 6.6, 0.2));
-                condutos.get(4).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 3d));
-                condutos.get(4).adicianaTubo(new TuboCilindricoReto(13.4, 6.2, 0.2));
-
-                condutos.add(new Conduto());//6
-                condutos.get(5).adicianaTubo(new TuboCilindricoReto(160d, 6.6, 0.2));// 1
-                condutos.get(5).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 16d));
-                condutos.get(5).adicianaTubo(new TuboCilindricoReto(82.54, 6.6, 0.2));
-                condutos.get(5).adicianaTubo(new ConectorCilindricoCurvoPoligonal(6.6, 12d));
-                condutos.get(5).adicianaTubo(new TuboCilindricoReto(13.4, 6.2, 0.2));
-
-                /**
-                 * Usina tem todas as turbinas ligadas.
-                 */
-                for (int i = 0; i < turbinas.size(); i++) {
-                    turbinas.get(i).instala(54.0, condutos.get(i));
-                    turbinas.get(i).setLigada(true);
+                try {
+                    return getUsina(Paths.get(ARQUIVO_TRESMARIAS));
+                } catch (IOException ex) {
+                    throw new IllegalStateException("Descrição da usina indisponível.", ex);
                 }
 
-                return new Usina(turbinas, condutos);
-
             default:
                 return null;
 
         }
     }
+
+    /**
+     * Recupera uma usina descrita em arquivo.
+     *
+     * <p>
+     * Cada chamada retorna uma nova usina, com todas as turbinas ligadas.
+     * </p>
+     *
+     * @since 1.0
+     * @param arquivo Arquivo de descrição da usina.
+     * @return Instância da usina montada.
+     * @throws IOException Se o arquivo não puder ser lido ou for inválido.
+     *
+     * @see DefinicaoDeUsina
+     */
+    public static Usina getUsina(Path arquivo) throws IOException {
+        return getDefinicao(arquivo).instancia();
+    }
+
+    /**
+     * Recupera a definição de uma usina descrita em arquivo, lendo-a apenas
+     * se ainda não lida ou se o arquivo foi modificado.
+     *
+     * @since 1.0
+     * @param arquivo Arquivo de descrição da usina.
+     * @return Definição da usina.
+     * @throws IOException Se o arquivo não puder ser lido ou for inválido.
+     */
+    public static DefinicaoDeUsina getDefinicao(Path arquivo) throws IOException {
+        Path chave = arquivo.toAbsolutePath().normalize();
+        FileTime modificacao = Files.getLastModifiedTime(chave);
+
+        Descricao descricao = DESCRICOES.get(chave);
+        if (descricao == null || !descricao.modificacao.equals(modificacao)) {
+            descricao = new Descricao(modificacao, ImagemDeUsina.carrega(chave, ImagemDeUsina.getImagem(chave)));
+            DESCRICOES.put(chave, descricao);
+        }
+        return descricao.definicao;
+    }
+
+    private static final class Descricao {
+
+        private final FileTime modificacao;
+        private final DefinicaoDeUsina definicao;
+
+        private Descricao(FileTime modificacao, DefinicaoDeUsina definicao) {
+            this.modificacao = modificacao;
+            this.definicao = definicao;
+        }
+    }
 }
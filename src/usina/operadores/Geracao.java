@@ -29,6 +29,7 @@ import java.util.List;
 import usina.DistribuicaoVazao;
 import usina.Fluxo;
 import usina.Turbina;
+import usina.Usina;
 
 /**
  *
@@ -37,6 +38,7 @@ import usina.Turbina;
 public class Geracao extends GeradorReal<DistribuicaoVazao> {
 
     private final List<Turbina> turbinas;
+    private final Usina usina;
 
     /**
      * Construtor.
@@ -52,6 +54,31 @@ public class Geracao extends GeradorReal<DistribuicaoVazao> {
             throw new NullPointerException("Lista de Turbinas não pode ser uma referência nula.");
         }
         this.turbinas = turbinas;
+        this.usina = null;
+    }
+
+    /**
+     * Construtor para as turbinas de uma usina, com distribuições aleatórias
+     * geradas na forma canônica ({@link Usina#canonica(double[])}).
+     *
+     * <p>
+     * Permutações de turbinas equivalentes têm a mesma avaliação; sorteada na
+     * forma canônica, a população inicial ocupa uma única das cópias
+     * simétricas do espaço de busca, em vez de se espalhar por todas.
+     * </p>
+     *
+     * @param usina Usina.
+     * @throws NullPointerException
+     * <ul>
+     * <li>Se a usina for uma referência nula.</li>
+     * </ul>
+     */
+    public Geracao(Usina usina) {
+        if (usina == null) {
+            throw new NullPointerException("Usina não pode ser uma referência nula.");
+        }
+        this.turbinas = usina.getTurbinas();
+        this.usina = usina;
     }
 
     @Override
@@ -66,6 +93,15 @@ public class Geracao extends GeradorReal<DistribuicaoVazao> {
     @Override
     public DistribuicaoVazao getAleatorio() {
 
+        if (usina != null) {
+            double[] vazoes = new double[turbinas.size()];
+            for (int i = 0; i < vazoes.length; i++) {
+                Turbina turbina = turbinas.get(i);
+                vazoes[i] = Aleatorios.getUniformeDouble(turbina.getLimiteMinDeVazao(), turbina.getLimiteMaxDeVazao());
+            }
+            return get(usina.canonica(vazoes));
+        }
+
         DistribuicaoVazao nova = new DistribuicaoVazao(turbinas.size());
         
         for (int i = 0; i < nova.getSize(); i++) {
@@ -76,4 +112,28 @@ public class Geracao extends GeradorReal<DistribuicaoVazao> {
         return nova;
     }
 
+    /**
+     * Gera uma distribuição a partir de um vetor primitivo de vazões.
+     *
+     * @param vazoes Vazões, na ordem das turbinas.
+     * @return Nova distribuição de vazão.
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o número de vazões for diferente do número de turbinas;</li>
+     * <li>Se alguma vazão estiver fora dos limites da turbina.</li>
+     * </ul>
+     */
+    public DistribuicaoVazao get(double[] vazoes) {
+        if (vazoes.length != turbinas.size()) {
+            throw new IllegalArgumentException("Número de vazões diferente do número de turbinas.");
+        }
+
+        DistribuicaoVazao nova = new DistribuicaoVazao(turbinas.size());
+
+        for (int i = 0; i < nova.getSize(); i++) {
+            nova.setCaracteristica(i, new Fluxo(vazoes[i], Fluxo.REYNOLDS_PADRAO, turbinas.get(i)));
+        }
+        return nova;
+    }
+
 }
@@ -28,23 +28,106 @@ import ic.ce.populacional.Populacao;
 import ic.ce.populacional.algoritmo.operadores.Seletor;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import usina.DistribuicaoVazao;
 
 /**
+ * Seleção de pais por torneio, para algoritmos da biblioteca que recebem um
+ * {@link Seletor}.
+ *
+ * <p>
+ * O DE montado por {@link simulacao.Simulacao#configuraAlgoritmo} não usa
+ * seletor: cada vetor de teste disputa apenas com o seu alvo.
+ * </p>
  *
  * @author Victor de Lima Soares
  */
 public class Selecao extends Seletor<Double, DistribuicaoVazao> {
 
+    /**
+     * Tamanho padrão dos torneios.
+     */
+    public static final int TAMANHO_TORNEIO_PADRAO = 20;
+
+    /**
+     * Número padrão de vencedores por torneio.
+     */
+    public static final int VENCEDORES_PADRAO = 2;
+
+    private final Torneio torneio;
+
+    /**
+     * Postos dos pais, reaproveitados entre chamadas.
+     */
+    private int[] pais;
+
+    /**
+     * Construtor padrão: torneios de {@value #TAMANHO_TORNEIO_PADRAO}
+     * indivíduos com {@value #VENCEDORES_PADRAO} vencedores.
+     */
+    public Selecao() {
+        this(TAMANHO_TORNEIO_PADRAO, VENCEDORES_PADRAO, new Random());
+    }
+
+    /**
+     * Construtor com semente fixa, para execuções reprodutíveis.
+     *
+     * @param tamanhoTorneio Número de indivíduos sorteados por torneio.
+     * @param nVencedores Número de vencedores por torneio.
+     * @param semente Semente do gerador de números aleatórios.
+     */
+    public Selecao(int tamanhoTorneio, int nVencedores, long semente) {
+        this(tamanhoTorneio, nVencedores, new Random(semente));
+    }
+
+    /**
+     * Construtor.
+     *
+     * @param tamanhoTorneio Número de indivíduos sorteados por torneio.
+     * @param nVencedores Número de vencedores por torneio.
+     * @param aleatorio Fonte de números aleatórios.
+     *
+     * @see Torneio#Torneio(int, int, java.util.Random)
+     */
+    public Selecao(int tamanhoTorneio, int nVencedores, Random aleatorio) {
+        this.torneio = new Torneio(tamanhoTorneio, nVencedores, aleatorio);
+        this.pais = new int[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Os indivíduos vêm de <code>getNMelhores</code>, do melhor para o pior,
+     * e os torneios são decididos pela posição, sem leitura das aptidões. A
+     * consulta à população ordena e aloca a cada chamada; apenas os torneios
+     * são feitos sem alocação. A lista retornada é nova e pertence ao
+     * chamador.
+     * </p>
+     */
     @Override
     public List<DistribuicaoVazao> getPais() {
-        List<DistribuicaoVazao> pais = new ArrayList<>(getPopulacao().size());
+        List<DistribuicaoVazao> individuos = getPopulacao().getNMelhores(getPopulacao().size());
+        int n = individuos.size();
+        if (n == 0) {
+            return new ArrayList<>(0);
+        }
+
+        int nVencedores = torneio.getNVencedores();
+        int nPais = ((n + nVencedores - 1) / nVencedores) * nVencedores;
+
+        if (pais.length < nPais) {
+            pais = new int[nPais];
+        }
+
+        torneio.seleciona(n, pais, nPais);
 
-        while (pais.size() < getPopulacao().size()) {
-            pais.addAll(melhoresEntreAleatorios(2, 20));
+        List<DistribuicaoVazao> selecionados = new ArrayList<>(nPais);
+        for (int i = 0; i < nPais; i++) {
+            selecionados.add(individuos.get(pais[i]));
         }
 
-        return pais;
+        return selecionados;
     }
 
     @Override
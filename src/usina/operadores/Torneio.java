@@ -0,0 +1,202 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package usina.operadores;
+
+import java.util.Random;
+
+/**
+ * Torneio.
+ *
+ * <p>
+ * Motor de seleção por torneio sobre uma população ordenada da melhor para a
+ * pior: a posição de cada indivíduo é o seu posto. Cada torneio sorteia, sem
+ * reposição, um subconjunto de índices da população e escreve os índices dos
+ * vencedores, os de menor posto, em um vetor pré-alocado.
+ * </p>
+ *
+ * <p>
+ * O sorteio é feito por embaralhamento parcial (Fisher–Yates) sobre um vetor de
+ * índices reutilizável: como cada troca preserva a permutação, o vetor não
+ * precisa ser reiniciado entre torneios, e nenhuma estrutura intermediária é
+ * alocada durante a seleção.
+ * </p>
+ *
+ * <p>
+ * Instâncias não são seguras para uso concorrente: cada linha de execução deve
+ * possuir o seu próprio torneio.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ */
+public final class Torneio {
+
+    private final int tamanho;
+    private final int nVencedores;
+    private final Random aleatorio;
+
+    /**
+     * Permutação dos índices da população, reaproveitada entre torneios.
+     */
+    private int[] indices;
+
+    /**
+     * Construtor.
+     *
+     * @since 1.0
+     * @param tamanho Número de indivíduos sorteados em cada torneio.
+     * @param nVencedores Número de vencedores por torneio.
+     * @param aleatorio Fonte de números aleatórios.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se o número de vencedores for menor que um;</li>
+     * <li>Se o tamanho do torneio for menor que o número de vencedores.</li>
+     * </ul>
+     * @throws NullPointerException
+     * <ul>
+     * <li>Se a fonte de números aleatórios for uma referência nula.</li>
+     * </ul>
+     */
+    public Torneio(int tamanho, int nVencedores, Random aleatorio) {
+        if (nVencedores < 1) {
+            throw new IllegalArgumentException("Número de vencedores < 1.");
+        }
+        if (tamanho < nVencedores) {
+            throw new IllegalArgumentException("Tamanho do torneio < Número de vencedores.");
+        }
+        if (aleatorio == null) {
+            throw new NullPointerException("Fonte de números aleatórios não pode ser uma referência nula.");
+        }
+        this.tamanho = tamanho;
+        this.nVencedores = nVencedores;
+        this.aleatorio = aleatorio;
+        this.indices = new int[0];
+    }
+
+    /**
+     * Realiza torneios sucessivos até preencher o vetor de pais.
+     *
+     * <p>
+     * Os vencedores de cada torneio são os sorteados de menor índice, isto é,
+     * de melhor posto: nenhuma aptidão precisa ser lida. Se a população for
+     * menor que o tamanho do torneio, todos os indivíduos participam.
+     * </p>
+     *
+     * @since 1.0
+     * @param nIndividuos Número de indivíduos da população.
+     * @param pais Vetor de saída, recebe os índices dos pais selecionados.
+     * @param nPais Número de pais a selecionar.
+     *
+     * @throws IllegalArgumentException
+     * <ul>
+     * <li>Se a população for menor que o número de vencedores;</li>
+     * <li>Se o vetor de pais for menor que a quantidade informada.</li>
+     * </ul>
+     */
+    public void seleciona(int nIndividuos, int[] pais, int nPais) {
+        if (nIndividuos < nVencedores) {
+            throw new IllegalArgumentException("População menor que o número de vencedores.");
+        }
+        if (pais.length < nPais) {
+            throw new IllegalArgumentException("Vetor menor que a quantidade informada.");
+        }
+
+        preparaIndices(nIndividuos);
+        int participantes = Math.min(tamanho, nIndividuos);
+
+        for (int p = 0; p < nPais; p += nVencedores) {
+            sorteia(nIndividuos, participantes);
+            ordenaVencedores(participantes);
+
+            int n = Math.min(nVencedores, nPais - p);
+            System.arraycopy(indices, 0, pais, p, n);
+        }
+    }
+
+    /**
+     * Retorna o número de vencedores por torneio.
+     *
+     * @since 1.0
+     * @return Número de vencedores.
+     */
+    public int getNVencedores() {
+        return nVencedores;
+    }
+
+    /**
+     * Retorna o número de indivíduos sorteados em cada torneio.
+     *
+     * @since 1.0
+     * @return Tamanho do torneio.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Garante que o vetor de índices seja uma permutação de
+     * <code>[0, nIndividuos)</code>, realocando apenas se a população mudar de
+     * tamanho.
+     */
+    private void preparaIndices(int nIndividuos) {
+        if (indices.length != nIndividuos) {
+            indices = new int[nIndividuos];
+            for (int i = 0; i < nIndividuos; i++) {
+                indices[i] = i;
+            }
+        }
+    }
+
+    /**
+     * Embaralhamento parcial: as <code>participantes</code> primeiras posições
+     * recebem índices distintos sorteados uniformemente.
+     */
+    private void sorteia(int nIndividuos, int participantes) {
+        for (int k = 0; k < participantes; k++) {
+            int j = k + aleatorio.nextInt(nIndividuos - k);
+            int troca = indices[k];
+            indices[k] = indices[j];
+            indices[j] = troca;
+        }
+    }
+
+    /**
+     * Move os melhores participantes para o início do vetor de índices, em
+     * ordem crescente de posição.
+     */
+    private void ordenaVencedores(int participantes) {
+        for (int v = 0; v < nVencedores; v++) {
+            int melhor = v;
+            for (int k = v + 1; k < participantes; k++) {
+                if (indices[k] < indices[melhor]) {
+                    melhor = k;
+                }
+            }
+            int troca = indices[v];
+            indices[v] = indices[melhor];
+            indices[melhor] = troca;
+        }
+    }
+}
@@ -23,6 +23,9 @@
  */
 package usina.tubulacao;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import usina.Fluxo;
@@ -43,9 +46,24 @@ public class Conduto {
 	}
 
 	public Conduto(List<Tubulacao> tubos) {
+		tubos.forEach(Conduto::validaTubo);
 		this.tubos = tubos;
 	}
 
+	/**
+	 * Cria um conduto com os mesmos tubos de outro, sem turbina conectada.
+	 * 
+	 * <p>
+	 * Os tubos, imutáveis e com os coeficientes de perda já calculados, são
+	 * compartilhados; adições posteriores não afetam o modelo.
+	 * </p>
+	 * 
+	 * @param modelo Conduto a copiar.
+	 */
+	public Conduto(Conduto modelo) {
+		this.tubos = new ArrayList<>(modelo.tubos);
+	}
+
 	public final void conectaTurbina(final Turbina turbina) {
 		if (isConectado())
 			throw new IllegalStateException(
@@ -61,10 +79,24 @@ public class Conduto {
 	}
 
 	public final void adicianaTubo(Tubulacao tubo) {
-		if(tubo == null) throw new NullPointerException("Tubo é uma referência nula.");
+		validaTubo(tubo);
 		tubos.add(tubo);
 	}
 
+	/**
+	 * Rejeita, na montagem do conduto, segmentos sem as versões primitivas
+	 * das perdas, em vez de deixá-los falhar durante a otimização.
+	 * 
+	 * @param tubo Segmento a validar.
+	 * @throws IllegalArgumentException Se o tipo de segmento não for suportado.
+	 */
+	private static void validaTubo(Tubulacao tubo) {
+		if(tubo == null) throw new NullPointerException("Tubo é uma referência nula.");
+		if(!TrechoCompilado.suporta(tubo))
+			throw new IllegalArgumentException("Tipo de segmento não suportado: "
+					+ tubo.getClass().getSimpleName() + ".");
+	}
+
 	public final Double getPerdaHidraulica(Fluxo fluxo) {
 
 		Double perda;
@@ -74,4 +106,114 @@ public class Conduto {
 		return perda;
 	}
 
+	/**
+	 * Calcula a perda hidráulica total do conduto, dada uma vazão, para o
+	 * coeficiente de Reynolds padrão.
+	 * 
+	 * @param vazao Vazão [m^3/s].
+	 * @return Soma das perdas de todos os tubos do conduto.
+	 * @see Tubulacao#getPerdaHidraulica(double)
+	 */
+	public final double getPerdaHidraulica(double vazao) {
+		double perda = 0;
+		for (int i = 0; i < tubos.size(); i++) {
+			perda += tubos.get(i).getPerdaHidraulica(vazao);
+		}
+		return perda;
+	}
+
+	/**
+	 * Calcula a derivada da perda hidráulica total em relação à vazão, para o
+	 * coeficiente de Reynolds padrão.
+	 * 
+	 * @param vazao Vazão [m^3/s].
+	 * @return Soma das derivadas das perdas de todos os tubos [m/(m^3/s)].
+	 * @see Tubulacao#getDerivadaPerdaHidraulica(double)
+	 */
+	public final double getDerivadaPerdaHidraulica(double vazao) {
+		double derivada = 0;
+		for (int i = 0; i < tubos.size(); i++) {
+			derivada += tubos.get(i).getDerivadaPerdaHidraulica(vazao);
+		}
+		return derivada;
+	}
+
+	/**
+	 * Calcula, em uma única passada pelos tubos, a perda hidráulica total e
+	 * sua derivada em relação à vazão.
+	 * 
+	 * @param vazao Vazão [m^3/s].
+	 * @param derivada Vetor de saída: recebe a derivada na posição
+	 *            <code>posicao</code>.
+	 * @param posicao Posição do vetor de saída.
+	 * @return Perda hidráulica total [m].
+	 */
+	public final double getPerdaHidraulica(double vazao, double[] derivada, int posicao) {
+		double perda = 0;
+		double inclinacao = 0;
+		for (int i = 0; i < tubos.size(); i++) {
+			Tubulacao tubo = tubos.get(i);
+			perda += tubo.getPerdaHidraulica(vazao);
+			inclinacao += tubo.getDerivadaPerdaHidraulica(vazao);
+		}
+		derivada[posicao] = inclinacao;
+		return perda;
+	}
+
+	/**
+	 * Verifica se dois condutos têm a mesma sequência de segmentos, com o
+	 * mesmo tipo e a mesma geometria, na mesma ordem.
+	 * 
+	 * @param outro Conduto a comparar.
+	 * @return <code>true</code> se os condutos forem geometricamente iguais.
+	 */
+	public final boolean isEquivalente(Conduto outro) {
+		if (tubos.size() != outro.tubos.size()) {
+			return false;
+		}
+		for (int i = 0; i < tubos.size(); i++) {
+			if (!TrechoCompilado.compila(tubos.get(i))
+					.isMesmaGeometria(TrechoCompilado.compila(outro.tubos.get(i)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Grava os tubos do conduto já compilados, isto é, com as constantes de
+	 * perda calculadas.
+	 * 
+	 * @param saida Destino.
+	 * @throws IOException Se houver erro de escrita.
+	 * @throws IllegalArgumentException Se algum tubo não puder ser compilado.
+	 * @see #le(ByteBuffer)
+	 */
+	public final void escreve(DataOutput saida) throws IOException {
+		saida.writeInt(tubos.size());
+		for (int i = 0; i < tubos.size(); i++) {
+			TrechoCompilado.compila(tubos.get(i)).escreve(saida);
+		}
+	}
+
+	/**
+	 * Lê um conduto gravado por {@link #escreve(DataOutput)}, sem recalcular
+	 * as constantes de perda.
+	 * 
+	 * @param entrada Origem, posicionada no conduto.
+	 * @return Conduto sem turbina conectada.
+	 * @throws IllegalArgumentException Se o conteúdo for inválido.
+	 */
+	public static Conduto le(ByteBuffer entrada) {
+		int nTubos = entrada.getInt();
+		if (nTubos < 0) {
+			throw new IllegalArgumentException("Número de tubos negativo.");
+		}
+		List<Tubulacao> tubos = new ArrayList<>(nTubos);
+		for (int i = 0; i < nTubos; i++) {
+			tubos.add(TrechoCompilado.le(entrada));
+		}
+		return new Conduto(tubos);
+	}
+
 }
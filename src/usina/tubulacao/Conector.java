@@ -53,4 +53,23 @@ abstract class Conector extends Tubulacao {
      */
     public abstract Double getPerdaHidraulicaConexao(final Fluxo fluxo);
 
+    /**
+     * Versão primitiva de {@link #getPerdaHidraulicaConexao(Fluxo)}, para o
+     * coeficiente de Reynolds padrão.
+     *
+     * @since 1.0
+     * @param vazao Vazão [m^3/s].
+     * @return Valor da perda hidráulica, devido a esta conexão.
+     */
+    public abstract double getPerdaHidraulicaConexao(double vazao);
+
+    /**
+     * Derivada analítica de {@link #getPerdaHidraulicaConexao(double)}.
+     *
+     * @since 1.0
+     * @param vazao Vazão [m^3/s].
+     * @return Derivada da perda devida a esta conexão [m/(m^3/s)].
+     */
+    public abstract double getDerivadaPerdaHidraulicaConexao(double vazao);
+
 }
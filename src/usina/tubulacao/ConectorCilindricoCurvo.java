@@ -233,7 +233,7 @@ abstract class ConectorCilindricoCurvo extends Conector {
      * <code>conector</code>.
      * @since 1.0
      */
-    private Double getConstanteDePerdaPorCurvatura() {
+    Double getConstanteDePerdaPorCurvatura() {
         return constanteDePerdaPorCurvatura;
     }
 
@@ -340,4 +340,60 @@ abstract class ConectorCilindricoCurvo extends Conector {
     public final Double getPerdaHidraulica(final Fluxo fluxo) {
         return getPerdaHidraulicaConexao(fluxo);
     }
+
+    /**
+     * Versão primitiva de {@link #getPerdaHidraulicaCurvatura(Fluxo)}.
+     *
+     * @param vazao Vazão [m^3/s].
+     * @return Valor da perda hidráulica causada pela curvatura da
+     * <code>tubulação</code>.
+     * @since 1.0
+     */
+    public final double getPerdaHidraulicaCurvatura(double vazao) {
+        return constanteDePerdaPorCurvatura * (vazao * vazao);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final double getPerdaHidraulicaConexao(double vazao) {
+        return getPerdaHidraulicaCurvatura(vazao);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final double getPerdaHidraulica(double vazao) {
+        return getPerdaHidraulicaConexao(vazao);
+    }
+
+    /**
+     * Derivada analítica de {@link #getPerdaHidraulicaCurvatura(double)}:
+     * d(k·Q²)/dQ = 2·k·Q.
+     *
+     * @param vazao Vazão [m^3/s].
+     * @return Derivada da perda causada pela curvatura [m/(m^3/s)].
+     * @since 1.0
+     */
+    public final double getDerivadaPerdaHidraulicaCurvatura(double vazao) {
+        return 2 * constanteDePerdaPorCurvatura * vazao;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final double getDerivadaPerdaHidraulicaConexao(double vazao) {
+        return getDerivadaPerdaHidraulicaCurvatura(vazao);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final double getDerivadaPerdaHidraulica(double vazao) {
+        return getDerivadaPerdaHidraulicaConexao(vazao);
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2014 Victor de Lima Soares.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package usina.tubulacao;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import usina.Fluxo;
+
+/**
+ * Segmento de conduto reduzido às suas constantes de perda.
+ *
+ * <p>
+ * Guarda o fator de atrito e a constante de perda de um tubo, ou a constante
+ * de perda por curvatura de um conector, já calculados, e avalia as perdas na
+ * mesma ordem de operações do segmento original: os resultados são
+ * idênticos. A geometria também é guardada, e o segmento original só é
+ * reconstruído para fluxos com Reynolds diferente do padrão.
+ * </p>
+ *
+ * @author Victor de Lima Soares
+ * @version 1.0
+ *
+ * @see Conduto#escreve(DataOutput)
+ * @see Conduto#le(ByteBuffer)
+ */
+final class TrechoCompilado extends Tubulacao {
+
+    private static final byte TUBO_RETO = 1;
+    private static final byte CONECTOR_POLIGONAL = 2;
+    private static final byte CONECTOR_SUAVE = 3;
+
+    private final byte tipo;
+    private final double[] geometria;
+    private final double fator;
+    private final double constante;
+    private volatile Tubulacao original;
+
+    private TrechoCompilado(byte tipo, double[] geometria, double fator, double constante, Tubulacao original) {
+        this.tipo = tipo;
+        this.geometria = geometria;
+        this.fator = fator;
+        this.constante = constante;
+        this.original = original;
+    }
+
+    /**
+     * Indica se um segmento pode ser compilado, isto é, se o seu tipo tem
+     * as versões primitivas das perdas e derivadas definidas.
+     *
+     * @param tubo Segmento de conduto.
+     * @return Verdadeiro se {@link #compila(Tubulacao)} aceitar o segmento.
+     */
+    static boolean suporta(Tubulacao tubo) {
+        return tubo instanceof TrechoCompilado
+                || tubo instanceof TuboCilindricoReto
+                || tubo instanceof ConectorCilindricoCurvo;
+    }
+
+    /**
+     * Verifica se dois segmentos têm o mesmo tipo e a mesma geometria:
+     * comprimento, diâmetro e rugosidade de tubos; diâmetro e ângulo de
+     * conectores.
+     *
+     * @param outro Segmento a comparar.
+     * @return Verdadeiro se os segmentos forem geometricamente iguais.
+     */
+    boolean isMesmaGeometria(TrechoCompilado outro) {
+        return tipo == outro.tipo && Arrays.equals(geometria, outro.geometria);
+    }
+
+    /**
+     * Compila um segmento.
+     *
+     * @param tubo Segmento de conduto.
+     * @return Segmento compilado.
+     * @throws IllegalArgumentException Se o tipo de segmento não puder ser
+     * compilado.
+     */
+    static TrechoCompilado compila(Tubulacao tubo) {
+        if (tubo instanceof TrechoCompilado) {
+            return (TrechoCompilado) tubo;
+        }
+        if (tubo instanceof TuboCilindricoReto) {
+            TuboCilindricoReto reto = (TuboCilindricoReto) tubo;
+            return new TrechoCompilado(TUBO_RETO,
+                    new double[]{reto.getComprimento(), reto.getDiametro(), reto.getRugosidadeAbsoluta()},
+                    reto.getFatorAtritoPadrao(), reto.getConstanteDePerda(), tubo);
+        }
+        if (tubo instanceof ConectorCilindricoCurvo) {
+            ConectorCilindricoCurvo conector = (ConectorCilindricoCurvo) tubo;
+            return new TrechoCompilado(
+                    tubo instanceof ConectorCilindricoCurvoSuave ? CONECTOR_SUAVE : CONECTOR_POLIGONAL,
+                    new double[]{conector.getDiametro(), conector.getCurvatura()},
+                    conector.getConstanteDePerdaPorCurvatura(), 1, tubo);
+        }
+        throw new IllegalArgumentException("Segmento não compilável: " + tubo.getClass().getSimpleName() + ".");
+    }
+
+    /**
+     * Grava o segmento.
+     *
+     * @param saida Destino.
+     * @throws IOException Se houver erro de escrita.
+     */
+    void escreve(DataOutput saida) throws IOException {
+        saida.writeByte(tipo);
+        saida.writeByte(geometria.length);
+        for (double medida : geometria) {
+            saida.writeDouble(medida);
+        }
+        saida.writeDouble(fator);
+        saida.writeDouble(constante);
+    }
+
+    /**
+     * Lê um segmento gravado por {@link #escreve(DataOutput)}.
+     *
+     * @param entrada Origem, posicionada no segmento.
+     * @return Segmento compilado.
+     * @throws IllegalArgumentException Se o tipo de segmento for desconhecido.
+     */
+    static TrechoCompilado le(ByteBuffer entrada) {
+        byte tipo = entrada.get();
+        if (tipo < TUBO_RETO || tipo > CONECTOR_SUAVE) {
+            throw new IllegalArgumentException("Tipo de segmento desconhecido: " + tipo + ".");
+        }
+        double[] geometria = new double[entrada.get()];
+        for (int i = 0; i < geometria.length; i++) {
+            geometria[i] = entrada.getDouble();
+        }
+        return new TrechoCompilado(tipo, geometria, entrada.getDouble(), entrada.getDouble(), null);
+    }
+
+    private Tubulacao getOriginal() {
+        Tubulacao tubo = original;
+        if (tubo == null) {
+            switch (tipo) {
+                case TUBO_RETO:
+                    tubo = new TuboCilindricoReto(geometria[0], geometria[1], geometria[2]);
+                    break;
+                case CONECTOR_SUAVE:
+                    tubo = new ConectorCilindricoCurvoSuave(geometria[0], geometria[1]);
+                    break;
+                default:
+                    tubo = new ConectorCilindricoCurvoPoligonal(geometria[0], geometria[1]);
+            }
+            original = tubo;
+        }
+        return tubo;
+    }
+
+    @Override
+    public Double getPerdaHidraulica(final Fluxo fluxo) {
+        if (tipo == TUBO_RETO && !fluxo.getReynolds().equals(Fluxo.REYNOLDS_PADRAO)) {
+            return getOriginal().getPerdaHidraulica(fluxo);
+        }
+        return fator * Math.pow(fluxo.getVazao(), 2) * constante;
+    }
+
+    @Override
+    public double getPerdaHidraulica(double vazao) {
+        return fator * (vazao * vazao) * constante;
+    }
+
+    @Override
+    public double getDerivadaPerdaHidraulica(double vazao) {
+        return 2 * fator * vazao * constante;
+    }
+}
@@ -214,4 +214,62 @@ abstract class Tubo extends Tubulacao {
 		return getPerdaHidraulicaRetilinea(fluxo) + getPerdaHidraulicaCurvatura(fluxo);
 	}
 
+	/**
+	 * Versão primitiva de {@link #getPerdaHidraulicaCurvatura(Fluxo)}, para o
+	 * coeficiente de Reynolds padrão.
+	 * 
+	 * @param vazao
+	 *            Vazão [m^3/s].
+	 * @return Valor da perda hidráulica devida à curvatura.
+	 * @since 1.0
+	 */
+	public abstract double getPerdaHidraulicaCurvatura(double vazao);
+
+	/**
+	 * Versão primitiva de {@link #getPerdaHidraulicaRetilinea(Fluxo)}, para o
+	 * coeficiente de Reynolds padrão.
+	 * 
+	 * @param vazao
+	 *            Vazão [m^3/s].
+	 * @return Valor da perda hidráulica devida à parte retilínea.
+	 * @since 1.0
+	 */
+	public abstract double getPerdaHidraulicaRetilinea(double vazao);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getPerdaHidraulica(double vazao) {
+		return getPerdaHidraulicaRetilinea(vazao) + getPerdaHidraulicaCurvatura(vazao);
+	}
+
+	/**
+	 * Derivada analítica de {@link #getPerdaHidraulicaCurvatura(double)}.
+	 * 
+	 * @param vazao
+	 *            Vazão [m^3/s].
+	 * @return Derivada da perda devida à curvatura [m/(m^3/s)].
+	 * @since 1.0
+	 */
+	public abstract double getDerivadaPerdaHidraulicaCurvatura(double vazao);
+
+	/**
+	 * Derivada analítica de {@link #getPerdaHidraulicaRetilinea(double)}.
+	 * 
+	 * @param vazao
+	 *            Vazão [m^3/s].
+	 * @return Derivada da perda devida à parte retilínea [m/(m^3/s)].
+	 * @since 1.0
+	 */
+	public abstract double getDerivadaPerdaHidraulicaRetilinea(double vazao);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getDerivadaPerdaHidraulica(double vazao) {
+		return getDerivadaPerdaHidraulicaRetilinea(vazao) + getDerivadaPerdaHidraulicaCurvatura(vazao);
+	}
+
 }
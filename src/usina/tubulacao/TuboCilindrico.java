@@ -209,10 +209,18 @@ abstract class TuboCilindrico extends Tubo {
      * @since 1.0
      * @see #updateConstanteDePerda()
      */
-    private final Double getConstanteDePerda() {
+    final Double getConstanteDePerda() {
         return constanteDePerda;
     }
 
+    /**
+     * @return O fator de atrito para o coeficiente de Reynolds padrão.
+     * @since 1.0
+     */
+    final Double getFatorAtritoPadrao() {
+        return fatorAtritoPadrao;
+    }
+
     /**
      * @return O diâmetro [m].
      * @since 1.0
@@ -280,4 +288,20 @@ abstract class TuboCilindrico extends Tubo {
 
         return fatorAtrito * pow(fluxo.getVazao(), 2) * getConstanteDePerda();
     }
+
+    @Override
+    public final double getPerdaHidraulicaRetilinea(double vazao) {
+        return fatorAtritoPadrao * (vazao * vazao) * constanteDePerda;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * d(f·Q²·c)/dQ = 2·f·c·Q.
+     * </p>
+     */
+    @Override
+    public final double getDerivadaPerdaHidraulicaRetilinea(double vazao) {
+        return 2 * fatorAtritoPadrao * vazao * constanteDePerda;
+    }
 }
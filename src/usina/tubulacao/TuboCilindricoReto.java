@@ -63,4 +63,36 @@ public final class TuboCilindricoReto extends TuboCilindrico {
 	public final Double getPerdaHidraulica(final Fluxo fluxo) {
 		return getPerdaHidraulicaRetilinea(fluxo);
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final double getPerdaHidraulicaCurvatura(double vazao) {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final double getPerdaHidraulica(double vazao) {
+		return getPerdaHidraulicaRetilinea(vazao);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final double getDerivadaPerdaHidraulicaCurvatura(double vazao) {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final double getDerivadaPerdaHidraulica(double vazao) {
+		return getDerivadaPerdaHidraulicaRetilinea(vazao);
+	}
 }
@@ -60,4 +60,37 @@ abstract class Tubulacao {
 	 * @since 1.0
 	 */
 	public abstract Double getPerdaHidraulica(final Fluxo fluxo);
+
+	/**
+	 * Calcula a perda de carga total na tubulação, dada uma vazão, para o
+	 * coeficiente de Reynolds padrão.
+	 * 
+	 * <p>
+	 * Versão primitiva de {@link #getPerdaHidraulica(Fluxo)}, destinada aos
+	 * laços internos de avaliação: não aloca objetos.
+	 * </p>
+	 * 
+	 * @param vazao
+	 *            Vazão [m^3/s].
+	 * @return Valor da perda hidráulica para esta tubulação.
+	 * @since 1.0
+	 * @see Fluxo#REYNOLDS_PADRAO
+	 */
+	public abstract double getPerdaHidraulica(double vazao);
+
+	/**
+	 * Calcula a derivada da perda de carga total em relação à vazão, para o
+	 * coeficiente de Reynolds padrão.
+	 * 
+	 * <p>
+	 * Derivada analítica de {@link #getPerdaHidraulica(double)}: não usa
+	 * diferenças finitas nem aloca objetos.
+	 * </p>
+	 * 
+	 * @param vazao
+	 *            Vazão [m^3/s].
+	 * @return Derivada da perda hidráulica [m/(m^3/s)].
+	 * @since 1.0
+	 */
+	public abstract double getDerivadaPerdaHidraulica(double vazao);
 }